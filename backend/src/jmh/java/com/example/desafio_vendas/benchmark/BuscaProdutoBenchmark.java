@@ -0,0 +1,125 @@
+package com.example.desafio_vendas.benchmark;
+
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.repository.VendaRepository;
+import com.example.desafio_vendas.service.CatalogoProdutoService;
+import com.example.desafio_vendas.service.VendaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a busca de vendas por trecho do nome do produto pelo índice de trigramas do catálogo
+ * (VendaService.listarVendasComFiltro com produto) com um LIKE '%termo%' sobre o nome, com e sem
+ * intervalo de datas. Os 50 produtos de {@link ContextoBenchmark#popularVendas} podem ser
+ * acompanhados de {@code produtosExtras} nomes que não casam com os termos, para medir o índice
+ * com um catálogo grande; a memória estimada do índice é impressa na preparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BuscaProdutoBenchmark {
+
+    private static final String BUSCA_LIKE = VendaRepository.SELECAO_DTO + "WHERE LOWER(p.nome) LIKE :termo";
+    private static final String BUSCA_LIKE_PERIODO = BUSCA_LIKE + " AND v.dataVenda BETWEEN :dataInicio AND :dataFim";
+
+    @Param({"1000000"})
+    public int linhas;
+
+    @Param({"0", "100000"})
+    public int produtosExtras;
+
+    // Um produto ("Produto 17") e onze ("Produto 4" e "Produto 40" a "Produto 49")
+    @Param({"produto 17", "duto 4"})
+    public String termo;
+
+    private ConfigurableApplicationContext contexto;
+    private VendaService vendaService;
+    private CatalogoProdutoService catalogoProdutoService;
+    private EntityManager entityManager;
+    private LocalDate inicioUltimoMes;
+    private LocalDate hoje;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("busca_produto");
+        ContextoBenchmark.popularVendas(contexto, linhas);
+        contexto.getBean(JdbcTemplate.class).update("MERGE INTO produto (id, nome) KEY (id) "
+                + "SELECT 2000000 + X, CONCAT('Item avulso ', X) FROM SYSTEM_RANGE(1, ?)", produtosExtras);
+        vendaService = contexto.getBean(VendaService.class);
+        catalogoProdutoService = contexto.getBean(CatalogoProdutoService.class);
+        catalogoProdutoService.recarregar(); // os produtos foram inseridos por SQL, depois da carga do catálogo
+        entityManager = contexto.getBean(EntityManagerFactory.class).createEntityManager();
+        hoje = LocalDate.now();
+        inicioUltimoMes = hoje.minusDays(30);
+
+        MeterRegistry registry = contexto.getBean(MeterRegistry.class);
+        System.out.printf("%n== Índice de produtos: %.0f trigramas, %.0f bytes estimados%n",
+                registry.get("vendas.produtos.indice.trigramas").gauge().value(),
+                registry.get("vendas.produtos.indice.bytes").gauge().value());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        entityManager.close();
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Long> buscarProdutosNoIndice() {
+        return catalogoProdutoService.buscarIdsPorTrecho(termo);
+    }
+
+    @Benchmark
+    public List<VendaDTO> buscarUltimoMesComIndice() {
+        return vendaService.listarVendasComFiltro(inicioUltimoMes, hoje, termo);
+    }
+
+    @Benchmark
+    public List<VendaDTO> buscarUltimoMesComLike() {
+        return entityManager.createQuery(BUSCA_LIKE_PERIODO, VendaDTO.class)
+                .setParameter("termo", padraoLike())
+                .setParameter("dataInicio", inicioUltimoMes)
+                .setParameter("dataFim", hoje)
+                .getResultList();
+    }
+
+    @Benchmark
+    public List<VendaDTO> buscarTudoComIndice() {
+        return vendaService.listarVendasComFiltro(null, null, termo);
+    }
+
+    @Benchmark
+    public List<VendaDTO> buscarTudoComLike() {
+        return entityManager.createQuery(BUSCA_LIKE, VendaDTO.class)
+                .setParameter("termo", padraoLike())
+                .getResultList();
+    }
+
+    private String padraoLike() {
+        return "%" + termo.toLowerCase(Locale.ROOT) + "%";
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.desafio_vendas.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Cliente HTTP de carga: dispara requisições com concorrência fixa e mede a latência de cada uma.
+ */
+final class ClienteCarga implements AutoCloseable {
+
+    @FunctionalInterface
+    interface Operacao {
+        HttpRequest criar(ClienteCarga cliente, int indice);
+    }
+
+    record OperacaoPonderada(String nome, int peso, Operacao operacao) {}
+
+    record Resultado(String nome, int requisicoes, int erros, Duration duracao,
+                     double vazao, double p50Millis, double p95Millis, double p99Millis, long[] latenciasOrdenadas) {
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %8d req %6d erros %10.1f req/s  p50=%8.2f ms  p95=%8.2f ms  p99=%8.2f ms",
+                    nome, requisicoes, erros, vazao, p50Millis, p95Millis, p99Millis);
+        }
+
+        /**
+         * Histograma de latência em faixas que dobram de largura (até 1 ms, até 2 ms, até 4 ms...).
+         */
+        String histograma() {
+            StringBuilder texto = new StringBuilder();
+            int inicio = 0;
+            for (long limiteMillis = 1; inicio < latenciasOrdenadas.length; limiteMillis *= 2) {
+                long limiteNanos = limiteMillis * 1_000_000L;
+                int fim = inicio;
+                while (fim < latenciasOrdenadas.length && latenciasOrdenadas[fim] <= limiteNanos) {
+                    fim++;
+                }
+                int quantidade = fim - inicio;
+                if (quantidade > 0) {
+                    int barra = (int) Math.ceil(50.0 * quantidade / latenciasOrdenadas.length);
+                    texto.append(String.format("    <= %6d ms %8d %s%n", limiteMillis, quantidade, "#".repeat(barra)));
+                }
+                inicio = fim;
+            }
+            return texto.toString();
+        }
+    }
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final String urlBase;
+    private final int concorrencia;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private String token;
+
+    ClienteCarga(String urlBase, int concorrencia) {
+        this.urlBase = urlBase;
+        this.concorrencia = concorrencia;
+        this.executor = Executors.newFixedThreadPool(concorrencia);
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    void autenticar(String usuario, String senha) throws IOException, InterruptedException {
+        HttpResponse<String> resposta = httpClient.send(requisicaoLogin(usuario, senha), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(resposta.body());
+        if (resposta.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Falha no login: HTTP " + resposta.statusCode());
+        }
+        token = matcher.group(1);
+    }
+
+    HttpRequest requisicaoLogin(String usuario, String senha) {
+        return HttpRequest.newBuilder(URI.create(urlBase + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"usuario\":\"" + usuario + "\",\"senha\":\"" + senha + "\"}"))
+                .build();
+    }
+
+    HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(URI.create(urlBase + caminho))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    HttpRequest post(String caminho, String json) {
+        return HttpRequest.newBuilder(URI.create(urlBase + caminho))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * Executa a operação {@code requisicoes} vezes com {@code concorrencia} requisições em paralelo.
+     * Respostas com status 4xx/5xx contam como erro.
+     */
+    Resultado executar(String nome, int requisicoes, Operacao operacao) throws InterruptedException {
+        return executarMisto(requisicoes, List.of(new OperacaoPonderada(nome, 1, operacao)), 0L).get(0);
+    }
+
+    /**
+     * Executa uma carga mista: cada uma das {@code requisicoes} sorteia uma operação conforme os pesos.
+     * O sorteio depende só da semente, então a mesma semente repete a mesma sequência de operações.
+     *
+     * @return Um resultado por operação, na ordem recebida; a vazão de cada uma é sobre a duração total.
+     */
+    List<Resultado> executarMisto(int requisicoes, List<OperacaoPonderada> operacoes, long semente) throws InterruptedException {
+        int pesoTotal = operacoes.stream().mapToInt(OperacaoPonderada::peso).sum();
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        int[] escolhas = new int[requisicoes];
+        for (int i = 0; i < requisicoes; i++) {
+            int sorteio = aleatorio.nextInt(pesoTotal);
+            int operacao = 0;
+            while (sorteio >= operacoes.get(operacao).peso()) {
+                sorteio -= operacoes.get(operacao).peso();
+                operacao++;
+            }
+            escolhas[i] = operacao;
+        }
+
+        long[] latencias = new long[requisicoes];
+        AtomicInteger proxima = new AtomicInteger();
+        AtomicIntegerArray erros = new AtomicIntegerArray(operacoes.size());
+
+        ExecutorService trabalhadores = Executors.newFixedThreadPool(concorrencia);
+        long inicio = System.nanoTime();
+        for (int t = 0; t < concorrencia; t++) {
+            trabalhadores.submit(() -> {
+                int i;
+                while ((i = proxima.getAndIncrement()) < requisicoes) {
+                    Operacao operacao = operacoes.get(escolhas[i]).operacao();
+                    long antes = System.nanoTime();
+                    try {
+                        HttpResponse<Void> resposta = httpClient.send(operacao.criar(this, i), HttpResponse.BodyHandlers.discarding());
+                        if (resposta.statusCode() >= 400) {
+                            erros.incrementAndGet(escolhas[i]);
+                        }
+                    } catch (IOException e) {
+                        erros.incrementAndGet(escolhas[i]);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencias[i] = System.nanoTime() - antes;
+                }
+            });
+        }
+        trabalhadores.shutdown();
+        trabalhadores.awaitTermination(1, TimeUnit.HOURS);
+        long duracaoNanos = System.nanoTime() - inicio;
+
+        List<Resultado> resultados = new ArrayList<>(operacoes.size());
+        for (int o = 0; o < operacoes.size(); o++) {
+            int operacao = o;
+            long[] daOperacao = IntStream.range(0, requisicoes)
+                    .filter(i -> escolhas[i] == operacao)
+                    .mapToLong(i -> latencias[i])
+                    .sorted()
+                    .toArray();
+            resultados.add(new Resultado(operacoes.get(o).nome(), daOperacao.length, erros.get(o), Duration.ofNanos(duracaoNanos),
+                    daOperacao.length / (duracaoNanos / 1e9),
+                    percentil(daOperacao, 0.50), percentil(daOperacao, 0.95), percentil(daOperacao, 0.99), daOperacao));
+        }
+        return resultados;
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.desafio_vendas.benchmark;
+
+import com.example.desafio_vendas.DesafioVendasApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Sobe a aplicação sem servidor web, com um H2 exclusivo para o benchmark.
+ */
+final class ContextoBenchmark {
+
+    private static final String COLUNAS_VENDA =
+            "(id, produto_id, quantidade_vendida, data_venda, valor_total, versao, ultima_alteracao) ";
+    private static final String VENDAS_GERADAS = "SELECT 10000000 + X, 1000001 + MOD(X, 50), 1 + MOD(X, 10), "
+            + "DATEADD(DAY, -MOD(X, ?), CURRENT_DATE), CAST(100 + MOD(X, 1900) AS DECIMAL(19, 2)), 0, CURRENT_TIMESTAMP "
+            + "FROM SYSTEM_RANGE(1, ?)";
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String nomeBanco, String... propriedadesExtras) {
+        return new SpringApplicationBuilder(DesafioVendasApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + nomeBanco + ";DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "vendas.cache.ttl=0s", // mede o acesso ao banco, não o cache de consultas
+                        "vendas.relatorios.agendamento.habilitado=false", // o cálculo em segundo plano disputaria o banco
+                        "logging.level.root=WARN")
+                .properties(propriedadesExtras)
+                .run();
+    }
+
+    /**
+     * Sobe a aplicação com Tomcat em porta aleatória, opcionalmente com o perfil de virtual threads.
+     */
+    static ConfigurableApplicationContext iniciarServidor(String nomeBanco, boolean virtualThreads, String... propriedadesExtras) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(DesafioVendasApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + nomeBanco + ";DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "vendas.cache.ttl=0s",
+                        "vendas.limite-taxa.habilitado=false", // todas as threads de carga usam o mesmo usuário
+                        "vendas.relatorios.agendamento.habilitado=false",
+                        "logging.level.root=WARN")
+                .properties(propriedadesExtras);
+        if (virtualThreads) {
+            builder.profiles("virtual");
+        }
+        return builder.run();
+    }
+
+    static int porta(ConfigurableApplicationContext contexto) {
+        return contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Insere as vendas diretamente no H2 com SYSTEM_RANGE, bem mais rápido que via JPA.
+     * Os IDs começam em 10.000.000 para não colidir com a sequência usada pelo DataLoader.
+     */
+    static void popularVendas(ConfigurableApplicationContext contexto, int linhas) {
+        popularVendas(contexto, linhas, 365);
+    }
+
+    /**
+     * Como {@link #popularVendas(ConfigurableApplicationContext, int)}, distribuindo as vendas pelos últimos {@code dias} dias.
+     */
+    static void popularVendas(ConfigurableApplicationContext contexto, int linhas, int dias) {
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("MERGE INTO produto (id, nome) KEY (id) "
+                + "SELECT 1000000 + X, CONCAT('Produto ', X - 1) FROM SYSTEM_RANGE(1, 50)");
+        jdbcTemplate.update("INSERT INTO venda " + COLUNAS_VENDA + VENDAS_GERADAS, dias, linhas);
+    }
+
+    /**
+     * Devolve as vendas de {@link #popularVendas(ConfigurableApplicationContext, int)} ao estado inicial,
+     * recriando as removidas e desfazendo alterações (inclusive a versão), para benchmarks que as modificam.
+     */
+    static void restaurarVendas(ConfigurableApplicationContext contexto, int linhas) {
+        contexto.getBean(JdbcTemplate.class).update("MERGE INTO venda " + COLUNAS_VENDA + "KEY (id) " + VENDAS_GERADAS, 365, linhas);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.desafio_vendas.benchmark;
+
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.service.VendaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede VendaService.listarVendasComFiltro contra um H2 em memória populado com N vendas
+ * distribuídas pelos últimos 365 dias.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ListarVendasBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private VendaService vendaService;
+    private LocalDate inicioUltimoMes;
+    private LocalDate hoje;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("listar");
+        ContextoBenchmark.popularVendas(contexto, linhas);
+        vendaService = contexto.getBean(VendaService.class);
+        hoje = LocalDate.now();
+        inicioUltimoMes = hoje.minusDays(30);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<VendaDTO> listarUltimoMes() {
+        return vendaService.listarVendasComFiltro(inicioUltimoMes, hoje);
+    }
+
+    @Benchmark
+    public List<VendaDTO> listarSemFiltro() {
+        return vendaService.listarVendasComFiltro(null, null);
+    }
+}
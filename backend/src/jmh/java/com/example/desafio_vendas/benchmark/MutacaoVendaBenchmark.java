@@ -0,0 +1,122 @@
+package com.example.desafio_vendas.benchmark;
+
+import com.example.desafio_vendas.dto.AtualizarVendaDTO;
+import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.VendaRepository;
+import com.example.desafio_vendas.service.AgregacaoVendaService;
+import com.example.desafio_vendas.service.VendaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a remoção e a alteração de vendas feitas pelo JPA (findById seguido de delete/save,
+ * como o VendaService fazia antes) com os comandos únicos de VendaService.deletarVenda e
+ * VendaService.atualizarVenda. Cada remoção consome uma venda; as vendas removidas e as versões
+ * são restauradas a cada iteração, então {@code linhas} deve superar as remoções de uma iteração.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MutacaoVendaBenchmark {
+
+    private static final long PRIMEIRO_ID = 10_000_001L; // ver ContextoBenchmark.popularVendas
+
+    @Param({"500000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private VendaService vendaService;
+    private VendaRepository vendaRepository;
+    private AgregacaoVendaService agregacaoVendaService;
+    private TransactionTemplate transactionTemplate;
+
+    private long proximaRemocao;
+    private long proximaAlteracao;
+    private long[] versoes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("mutacao");
+        ContextoBenchmark.popularVendas(contexto, linhas);
+        vendaService = contexto.getBean(VendaService.class);
+        vendaRepository = contexto.getBean(VendaRepository.class);
+        agregacaoVendaService = contexto.getBean(AgregacaoVendaService.class);
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void restaurar() {
+        ContextoBenchmark.restaurarVendas(contexto, linhas);
+        agregacaoVendaService.reconstruirResumos();
+        proximaRemocao = PRIMEIRO_ID;
+        proximaAlteracao = PRIMEIRO_ID;
+        versoes = new long[linhas];
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public void deletarComEntidade() {
+        long id = proximaRemocao++;
+        transactionTemplate.executeWithoutResult(status -> {
+            Venda venda = vendaRepository.findById(id).orElseThrow();
+            vendaRepository.delete(venda);
+            agregacaoVendaService.removerVenda(venda);
+        });
+    }
+
+    @Benchmark
+    public void deletarComComandoUnico() {
+        vendaService.deletarVenda(proximaRemocao++);
+    }
+
+    @Benchmark
+    public void atualizarComEntidade() {
+        long id = proximoIdAlteracao();
+        transactionTemplate.executeWithoutResult(status -> {
+            Venda venda = vendaRepository.findById(id).orElseThrow();
+            agregacaoVendaService.removerVenda(venda);
+            venda.setQuantidadeVendida(venda.getQuantidadeVendida() % 10 + 1);
+            agregacaoVendaService.registrarVenda(vendaRepository.save(venda));
+        });
+        versoes[(int) (id - PRIMEIRO_ID)]++;
+    }
+
+    @Benchmark
+    public Venda atualizarComVersao() {
+        long id = proximoIdAlteracao();
+        int indice = (int) (id - PRIMEIRO_ID);
+        AtualizarVendaDTO dados = new AtualizarVendaDTO();
+        dados.setQuantidadeVendida(1 + indice % 10);
+        dados.setValorTotal(BigDecimal.valueOf(100 + indice % 1900));
+        dados.setVersao(versoes[indice]++);
+        return vendaService.atualizarVenda(id, dados, true);
+    }
+
+    // As alterações percorrem as vendas do fim para o início, longe das que já foram removidas
+    private long proximoIdAlteracao() {
+        return PRIMEIRO_ID + linhas - 1 - (proximaAlteracao++ - PRIMEIRO_ID) % (linhas / 2);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.desafio_vendas.benchmark;
+
+import com.example.desafio_vendas.dto.EstadoListagemDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.service.ParticionamentoVendaService;
+import com.example.desafio_vendas.service.VendaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a listagem de um período recente e de um mês fechado conforme o histórico cresce de
+ * um mês para cinco anos, com e sem o armazenamento particionado. Com partições, a latência
+ * deve ficar estável: as consultas só leem a tabela ativa e as partições do intervalo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParticionamentoBenchmark {
+
+    private static final int VENDAS_POR_DIA = 200;
+
+    @Param({"1", "12", "60"})
+    public int mesesHistorico;
+
+    @Param({"false", "true"})
+    public boolean particionado;
+
+    private ConfigurableApplicationContext contexto;
+    private VendaService vendaService;
+    private LocalDate inicioUltimaSemana;
+    private LocalDate hoje;
+    private LocalDate inicioMesAnterior;
+    private LocalDate fimMesAnterior;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("particionamento_" + mesesHistorico + "_" + particionado,
+                "vendas.particionamento.habilitado=" + particionado,
+                "vendas.particionamento.meses-ativos=1");
+        int dias = mesesHistorico * 31;
+        ContextoBenchmark.popularVendas(contexto, dias * VENDAS_POR_DIA, dias);
+        if (particionado) {
+            contexto.getBean(ParticionamentoVendaService.class).selarMesesAntigos();
+        }
+        vendaService = contexto.getBean(VendaService.class);
+
+        hoje = LocalDate.now();
+        inicioUltimaSemana = hoje.minusDays(6);
+        YearMonth mesAnterior = YearMonth.from(hoje).minusMonths(1);
+        inicioMesAnterior = mesAnterior.atDay(1);
+        fimMesAnterior = mesAnterior.atEndOfMonth();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<VendaDTO> listarUltimaSemana() {
+        return vendaService.listarVendasComFiltro(inicioUltimaSemana, hoje);
+    }
+
+    @Benchmark
+    public List<VendaDTO> listarMesAnterior() {
+        return vendaService.listarVendasComFiltro(inicioMesAnterior, fimMesAnterior);
+    }
+
+    @Benchmark
+    public EstadoListagemDTO estadoMesAnterior() {
+        return vendaService.estadoDaListagem(inicioMesAnterior, fimMesAnterior);
+    }
+}
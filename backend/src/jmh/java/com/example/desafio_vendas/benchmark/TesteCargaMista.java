@@ -0,0 +1,90 @@
+package com.example.desafio_vendas.benchmark;
+
+import com.example.desafio_vendas.service.AgregacaoVendaService;
+import com.example.desafio_vendas.service.AnaliseColunarService;
+import com.example.desafio_vendas.service.GeradorVendas;
+import com.example.desafio_vendas.service.SemeaduraVendaService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Carga mista de leitura e escrita (login, listagens, agregações e criação de vendas) sobre um
+ * banco populado pelo {@link GeradorVendas}, com histograma de latência por operação.
+ * Sobe a aplicação com H2 em memória, sem acesso à rede; com {@code -Dcarga.url} usa uma
+ * instância já em execução (por exemplo, com o perfil "carga").
+ * <pre>
+ * ./mvnw -P benchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.desafio_vendas.benchmark.TesteCargaMista \
+ *     -Dcarga.linhas=1000000 -Dcarga.concorrencia=100 -Dcarga.requisicoes=50000 -Dcarga.peso-escrita=20
+ * </pre>
+ */
+public final class TesteCargaMista {
+
+    private TesteCargaMista() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long linhas = Long.getLong("carga.linhas", 1_000_000L);
+        int concorrencia = Integer.getInteger("carga.concorrencia", 100);
+        int requisicoes = Integer.getInteger("carga.requisicoes", 50_000);
+        int pesoEscrita = Integer.getInteger("carga.peso-escrita", 20);
+        long semente = Long.getLong("carga.semente", 42L);
+        String url = System.getProperty("carga.url");
+
+        ConfigurableApplicationContext contexto = null;
+        try {
+            if (url == null) {
+                contexto = ContextoBenchmark.iniciarServidor("carga_mista", false, "vendas.semeadura.semente=" + semente);
+                SemeaduraVendaService semeadura = contexto.getBean(SemeaduraVendaService.class);
+                System.out.println("== Semeadura: " + semeadura.semear(linhas));
+                contexto.getBean(AgregacaoVendaService.class).reconstruirResumos();
+                contexto.getBean(AnaliseColunarService.class).carregar();
+                url = "http://localhost:" + ContextoBenchmark.porta(contexto);
+            }
+            // Mesmos parâmetros padrão da semeadura, para que datas e produtos sorteados existam no banco
+            GeradorVendas gerador = new GeradorVendas(semente, 500, 730, LocalDate.now());
+
+            try (ClienteCarga cliente = new ClienteCarga(url, concorrencia)) {
+                cliente.autenticar("admin", "senha123");
+                List<ClienteCarga.OperacaoPonderada> operacoes = List.of(
+                        new ClienteCarga.OperacaoPonderada("POST /auth/login", 1,
+                                (c, i) -> c.requisicaoLogin("admin", "senha123")),
+                        new ClienteCarga.OperacaoPonderada("GET /vendas (7 dias)", 40,
+                                (c, i) -> c.get("/vendas" + intervalo(gerador, i, 7))),
+                        new ClienteCarga.OperacaoPonderada("GET /vendas/pagina (30 dias)", 20,
+                                (c, i) -> c.get("/vendas/pagina" + intervalo(gerador, i, 30))),
+                        new ClienteCarga.OperacaoPonderada("GET /vendas/agregados (90 dias)", 10,
+                                (c, i) -> c.get("/vendas/agregados" + intervalo(gerador, i, 90))),
+                        new ClienteCarga.OperacaoPonderada("GET /vendas/analytics/por-produto", 5,
+                                (c, i) -> c.get("/vendas/analytics/por-produto?limite=10")),
+                        new ClienteCarga.OperacaoPonderada("POST /vendas", pesoEscrita,
+                                (c, i) -> c.post("/vendas", novaVenda(gerador, i))));
+
+                System.out.println("== Carga mista (concorrência " + concorrencia + ", " + requisicoes + " requisições)");
+                for (ClienteCarga.Resultado resultado : cliente.executarMisto(requisicoes, operacoes, semente)) {
+                    System.out.println(resultado);
+                    System.out.print(resultado.histograma());
+                }
+            }
+        } finally {
+            if (contexto != null) {
+                contexto.close();
+            }
+        }
+    }
+
+    private static String intervalo(GeradorVendas gerador, int indice, int dias) {
+        LocalDate fim = gerador.sortearData(gerador.aleatorio(indice));
+        return "?dataInicio=" + fim.minusDays(dias - 1) + "&dataFim=" + fim;
+    }
+
+    private static String novaVenda(GeradorVendas gerador, int indice) {
+        SplittableRandom aleatorio = gerador.aleatorio(indice);
+        GeradorVendas.VendaGerada venda = gerador.proxima(aleatorio);
+        return "{\"nomeProduto\":\"" + gerador.nomeProduto(venda.produto()) + "\",\"quantidadeVendida\":" + venda.quantidade()
+                + ",\"dataVenda\":\"" + venda.data() + "\",\"valorTotal\":" + venda.valorTotal().toPlainString() + "}";
+    }
+}
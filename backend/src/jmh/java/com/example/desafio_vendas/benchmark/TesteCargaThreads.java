@@ -0,0 +1,46 @@
+package com.example.desafio_vendas.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+
+/**
+ * Compara vazão e latência dos endpoints de listagem e criação de vendas com as threads
+ * de plataforma padrão do Tomcat e com o perfil "virtual" (virtual threads + limite de concorrência).
+ * <p>
+ * O perfil "virtual" só muda o modelo de threads quando executado em JDK 21 ou superior.
+ * <pre>
+ * ./mvnw -P benchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.desafio_vendas.benchmark.TesteCargaThreads \
+ *     -Dcarga.concorrencia=500 -Dcarga.requisicoes=20000
+ * </pre>
+ */
+public final class TesteCargaThreads {
+
+    private TesteCargaThreads() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concorrencia = Integer.getInteger("carga.concorrencia", 200);
+        int requisicoes = Integer.getInteger("carga.requisicoes", 10_000);
+        int linhas = Integer.getInteger("carga.linhas", 100_000);
+        String ultimaSemana = "/vendas?dataInicio=" + LocalDate.now().minusDays(7) + "&dataFim=" + LocalDate.now();
+        String novaVenda = "{\"nomeProduto\":\"Headset Pro\",\"quantidadeVendida\":2,\"dataVenda\":\""
+                + LocalDate.now() + "\",\"valorTotal\":599.80}";
+
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            String modo = virtualThreads ? "virtual" : "plataforma";
+            try (ConfigurableApplicationContext contexto = ContextoBenchmark.iniciarServidor("carga_" + modo, virtualThreads);
+                 ClienteCarga cliente = new ClienteCarga("http://localhost:" + ContextoBenchmark.porta(contexto), concorrencia)) {
+                ContextoBenchmark.popularVendas(contexto, linhas);
+                cliente.autenticar("admin", "senha123");
+
+                System.out.println("== Threads de " + modo + " (concorrência " + concorrencia + ")");
+                System.out.println(cliente.executar("GET /vendas (7 dias) [" + modo + "]", requisicoes,
+                        (c, i) -> c.get(ultimaSemana)));
+                System.out.println(cliente.executar("POST /vendas [" + modo + "]", requisicoes,
+                        (c, i) -> c.post("/vendas", novaVenda)));
+            }
+        }
+    }
+}
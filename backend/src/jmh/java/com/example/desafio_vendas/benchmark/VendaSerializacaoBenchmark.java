@@ -0,0 +1,192 @@
+package com.example.desafio_vendas.benchmark;
+
+import com.example.desafio_vendas.dto.CriarVendaDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.json.CamposVenda;
+import com.example.desafio_vendas.json.EscritorJson;
+import com.example.desafio_vendas.json.SerializadorVendas;
+import com.example.desafio_vendas.model.Produto;
+import com.example.desafio_vendas.model.Venda;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a serialização Jackson de List&lt;Venda&gt; e da projeção List&lt;VendaDTO&gt; devolvida
+ * pelas listagens, com todos os campos e com ?campos=id,valorTotal (mesma configuração do Spring MVC),
+ * e o mapeamento CriarVendaDTO -> Venda usado em criarVenda.
+ * <p>
+ * Os métodos jackson* e dedicado* escrevem o mesmo conteúdo na mesma saída descartável, como o
+ * Spring MVC faz no corpo da resposta, comparando o ObjectMapper com o {@link SerializadorVendas}.
+ * Para comparar a alocação por operação, rode com {@code -prof gc} (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VendaSerializacaoBenchmark {
+
+    @Param({"100", "10000"})
+    public int tamanhoLista;
+
+    private ObjectMapper objectMapper;
+    private List<Venda> vendas;
+    private List<VendaDTO> projecoes;
+    private ObjectWriter escritorCampos;
+    private CamposVenda campos;
+    private final Descarte descarte = new Descarte();
+    private CriarVendaDTO dados;
+    private Produto produto;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .filters(new SimpleFilterProvider().addFilter(VendaDTO.FILTRO_CAMPOS, SimpleBeanPropertyFilter.serializeAll()))
+                .build();
+        escritorCampos = objectMapper.writer(new SimpleFilterProvider()
+                .addFilter(VendaDTO.FILTRO_CAMPOS, SimpleBeanPropertyFilter.filterOutAllExcept("id", "valorTotal")));
+
+        vendas = new ArrayList<>(tamanhoLista);
+        LocalDate hoje = LocalDate.now();
+        Produto[] produtos = new Produto[50];
+        for (int i = 0; i < produtos.length; i++) {
+            produtos[i] = new Produto((long) i + 1, "Produto " + i);
+        }
+        for (int i = 0; i < tamanhoLista; i++) {
+            Venda venda = new Venda();
+            venda.setId((long) i);
+            venda.setProduto(produtos[i % 50]);
+            venda.setQuantidadeVendida(1 + i % 10);
+            venda.setDataVenda(hoje.minusDays(i % 365));
+            venda.setValorTotal(BigDecimal.valueOf(10_000 + i, 2));
+            vendas.add(venda);
+        }
+        projecoes = new ArrayList<>(vendas.size());
+        Instant alteracao = Instant.parse("2024-05-01T12:00:00.123Z");
+        for (Venda venda : vendas) {
+            venda.setVersao(0L);
+            venda.setUltimaAlteracao(alteracao);
+            projecoes.add(VendaDTO.de(venda));
+        }
+        campos = CamposVenda.de("id,valorTotal");
+
+        dados = new CriarVendaDTO();
+        dados.setNomeProduto("Headset Pro");
+        dados.setQuantidadeVendida(3);
+        dados.setDataVenda(hoje);
+        dados.setValorTotal(new BigDecimal("899.90"));
+        produto = new Produto(51L, "Headset Pro");
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(vendas);
+    }
+
+    @Benchmark
+    public byte[] serializarProjecoes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(projecoes);
+    }
+
+    @Benchmark
+    public byte[] serializarProjecoesComCampos() throws JsonProcessingException {
+        return escritorCampos.writeValueAsBytes(projecoes);
+    }
+
+    @Benchmark
+    public Venda mapearDtoParaEntidade() {
+        return dados.paraEntidade(produto);
+    }
+
+    @Benchmark
+    public long jacksonEntidades() throws IOException {
+        objectMapper.writeValue(descarte, vendas);
+        return descarte.reiniciar();
+    }
+
+    @Benchmark
+    public long dedicadoEntidades() throws IOException {
+        try (EscritorJson escritor = EscritorJson.abrir(descarte)) {
+            SerializadorVendas.escrever(escritor, vendas, CamposVenda.TODOS);
+        }
+        return descarte.reiniciar();
+    }
+
+    @Benchmark
+    public long jacksonProjecoes() throws IOException {
+        objectMapper.writeValue(descarte, projecoes);
+        return descarte.reiniciar();
+    }
+
+    @Benchmark
+    public long dedicadoProjecoes() throws IOException {
+        try (EscritorJson escritor = EscritorJson.abrir(descarte)) {
+            SerializadorVendas.escrever(escritor, projecoes, CamposVenda.TODOS);
+        }
+        return descarte.reiniciar();
+    }
+
+    @Benchmark
+    public long jacksonProjecoesComCampos() throws IOException {
+        escritorCampos.writeValue(descarte, projecoes);
+        return descarte.reiniciar();
+    }
+
+    @Benchmark
+    public long dedicadoProjecoesComCampos() throws IOException {
+        try (EscritorJson escritor = EscritorJson.abrir(descarte)) {
+            SerializadorVendas.escrever(escritor, projecoes, campos);
+        }
+        return descarte.reiniciar();
+    }
+
+    /**
+     * Saída que só conta os bytes, para que o custo medido seja o da serialização e não o da cópia.
+     * writeValue fecharia a saída (AUTO_CLOSE_TARGET), o que aqui não tem efeito.
+     */
+    private static final class Descarte extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        long reiniciar() {
+            long escritos = bytes;
+            bytes = 0;
+            return escritos;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.desafio_vendas.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+
+    static final String SEGREDO = "segredo-de-benchmark";
+
+    private JwtTokenService jwtTokenService;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtTokenService = criarJwtTokenService();
+        token = jwtTokenService.gerarToken("admin");
+    }
+
+    static JwtTokenService criarJwtTokenService() {
+        JwtTokenService servico = new JwtTokenService();
+        ReflectionTestUtils.setField(servico, "chavesJwt", criarChavesJwt());
+        ReflectionTestUtils.setField(servico, "meterRegistry", new SimpleMeterRegistry());
+        servico.inicializar();
+        return servico;
+    }
+
+    static ChavesJwt criarChavesJwt() {
+        return new ChavesJwt(SEGREDO, "", Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return jwtTokenService.gerarToken("admin");
+    }
+
+    @Benchmark
+    public String validarToken() {
+        return jwtTokenService.validarToken(token);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.desafio_vendas.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o SecurityFilter com o cache de tokens ativo (acerto) e desativado (verificação HMAC a cada requisição),
+ * com a lista de revogação vazia e com {@code revogados} tokens (o token medido não está entre eles).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public int tamanhoCache;
+
+    @Param({"0", "100000"})
+    public int revogados;
+
+    private SecurityFilter securityFilter;
+    private MockHttpServletRequest request;
+    private RevogacaoTokens revogacaoTokens;
+
+    @Setup
+    public void preparar() throws IOException {
+        JwtTokenService jwtTokenService = JwtTokenServiceBenchmark.criarJwtTokenService();
+        ChavesJwt chavesJwt = (ChavesJwt) ReflectionTestUtils.getField(jwtTokenService, "chavesJwt");
+
+        Path arquivoRevogacao = Files.createTempFile("revogados", ".txt");
+        arquivoRevogacao.toFile().deleteOnExit();
+        List<String> ids = new ArrayList<>(revogados);
+        for (int i = 0; i < revogados; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        Files.write(arquivoRevogacao, ids);
+        revogacaoTokens = new RevogacaoTokens(arquivoRevogacao.toString(), Duration.ofHours(1), 0.001,
+                new SimpleMeterRegistry());
+
+        securityFilter = new SecurityFilter();
+        ReflectionTestUtils.setField(securityFilter, "jwtTokenService", jwtTokenService);
+        ReflectionTestUtils.setField(securityFilter, "revogacaoTokens", revogacaoTokens);
+        ReflectionTestUtils.setField(securityFilter, "cacheTokens",
+                new CacheTokens(tamanhoCache, revogacaoTokens, chavesJwt, new SimpleMeterRegistry()));
+
+        request = new MockHttpServletRequest("GET", "/vendas");
+        request.addHeader("Authorization", "Bearer " + jwtTokenService.gerarToken("admin"));
+    }
+
+    @TearDown
+    public void encerrar() {
+        revogacaoTokens.encerrar();
+    }
+
+    @Benchmark
+    public Object filtrar() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+        securityFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        Object autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacao;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.desafio_vendas.config;
+
+import com.example.desafio_vendas.repository.ResumoVendaDiariaRepository;
+import com.example.desafio_vendas.repository.VendaRepository;
+import com.example.desafio_vendas.security.JwtTokenService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aquece a aplicação antes de ela se declarar pronta: abre todas as conexões do pool, executa as
+ * consultas do {@link VendaRepository} (planos do Hibernate e do H2) e chama os endpoints mais usados
+ * até o JIT compilar o caminho quente. O Spring Boot só publica a prontidão (ACCEPTING_TRAFFIC,
+ * visível em /actuator/health/readiness) depois que os listeners de ApplicationReadyEvent terminam.
+ */
+@Component
+@ConditionalOnProperty(name = "vendas.aquecimento.habilitado", havingValue = "true")
+public class AquecimentoAplicacao {
+
+    private static final Logger log = LoggerFactory.getLogger(AquecimentoAplicacao.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private ResumoVendaDiariaRepository resumoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${vendas.aquecimento.iteracoes:200}")
+    private int iteracoes;
+
+    @Value("${vendas.aquecimento.tempo-maximo:60s}")
+    private Duration tempoMaximo;
+
+    // Sujeito do token usado nas chamadas HTTP; deve estar em vendas.limite-taxa.sujeitos-isentos
+    @Value("${vendas.aquecimento.sujeito:aquecimento}")
+    private String sujeito;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void aquecer() {
+        long inicio = System.nanoTime();
+        long prazo = inicio + tempoMaximo.toNanos();
+        try {
+            int conexoes = abrirConexoes();
+            prepararConsultas(prazo);
+            int chamadas = exercitarEndpoints(prazo);
+            log.info("Aquecimento concluído em {} ms: {} conexões abertas, {} chamadas HTTP",
+                    (System.nanoTime() - inicio) / 1_000_000, conexoes, chamadas);
+        } catch (Exception e) {
+            // Um aquecimento incompleto não pode impedir a aplicação de atender
+            log.warn("Aquecimento interrompido após {} ms", (System.nanoTime() - inicio) / 1_000_000, e);
+        }
+    }
+
+    /**
+     * Pede ao pool todas as conexões ao mesmo tempo, forçando sua criação agora e não na primeira rajada.
+     */
+    private int abrirConexoes() throws SQLException {
+        int tamanho = dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                : 1;
+        List<Connection> conexoes = new ArrayList<>(tamanho);
+        try {
+            for (int i = 0; i < tamanho; i++) {
+                Connection conexao = dataSource.getConnection();
+                conexoes.add(conexao);
+                conexao.isValid(1);
+            }
+        } finally {
+            for (Connection conexao : conexoes) {
+                conexao.close();
+            }
+        }
+        return conexoes.size();
+    }
+
+    private void prepararConsultas(long prazo) {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = hoje.minusDays(6);
+        for (int i = 0; i < iteracoes && System.nanoTime() < prazo; i++) {
+            leitura.executeWithoutResult(status -> {
+                vendaRepository.listarPorPeriodo(inicio, hoje);
+                vendaRepository.buscarPrimeiraPagina(inicio, hoje, PageRequest.ofSize(100));
+                vendaRepository.buscarPaginaApos(inicio, hoje, inicio, 0L, PageRequest.ofSize(100));
+                vendaRepository.agruparPorDiaEProduto(inicio, hoje);
+                vendaRepository.estadoPorPeriodo(inicio, hoje);
+                vendaRepository.estadoCompleto();
+                vendaRepository.buscarDTOPorId(0L);
+                resumoRepository.buscarPorPeriodo(inicio, hoje);
+            });
+        }
+    }
+
+    private int exercitarEndpoints(long prazo) throws IOException, InterruptedException {
+        String porta = environment.getProperty("local.server.port");
+        if (porta == null) {
+            return 0; // sem servidor web (ex.: benchmarks)
+        }
+        String urlBase = "http://localhost:" + porta;
+        String token = jwtTokenService.gerarToken(sujeito);
+        LocalDate hoje = LocalDate.now();
+        String intervalo = "?dataInicio=" + hoje.minusDays(6) + "&dataFim=" + hoje;
+        List<String> caminhos = List.of(
+                "/vendas" + intervalo,
+                "/vendas/pagina" + intervalo,
+                "/vendas/agregados" + intervalo,
+                "/vendas/agregados/top-produtos" + intervalo,
+                "/vendas/analytics/resumo" + intervalo,
+                "/vendas/0");
+
+        int chamadas = 0;
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        for (int i = 0; i < iteracoes && System.nanoTime() < prazo; i++) {
+            for (String caminho : caminhos) {
+                HttpRequest requisicao = HttpRequest.newBuilder(URI.create(urlBase + caminho))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(10))
+                        .GET()
+                        .build();
+                cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()); // 404 em /vendas/0 é esperado
+                chamadas++;
+            }
+        }
+        return chamadas;
+    }
+}
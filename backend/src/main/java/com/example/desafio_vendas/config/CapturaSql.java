@@ -0,0 +1,66 @@
+package com.example.desafio_vendas.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Registrado no Hibernate como {@link StatementInspector}, devolve o SQL que uma chamada de repositório
+ * geraria sem deixá-lo chegar ao banco. Fora de {@link #capturar(Runnable)} repassa o SQL intacto.
+ */
+@Component
+public class CapturaSql implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<Boolean> capturando = ThreadLocal.withInitial(() -> false);
+
+    @Override
+    public void customize(Map<String, Object> propriedades) {
+        propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (capturando.get()) {
+            // Interrompe a chamada antes de o Hibernate preparar o comando
+            throw new SqlCapturado(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Executa a chamada e devolve o primeiro SQL que o Hibernate geraria para ela.
+     * Deve rodar dentro de uma transação, que o chamador desfaz.
+     *
+     * @param chamada Chamada a um método de repositório.
+     * @return O SQL gerado, com os parâmetros como {@code ?}.
+     */
+    public String capturar(Runnable chamada) {
+        capturando.set(true);
+        try {
+            chamada.run();
+        } catch (RuntimeException e) {
+            for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+                if (causa instanceof SqlCapturado capturado) {
+                    return capturado.sql;
+                }
+            }
+            throw e;
+        } finally {
+            capturando.remove();
+        }
+        throw new IllegalStateException("A chamada não gerou nenhum SQL");
+    }
+
+    private static final class SqlCapturado extends RuntimeException {
+
+        private final String sql;
+
+        private SqlCapturado(String sql) {
+            super(null, null, false, false);
+            this.sql = sql;
+        }
+    }
+}
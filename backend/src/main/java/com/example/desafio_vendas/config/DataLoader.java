@@ -1,13 +1,20 @@
 package com.example.desafio_vendas.config;
 
 import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.ParticaoVendaRepository;
 import com.example.desafio_vendas.repository.VendaRepository;
+import com.example.desafio_vendas.service.AgregacaoVendaService;
+import com.example.desafio_vendas.service.CatalogoProdutoService;
+import com.example.desafio_vendas.service.SemeaduraVendaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 @Component
@@ -16,19 +23,46 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private VendaRepository vendaRepository;
 
+    @Autowired
+    private ParticaoVendaRepository particaoVendaRepository;
+
+    @Autowired
+    private AgregacaoVendaService agregacaoVendaService;
+
+    @Autowired
+    private CatalogoProdutoService catalogoProdutoService;
+
+    @Autowired
+    private SemeaduraVendaService semeaduraVendaService;
+
+    // Com valor positivo (perfil "carga"), gera esse volume de vendas no lugar das 20 simuladas
+    @Value("${vendas.semeadura.linhas:0}")
+    private long linhasSemeadura;
+
+    @Value("${vendas.dados-simulados.habilitado:true}")
+    private boolean dadosSimulados;
+
     @Override
     public void run(String... args) throws Exception {
-        if (vendaRepository.count() == 0) { 
-            popularVendasSimuladas();
+        // Com todos os meses selados a tabela ativa fica vazia; as partições também contam como dados reais
+        if (vendaRepository.count() == 0 && particaoVendaRepository.count() == 0) {
+            if (linhasSemeadura > 0) {
+                semeaduraVendaService.semear(linhasSemeadura);
+            } else if (dadosSimulados) {
+                popularVendasSimuladas();
+            }
         }
+        // As vendas simuladas são gravadas direto no repositório, então o resumo diário é recalculado aqui
+        agregacaoVendaService.reconstruirResumos();
     }
 
     private void popularVendasSimuladas() {
-        vendaRepository.save(new Venda(null, "Notebook Gamer X", 2, LocalDate.now().minusDays(5), new BigDecimal("7500.00")));
-        vendaRepository.save(new Venda(null, "Monitor LED 27\"", 5, LocalDate.now().minusDays(3), new BigDecimal("1250.50")));
-        vendaRepository.save(new Venda(null, "Teclado Mecânico RGB", 10, LocalDate.now().minusDays(1), new BigDecimal("350.75")));
-        vendaRepository.save(new Venda(null, "Mouse Sem Fio Ergonômico", 8, LocalDate.now().minusDays(10), new BigDecimal("150.00")));
-        vendaRepository.save(new Venda(null, "SSD 1TB NVMe", 3, LocalDate.now().minusDays(2), new BigDecimal("600.00")));
+        List<Venda> vendas = new ArrayList<>();
+        vendas.add(new Venda(null, catalogoProdutoService.obterOuCriar("Notebook Gamer X"), 2, LocalDate.now().minusDays(5), new BigDecimal("7500.00")));
+        vendas.add(new Venda(null, catalogoProdutoService.obterOuCriar("Monitor LED 27\""), 5, LocalDate.now().minusDays(3), new BigDecimal("1250.50")));
+        vendas.add(new Venda(null, catalogoProdutoService.obterOuCriar("Teclado Mecânico RGB"), 10, LocalDate.now().minusDays(1), new BigDecimal("350.75")));
+        vendas.add(new Venda(null, catalogoProdutoService.obterOuCriar("Mouse Sem Fio Ergonômico"), 8, LocalDate.now().minusDays(10), new BigDecimal("150.00")));
+        vendas.add(new Venda(null, catalogoProdutoService.obterOuCriar("SSD 1TB NVMe"), 3, LocalDate.now().minusDays(2), new BigDecimal("600.00")));
 
         String[] produtos = {"Smartphone Top", "Cadeira Gamer Confort", "Headset Pro", "Webcam Full HD", "Placa de Vídeo RTX"};
         for (long i = 0; i < 15; i++) { 
@@ -37,8 +71,9 @@ public class DataLoader implements CommandLineRunner {
             LocalDate data = LocalDate.now().minusDays(ThreadLocalRandom.current().nextInt(1, 31));
             BigDecimal precoUnitario = BigDecimal.valueOf(ThreadLocalRandom.current().nextDouble(100, 2000)).setScale(2, BigDecimal.ROUND_HALF_UP);
             BigDecimal valorTotal = precoUnitario.multiply(BigDecimal.valueOf(quantidade));
-            vendaRepository.save(new Venda(null, produto, quantidade, data, valorTotal));
+            vendas.add(new Venda(null, catalogoProdutoService.obterOuCriar(produto), quantidade, data, valorTotal));
         }
+        vendaRepository.saveAll(vendas); // gravadas em lote graças aos IDs por sequência
         System.out.println(">>> Banco de dados H2 populado com dados de vendas simuladas.");
     }
 }
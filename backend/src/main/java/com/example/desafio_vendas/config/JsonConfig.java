@@ -0,0 +1,28 @@
+package com.example.desafio_vendas.config;
+
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.json.VendaJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfig {
+
+    // Sem ?campos=, o filtro de VendaDTO serializa todos os campos; o controller troca o filtro por requisição
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer filtroCamposVenda() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(VendaDTO.FILTRO_CAMPOS, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    // O Spring Boot coloca os conversores declarados como bean antes dos padrão, então este atende vendas e erros
+    @Bean
+    @ConditionalOnProperty(name = "vendas.json.escritor-dedicado.habilitado", havingValue = "true", matchIfMissing = true)
+    public VendaJsonHttpMessageConverter vendaJsonHttpMessageConverter() {
+        return new VendaJsonHttpMessageConverter();
+    }
+}
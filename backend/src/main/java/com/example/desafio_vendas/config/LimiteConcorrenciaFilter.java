@@ -0,0 +1,137 @@
+package com.example.desafio_vendas.config;
+
+import com.example.desafio_vendas.dto.DetalheErro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita quantas requisições de /vendas executam ao mesmo tempo. Com virtual threads o
+ * servidor deixa de ter um teto de threads, então é este semáforo que impede milhares de
+ * requisições simultâneas de disputarem o pool de conexões do banco.
+ * <p>
+ * Roda dentro da cadeia do Spring Security, depois da autorização (ver {@code SecurityConfig}),
+ * para que requisições sem token sejam recusadas sem ocupar uma permissão. Nos endpoints que
+ * transmitem o corpo de forma assíncrona, a permissão só é devolvida quando a transmissão termina.
+ */
+@Component
+@ConditionalOnProperty(name = "vendas.concorrencia.limite.habilitado", havingValue = "true")
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    // Corpos StreamingResponseBody, que leem o banco depois de o controller retornar. O SSE de
+    // /vendas/stream não entra: a assinatura fica aberta sem usar o banco e prenderia a permissão
+    private static final Set<String> CAMINHOS_TRANSMISSAO = Set.of("/vendas/fluxo", "/vendas/export");
+
+    private final Semaphore permissoes;
+    private final long esperaMaximaMillis;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public LimiteConcorrenciaFilter(@Value("${vendas.concorrencia.limite.permissoes:10}") int permissoes,
+                                    @Value("${vendas.concorrencia.limite.espera-maxima:2s}") Duration esperaMaxima) {
+        this.permissoes = new Semaphore(permissoes, true);
+        this.esperaMaximaMillis = esperaMaxima.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/vendas");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean adquirida;
+        try {
+            adquirida = permissoes.tryAcquire(esperaMaximaMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirida = false;
+        }
+        if (!adquirida) {
+            recusar(request, response);
+            return;
+        }
+        boolean devolverAoRetornar = true;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted() && CAMINHOS_TRANSMISSAO.contains(request.getRequestURI())) {
+                request.getAsyncContext().addListener(new DevolucaoPermissao());
+                devolverAoRetornar = false;
+            }
+        } finally {
+            if (devolverAoRetornar) {
+                permissoes.release();
+            }
+        }
+    }
+
+    /**
+     * Devolve a permissão quando a transmissão assíncrona termina, com sucesso, erro ou timeout.
+     */
+    private class DevolucaoPermissao implements AsyncListener {
+
+        private final AtomicBoolean devolvida = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            devolver();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            devolver();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            devolver();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this); // um novo ciclo assíncrono descarta os ouvintes anteriores
+        }
+
+        private void devolver() {
+            if (devolvida.compareAndSet(false, true)) {
+                permissoes.release();
+            }
+        }
+    }
+
+    private void recusar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DetalheErro erro = new DetalheErro(
+                "Serviço Sobrecarregado",
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "O servidor está no limite de requisições simultâneas. Tente novamente em instantes.",
+                LocalDateTime.now(),
+                "Nenhuma permissão livre após " + esperaMaximaMillis + " ms no caminho: " + request.getRequestURI() // mensagemDesenvolvedor
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), erro);
+    }
+}
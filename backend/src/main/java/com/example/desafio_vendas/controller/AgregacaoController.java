@@ -0,0 +1,50 @@
+package com.example.desafio_vendas.controller;
+
+import com.example.desafio_vendas.dto.TopProdutosPeriodoDTO;
+import com.example.desafio_vendas.dto.TotalPeriodoDTO;
+import com.example.desafio_vendas.service.AgregacaoVendaService;
+import com.example.desafio_vendas.service.PeriodoAgregacao;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/vendas/agregados")
+@Tag(name = "Agregados de Vendas", description = "Totais e ranking de produtos calculados no banco de dados.")
+@SecurityRequirement(name = "bearerAuth")
+public class AgregacaoController {
+
+    @Autowired
+    private AgregacaoVendaService agregacaoVendaService;
+
+    @GetMapping
+    @Operation(summary = "Totais de vendas por período",
+               description = "Retorna quantidade de vendas, itens vendidos e valor total agrupados por dia, semana ou mês.")
+    public ResponseEntity<List<TotalPeriodoDTO>> totaisPorPeriodo(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Granularidade: DIA, SEMANA ou MES") @RequestParam(defaultValue = "DIA") PeriodoAgregacao periodo) {
+        return ResponseEntity.ok(agregacaoVendaService.totaisPorPeriodo(dataInicio, dataFim, periodo));
+    }
+
+    @GetMapping("/top-produtos")
+    @Operation(summary = "Produtos de maior faturamento por período")
+    public ResponseEntity<List<TopProdutosPeriodoDTO>> topProdutos(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Granularidade: DIA, SEMANA ou MES") @RequestParam(defaultValue = "MES") PeriodoAgregacao periodo,
+            @Parameter(description = "Quantidade de produtos por período") @RequestParam(defaultValue = "5") int limite) {
+        return ResponseEntity.ok(agregacaoVendaService.topProdutosPorPeriodo(dataInicio, dataFim, periodo, limite));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.desafio_vendas.controller;
+
+import com.example.desafio_vendas.dto.ResumoAnaliticoDTO;
+import com.example.desafio_vendas.dto.TotalPeriodoDTO;
+import com.example.desafio_vendas.dto.TotalProdutoDTO;
+import com.example.desafio_vendas.service.AnaliseColunarService;
+import com.example.desafio_vendas.service.PeriodoAgregacao;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/vendas/analytics")
+@Tag(name = "Análise de Vendas", description = "Agregações sobre todo o histórico, calculadas em memória.")
+@SecurityRequirement(name = "bearerAuth")
+public class AnaliseController {
+
+    @Autowired
+    private AnaliseColunarService analiseColunarService;
+
+    @GetMapping("/resumo")
+    @Operation(summary = "Totais de vendas, itens e valor no intervalo")
+    @ApiResponse(responseCode = "503", description = "Armazenamento analítico desabilitado ou ainda em carga.")
+    public ResponseEntity<ResumoAnaliticoDTO> resumo(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return ResponseEntity.ok(analiseColunarService.resumo(dataInicio, dataFim));
+    }
+
+    @GetMapping("/por-produto")
+    @Operation(summary = "Totais por produto, do maior para o menor faturamento")
+    @ApiResponse(responseCode = "503", description = "Armazenamento analítico desabilitado ou ainda em carga.")
+    public ResponseEntity<List<TotalProdutoDTO>> porProduto(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Quantidade máxima de produtos (padrão: todos)") @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(analiseColunarService.totaisPorProduto(dataInicio, dataFim, limite));
+    }
+
+    @GetMapping("/por-periodo")
+    @Operation(summary = "Totais por dia, semana ou mês")
+    @ApiResponse(responseCode = "400", description = "Intervalo longo demais para o agrupamento.")
+    @ApiResponse(responseCode = "503", description = "Armazenamento analítico desabilitado ou ainda em carga.")
+    public ResponseEntity<List<TotalPeriodoDTO>> porPeriodo(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Granularidade: DIA, SEMANA ou MES") @RequestParam(defaultValue = "DIA") PeriodoAgregacao periodo) {
+        return ResponseEntity.ok(analiseColunarService.totaisPorPeriodo(dataInicio, dataFim, periodo));
+    }
+}
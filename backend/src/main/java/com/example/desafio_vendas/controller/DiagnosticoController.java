@@ -0,0 +1,31 @@
+package com.example.desafio_vendas.controller;
+
+import com.example.desafio_vendas.dto.PlanoConsultaDTO;
+import com.example.desafio_vendas.service.PlanoConsultaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/diagnostico")
+@Tag(name = "Diagnóstico", description = "Informações de desempenho das consultas ao banco de dados.")
+@SecurityRequirement(name = "bearerAuth")
+public class DiagnosticoController {
+
+    @Autowired
+    private PlanoConsultaService planoConsultaService;
+
+    @GetMapping("/planos-consulta")
+    @Operation(summary = "Planos de execução das consultas de vendas",
+               description = "Executa EXPLAIN para cada consulta dos repositórios e indica quais varrem a tabela inteira.")
+    public ResponseEntity<List<PlanoConsultaDTO>> planosConsulta() {
+        return ResponseEntity.ok(planoConsultaService.explicarConsultas());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.desafio_vendas.controller;
+
+import com.example.desafio_vendas.model.ParticaoVenda;
+import com.example.desafio_vendas.service.ParticionamentoVendaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/vendas/particoes")
+@ConditionalOnProperty(name = "vendas.particionamento.habilitado", havingValue = "true")
+@Tag(name = "Partições de Vendas", description = "Gerenciamento das partições mensais de vendas.")
+@SecurityRequirement(name = "bearerAuth")
+public class ParticaoController {
+
+    @Autowired
+    private ParticionamentoVendaService particionamentoVendaService;
+
+    @GetMapping
+    @Operation(summary = "Lista as partições mensais seladas")
+    public ResponseEntity<List<ParticaoVenda>> listarParticoes() {
+        return ResponseEntity.ok(particionamentoVendaService.listarParticoes());
+    }
+
+    @PostMapping("/selar")
+    @Operation(summary = "Sela os meses fora da janela ativa",
+               description = "Move para tabelas mensais as vendas anteriores à janela configurada em vendas.particionamento.meses-ativos.")
+    public ResponseEntity<List<ParticaoVenda>> selarMesesAntigos() {
+        return ResponseEntity.ok(particionamentoVendaService.selarMesesAntigos());
+    }
+
+    @DeleteMapping("/{mes}")
+    @Operation(summary = "Remove a partição de um mês",
+               description = "Remove todas as vendas do mês com um único DROP TABLE. Com arquivar=true, as vendas são gravadas em CSV antes.")
+    @ApiResponse(responseCode = "200", description = "Partição removida.")
+    @ApiResponse(responseCode = "404", description = "Não há partição para o mês informado.")
+    public ResponseEntity<ParticaoVenda> removerParticao(
+            @Parameter(description = "Mês da partição (formato: YYYY-MM)") @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes,
+            @Parameter(description = "Grava as vendas em CSV antes de remover") @RequestParam(defaultValue = "false") boolean arquivar) {
+        return ResponseEntity.ok(particionamentoVendaService.removerParticao(mes, arquivar));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.desafio_vendas.controller;
+
+import com.example.desafio_vendas.model.Produto;
+import com.example.desafio_vendas.service.CatalogoProdutoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/produtos")
+@Tag(name = "Produtos", description = "Dimensão de produtos referenciada pelas vendas.")
+@SecurityRequirement(name = "bearerAuth")
+public class ProdutoController {
+
+    @Autowired
+    private CatalogoProdutoService catalogoProdutoService;
+
+    @GetMapping("/autocompletar")
+    @Operation(summary = "Produtos cujo nome começa com o prefixo",
+               description = "Responde a partir do cache em memória, sem consultar o banco. Não diferencia maiúsculas nem acentos.")
+    @ApiResponse(responseCode = "400", description = "Limite fora do intervalo de 1 a 100.")
+    public ResponseEntity<List<Produto>> autocompletar(
+            @Parameter(description = "Início do nome do produto") @RequestParam(defaultValue = "") String prefixo,
+            @Parameter(description = "Quantidade máxima de sugestões (padrão: 10)") @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(catalogoProdutoService.autocompletar(prefixo, limite));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.desafio_vendas.controller;
+
+import com.example.desafio_vendas.dto.ExecucaoRelatorioDTO;
+import com.example.desafio_vendas.dto.RelatorioVendasDTO;
+import com.example.desafio_vendas.service.PeriodoRelatorio;
+import com.example.desafio_vendas.service.RelatorioVendaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/relatorios")
+@Tag(name = "Relatórios", description = "Relatórios de vendas por mês e trimestre, calculados em segundo plano.")
+@SecurityRequirement(name = "bearerAuth")
+public class RelatorioController {
+
+    @Autowired
+    private RelatorioVendaService relatorioVendaService;
+
+    @GetMapping
+    @Operation(summary = "Relatórios de vendas já calculados",
+               description = "Retorna faturamento, itens, ticket médio e os produtos de maior faturamento de cada mês ou trimestre cujo início está no intervalo. "
+                       + "Os valores refletem a última execução do cálculo (campo geradoEm).")
+    public ResponseEntity<List<RelatorioVendasDTO>> listarRelatorios(
+            @Parameter(description = "Granularidade: MES ou TRIMESTRE") @RequestParam(defaultValue = "MES") PeriodoRelatorio periodo,
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return ResponseEntity.ok(relatorioVendaService.listarRelatorios(periodo, dataInicio, dataFim));
+    }
+
+    @PostMapping("/execucoes")
+    @Operation(summary = "Solicita o recálculo dos relatórios",
+               description = "Enfileira uma execução em segundo plano. Sem completa=true, só os meses alterados desde a última execução são recalculados.")
+    @ApiResponse(responseCode = "202", description = "Execução enfileirada; acompanhe em GET /relatorios/execucao.")
+    public ResponseEntity<ExecucaoRelatorioDTO> solicitarExecucao(
+            @Parameter(description = "Recalcula todos os meses") @RequestParam(defaultValue = "false") boolean completa) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/relatorios/execucao")
+                .body(relatorioVendaService.solicitarExecucao(completa));
+    }
+
+    @GetMapping("/execucao")
+    @Operation(summary = "Situação da execução atual ou da última")
+    public ResponseEntity<ExecucaoRelatorioDTO> situacao() {
+        return ResponseEntity.ok(relatorioVendaService.situacao());
+    }
+}
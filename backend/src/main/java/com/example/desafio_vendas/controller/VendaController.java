@@ -1,6 +1,27 @@
 package com.example.desafio_vendas.controller;
 
+import com.example.desafio_vendas.dto.AtualizarVendaDTO;
 import com.example.desafio_vendas.dto.CriarVendaDTO; 
+import com.example.desafio_vendas.dto.EstadoListagemDTO;
+import com.example.desafio_vendas.dto.PaginaVendasDTO;
+import com.example.desafio_vendas.dto.RemocaoPeriodoDTO;
+import com.example.desafio_vendas.dto.ResultadoImportacaoDTO;
+import com.example.desafio_vendas.dto.StatusIngestaoDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import com.example.desafio_vendas.exception.ResourceNotFoundException;
+import com.example.desafio_vendas.service.CatalogoProdutoService;
+import com.example.desafio_vendas.service.ExportacaoVendaService;
+import com.example.desafio_vendas.service.FeedVendasService;
+import com.example.desafio_vendas.service.FormatoExportacao;
+import com.example.desafio_vendas.service.ImportacaoVendaService;
+import com.example.desafio_vendas.service.IngestaoAssincronaService;
+import com.example.desafio_vendas.json.CamposVenda;
+import com.example.desafio_vendas.json.EscritorJson;
+import com.example.desafio_vendas.json.RespostaVendas;
+import com.example.desafio_vendas.json.SerializadorVendas;
+import com.example.desafio_vendas.json.VendaJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,13 +30,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import com.example.desafio_vendas.model.Venda;
 import com.example.desafio_vendas.service.VendaService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*; 
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -28,46 +61,224 @@ public class VendaController {
     @Autowired
     private VendaService vendaService;
 
+    @Autowired
+    private ImportacaoVendaService importacaoVendaService;
+
+    @Autowired
+    private FeedVendasService feedVendasService;
+
+    @Autowired
+    private ExportacaoVendaService exportacaoVendaService;
+
+    @Autowired
+    private CatalogoProdutoService catalogoProdutoService;
+
+    // Presente apenas com vendas.ingestao.assincrona.habilitada=true
+    @Autowired(required = false)
+    private IngestaoAssincronaService ingestaoAssincronaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Ausente com vendas.json.escritor-dedicado.habilitado=false; o fluxo NDJSON então usa o objectMapper
+    @Autowired(required = false)
+    private VendaJsonHttpMessageConverter vendaJsonHttpMessageConverter;
+
     @GetMapping
     @Operation(summary = "Lista todas as vendas com filtros opcionais",
-               description = "Retorna uma lista de vendas. Pode ser filtrada por um intervalo de datas.")
-    public ResponseEntity<List<Venda>> listarVendas(
+               description = "Retorna uma lista de vendas. Pode ser filtrada por um intervalo de datas e por um trecho do nome do produto.")
+    @ApiResponse(responseCode = "304", description = "A listagem não mudou desde o ETag informado em If-None-Match.")
+    @ApiResponse(responseCode = "400", description = "Campo desconhecido em campos ou termo de produto vazio.")
+    public ResponseEntity<RespostaVendas> listarVendas(
             @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
-            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
-        
-        List<Venda> vendas = vendaService.listarVendasComFiltro(dataInicio, dataFim);
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Campos de cada venda na resposta, separados por vírgula (ex.: id,valorTotal); padrão: todos") @RequestParam(required = false) String campos,
+            @Parameter(description = "Trecho do nome do produto, em qualquer posição; não diferencia maiúsculas nem acentos") @RequestParam(required = false) String produto,
+            WebRequest webRequest) {
+
+        CamposVenda camposSelecionados = CamposVenda.de(campos);
+        // O ETag vem de uma consulta agregada; se o cliente já tem a versão atual, nenhuma venda é carregada.
+        // Com filtro de produto, o estado é o do intervalo inteiro: se ele não mudou, o subconjunto também não
+        EstadoListagemDTO estado = vendaService.estadoDaListagem(dataInicio, dataFim);
+        if (estado.getQuantidade() == 0) {
+            return ResponseEntity.noContent().build();
+        }
+        String etag = etagDaListagem(estado, camposSelecionados, produto);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<VendaDTO> vendas = vendaService.listarVendasComFiltro(dataInicio, dataFim, produto);
 
         if (vendas.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         
-        return ResponseEntity.ok(vendas);
+        return ResponseEntity.ok().eTag(etag).body(new RespostaVendas(vendas, camposSelecionados));
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Lista vendas paginadas por cursor",
+               description = "Retorna uma página de vendas ordenada por data e ID. Use o campo proximoCursor da resposta para buscar a página seguinte.")
+    @ApiResponse(responseCode = "200", description = "Página de vendas.")
+    @ApiResponse(responseCode = "400", description = "Cursor, limite ou campo inválido.")
+    public ResponseEntity<RespostaVendas> listarVendasPaginadas(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Cursor opaco retornado pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Quantidade máxima de itens por página (1 a 1000, padrão 100)") @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Campos de cada venda na resposta, separados por vírgula (ex.: id,valorTotal); padrão: todos") @RequestParam(required = false) String campos) {
+        CamposVenda camposSelecionados = CamposVenda.de(campos);
+        PaginaVendasDTO pagina = vendaService.listarPagina(dataInicio, dataFim, cursor, limite);
+        return ResponseEntity.ok(new RespostaVendas(pagina, camposSelecionados));
+    }
+
+    @GetMapping(value = "/fluxo", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Transmite as vendas em NDJSON",
+               description = "Envia uma venda por linha, lidas do banco sob demanda, sem carregar o resultado inteiro em memória.")
+    public ResponseEntity<StreamingResponseBody> transmitirVendas(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+
+        StreamingResponseBody corpo = vendaJsonHttpMessageConverter != null
+                ? saida -> transmitirComEscritorDedicado(dataInicio, dataFim, saida)
+                : saida -> vendaService.percorrerVendas(dataInicio, dataFim, venda -> {
+                    try {
+                        saida.write(objectMapper.writeValueAsBytes(venda));
+                        saida.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exporta as vendas em CSV ou Apache Arrow",
+               description = "Gera um arquivo com as vendas do intervalo, lidas do banco sob demanda. O formato arrow é colunar: cada coluna (ex.: valorTotal, dataVenda) pode ser lida sem decodificar as demais.")
+    @ApiResponse(responseCode = "200", description = "Arquivo de exportação.")
+    @ApiResponse(responseCode = "400", description = "Formato inválido.")
+    public ResponseEntity<StreamingResponseBody> exportarVendas(
+            @Parameter(description = "Formato do arquivo: csv ou arrow") @RequestParam(defaultValue = "csv") String formato,
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Se true, o arquivo é entregue compactado em gzip") @RequestParam(defaultValue = "false") boolean gzip) {
+
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        String nomeArquivo = "vendas." + formatoExportacao.getExtensao() + (gzip ? ".gz" : "");
+        StreamingResponseBody corpo = saida -> exportacaoVendaService.exportar(dataInicio, dataFim, formatoExportacao, gzip, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : formatoExportacao.getTipoConteudo()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nomeArquivo).build().toString())
+                .body(corpo);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanha vendas em tempo real (Server-Sent Events)",
+               description = "Envia eventos 'vendas' com lotes de vendas criadas, alteradas ou removidas. Reconecte com Last-Event-ID para retomar; o evento 'reiniciar' indica que a listagem deve ser recarregada.")
+    public SseEmitter acompanharVendas(
+            @Parameter(description = "Data de início do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do filtro (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Último evento recebido, para retomar a assinatura") @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento) {
+        return feedVendasService.assinar(dataInicio, dataFim, ultimoEvento);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Busca uma venda por ID")
     @ApiResponse(responseCode = "200", description = "Venda encontrada.")
     @ApiResponse(responseCode = "404", description = "Venda não encontrada para o ID fornecido.")
-    public ResponseEntity<Venda> buscarVendaPorId(@Parameter(description = "ID da venda a ser buscada") @PathVariable Long id) {
-        Venda venda = vendaService.buscarVendaPorId(id);
-        return ResponseEntity.ok(venda);
+    @ApiResponse(responseCode = "304", description = "A venda não mudou desde o ETag informado em If-None-Match.")
+    @ApiResponse(responseCode = "400", description = "Campo desconhecido em campos.")
+    public ResponseEntity<RespostaVendas> buscarVendaPorId(@Parameter(description = "ID da venda a ser buscada") @PathVariable Long id,
+                                                                @Parameter(description = "Campos da resposta, separados por vírgula (ex.: id,valorTotal); padrão: todos") @RequestParam(required = false) String campos,
+                                                                WebRequest webRequest) {
+        CamposVenda camposSelecionados = CamposVenda.de(campos);
+        VendaDTO venda = vendaService.buscarVendaPorId(id);
+        String etag = "\"" + venda.getId() + "-" + venda.getVersao() + camposSelecionados.sufixoEtag() + "\"";
+        long ultimaAlteracao = venda.getUltimaAlteracao() != null ? venda.getUltimaAlteracao().toEpochMilli() : -1;
+        if (webRequest.checkNotModified(etag, ultimaAlteracao)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(new RespostaVendas(venda, camposSelecionados));
     }
 
     @PostMapping
-    @Operation(summary = "Cria uma nova venda")
+    @Operation(summary = "Cria uma nova venda",
+               description = "Com a ingestão assíncrona habilitada, a venda é enfileirada e a resposta 202 traz o identificador para consultar o status em /vendas/ingestao/{idRastreio}.")
     @ApiResponse(responseCode = "201", description = "Venda criada com sucesso.")
-    public ResponseEntity<Venda> criarVenda(@RequestBody CriarVendaDTO dados, UriComponentsBuilder uriBuilder) {
-        Venda novaVenda = new Venda();
-        novaVenda.setNomeProduto(dados.getNomeProduto());
-        novaVenda.setQuantidadeVendida(dados.getQuantidadeVendida());
-        novaVenda.setDataVenda(dados.getDataVenda());
-        novaVenda.setValorTotal(dados.getValorTotal());
-
-        Venda vendaSalva = vendaService.salvarVenda(novaVenda);
+    @ApiResponse(responseCode = "202", description = "Venda aceita na fila de ingestão.")
+    @ApiResponse(responseCode = "503", description = "Fila de ingestão cheia; tente novamente após Retry-After.")
+    public ResponseEntity<?> criarVenda(@RequestBody CriarVendaDTO dados, UriComponentsBuilder uriBuilder) {
+        if (ingestaoAssincronaService != null) {
+            String idRastreio = ingestaoAssincronaService.enfileirar(dados);
+            URI uri = uriBuilder.path("/vendas/ingestao/{idRastreio}").buildAndExpand(idRastreio).toUri();
+            return ResponseEntity.accepted().location(uri).body(new StatusIngestaoDTO(idRastreio, "PENDENTE", null, null));
+        }
+        Venda vendaSalva = vendaService.salvarVenda(dados.paraEntidade(catalogoProdutoService.obterOuCriar(dados.getNomeProduto())));
         URI uri = uriBuilder.path("/vendas/{id}").buildAndExpand(vendaSalva.getId()).toUri();
         return ResponseEntity.created(uri).body(vendaSalva);
     }
     
+    @GetMapping("/ingestao/{idRastreio}")
+    @Operation(summary = "Consulta o status de uma venda enviada à fila de ingestão")
+    @ApiResponse(responseCode = "200", description = "Status da ingestão: PENDENTE, GRAVADA ou REJEITADA.")
+    @ApiResponse(responseCode = "404", description = "Identificador desconhecido ou ingestão assíncrona desabilitada.")
+    public ResponseEntity<StatusIngestaoDTO> consultarIngestao(@Parameter(description = "Identificador devolvido pelo POST /vendas") @PathVariable String idRastreio) {
+        StatusIngestaoDTO status = ingestaoAssincronaService != null ? ingestaoAssincronaService.consultarStatus(idRastreio) : null;
+        if (status == null) {
+            throw new ResourceNotFoundException("Ingestão com identificador " + idRastreio + " não foi encontrada.");
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Importa vendas em lote",
+               description = "Aceita um array JSON ou NDJSON (uma venda por linha). As vendas são gravadas em blocos e o resultado informa os erros por linha.")
+    @ApiResponse(responseCode = "200", description = "Importação processada; verifique o relatório de erros.")
+    public ResponseEntity<ResultadoImportacaoDTO> criarVendasEmLote(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(importacaoVendaService.importar(request.getInputStream()));
+    }
+    
+    @PutMapping("/{id}")
+    @Operation(summary = "Substitui os dados de uma venda",
+               description = "Exige todos os campos e a versão lida (campo versao de GET /vendas/{id}). Se a venda mudou desde essa leitura, nada é gravado e a resposta é 409.")
+    @ApiResponse(responseCode = "200", description = "Venda alterada; o corpo traz a nova versão.")
+    @ApiResponse(responseCode = "400", description = "Campo obrigatório ou versão ausente.")
+    @ApiResponse(responseCode = "404", description = "Venda não encontrada para o ID fornecido.")
+    @ApiResponse(responseCode = "409", description = "A versão informada não é a atual.")
+    public ResponseEntity<VendaDTO> substituirVenda(@Parameter(description = "ID da venda a ser alterada") @PathVariable Long id,
+                                                    @RequestBody AtualizarVendaDTO dados) {
+        return respostaAlteracao(vendaService.atualizarVenda(id, dados, false));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Altera alguns campos de uma venda",
+               description = "Campos ausentes mantêm o valor atual. A versão lida é obrigatória; se a venda mudou desde essa leitura, a resposta é 409.")
+    @ApiResponse(responseCode = "200", description = "Venda alterada; o corpo traz a nova versão.")
+    @ApiResponse(responseCode = "400", description = "Versão ausente.")
+    @ApiResponse(responseCode = "404", description = "Venda não encontrada para o ID fornecido.")
+    @ApiResponse(responseCode = "409", description = "A versão informada não é a atual.")
+    public ResponseEntity<VendaDTO> alterarVenda(@Parameter(description = "ID da venda a ser alterada") @PathVariable Long id,
+                                                 @RequestBody AtualizarVendaDTO dados) {
+        return respostaAlteracao(vendaService.atualizarVenda(id, dados, true));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Remove as vendas de um intervalo de datas",
+               description = "Operação de retenção: apaga todas as vendas do intervalo, inclusive as de partições seladas, e os resumos diários correspondentes.")
+    @ApiResponse(responseCode = "200", description = "Quantidade de vendas removidas.")
+    @ApiResponse(responseCode = "400", description = "Intervalo ausente ou inválido.")
+    public ResponseEntity<RemocaoPeriodoDTO> deletarVendasPorPeriodo(
+            @Parameter(description = "Data de início do intervalo (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data de fim do intervalo (formato: YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        if (dataInicio == null || dataFim == null) {
+            // Sem as duas datas, um DELETE /vendas acidental apagaria todas as vendas
+            throw new RequisicaoInvalidaException("Informe dataInicio e dataFim para remover vendas em lote.");
+        }
+        long removidas = vendaService.deletarPorPeriodo(dataInicio, dataFim);
+        return ResponseEntity.ok(new RemocaoPeriodoDTO(dataInicio, dataFim, removidas));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Deleta uma venda por ID")
     @ApiResponse(responseCode = "204", description = "Venda deletada com sucesso.")
@@ -76,4 +287,34 @@ public class VendaController {
         vendaService.deletarVenda(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<VendaDTO> respostaAlteracao(Venda venda) {
+        return ResponseEntity.ok().eTag("\"" + venda.getId() + "-" + venda.getVersao() + "\"").body(VendaDTO.de(venda));
+    }
+
+    /**
+     * Escreve uma venda por linha em um único EscritorJson: o buffer só vai para a saída quando
+     * enche, em vez de um array de bytes por venda.
+     */
+    private void transmitirComEscritorDedicado(LocalDate dataInicio, LocalDate dataFim, OutputStream saida) throws IOException {
+        try (EscritorJson escritor = EscritorJson.abrir(saida)) {
+            vendaService.percorrerVendas(dataInicio, dataFim, venda -> {
+                try {
+                    SerializadorVendas.escrever(escritor, venda, CamposVenda.TODOS);
+                    escritor.byteBruto('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static String etagDaListagem(EstadoListagemDTO estado, CamposVenda campos, String produto) {
+        long ultimaAlteracao = estado.getUltimaAlteracao() != null ? estado.getUltimaAlteracao().toEpochMilli() : 0;
+        long somaVersoes = estado.getSomaVersoes() != null ? estado.getSomaVersoes() : 0;
+        // O termo vai codificado: ETags não aceitam espaços, aspas nem caracteres fora do ASCII
+        String sufixoProduto = produto != null ? "-produto=" + URLEncoder.encode(produto.trim(), StandardCharsets.UTF_8) : "";
+        return "\"" + estado.getQuantidade() + "-" + somaVersoes + "-" + ultimaAlteracao + "-" + estado.getMaiorId()
+                + campos.sufixoEtag() + sufixoProduto + "\"";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Corpo de PUT e PATCH /vendas/{id}. No PATCH, campos ausentes mantêm o valor atual.
+ */
+@Getter
+@Setter
+public class AtualizarVendaDTO {
+    private String nomeProduto;
+    private Integer quantidadeVendida;
+    private LocalDate dataVenda;
+    private BigDecimal valorTotal;
+    private Long versao; // versão lida pelo cliente; obrigatória
+}
@@ -1,5 +1,7 @@
 package com.example.desafio_vendas.dto;
 
+import com.example.desafio_vendas.model.Produto;
+import com.example.desafio_vendas.model.Venda;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,4 +15,16 @@ public class CriarVendaDTO {
     private int quantidadeVendida;
     private LocalDate dataVenda;
     private BigDecimal valorTotal;
+
+    /**
+     * @param produto Produto já resolvido a partir de {@link #getNomeProduto()} pelo catálogo.
+     */
+    public Venda paraEntidade(Produto produto) {
+        Venda venda = new Venda();
+        venda.setProduto(produto);
+        venda.setQuantidadeVendida(quantidadeVendida);
+        venda.setDataVenda(dataVenda);
+        venda.setValorTotal(valorTotal);
+        return venda;
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+    private long linha;
+    private String mensagem;
+}
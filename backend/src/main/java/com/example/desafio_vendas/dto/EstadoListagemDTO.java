@@ -0,0 +1,19 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Resumo barato de um conjunto de vendas, usado para gerar o ETag da listagem
+ * sem carregar as linhas.
+ */
+@Getter
+@AllArgsConstructor
+public class EstadoListagemDTO {
+    private Long quantidade;
+    private Long somaVersoes;
+    private Instant ultimaAlteracao;
+    private Long maiorId;
+}
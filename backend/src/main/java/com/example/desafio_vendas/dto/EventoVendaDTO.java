@@ -0,0 +1,20 @@
+package com.example.desafio_vendas.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"sequencia", "tipo", "idVenda", "dataVenda", "dataFim", "dataAnterior", "venda"}) // a do SerializadorVendas
+public class EventoVendaDTO {
+    private long sequencia;
+    private String tipo; // CRIADA, ALTERADA, REMOVIDA ou PERIODO_REMOVIDO
+    private Long idVenda; // null em PERIODO_REMOVIDO
+    private LocalDate dataVenda; // em PERIODO_REMOVIDO, a primeira data do intervalo removido
+    private LocalDate dataFim; // só em PERIODO_REMOVIDO: a última data do intervalo removido
+    private LocalDate dataAnterior; // só em ALTERADA: a data da venda antes da alteração
+    private VendaDTO venda; // null quando a venda foi removida
+}
@@ -0,0 +1,22 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Situação da execução mais recente do cálculo de relatórios.
+ */
+@Getter
+@AllArgsConstructor
+public class ExecucaoRelatorioDTO {
+    private String estado; // OCIOSA, EXECUTANDO, CONCLUIDA ou FALHOU
+    private boolean completa; // false quando só os meses alterados foram recalculados
+    private int blocosTotal; // um bloco por mês lido das vendas
+    private int blocosConcluidos;
+    private int relatoriosGravados;
+    private Instant iniciadaEm;
+    private Long duracaoMillis; // null enquanto executa
+    private String erro;
+}
@@ -0,0 +1,13 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PaginaVendasDTO {
+    private List<VendaDTO> itens;
+    private String proximoCursor; // null quando não há mais páginas
+}
@@ -0,0 +1,14 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PlanoConsultaDTO {
+    private String consulta;
+    private String sql;
+    private String plano;
+    private boolean varreduraCompleta;
+    private boolean varreduraEsperada; // true apenas para consultas sem filtro, como findAll
+}
@@ -0,0 +1,14 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class ProdutoPeriodoDTO {
+    private String nomeProduto;
+    private long quantidadeItens;
+    private BigDecimal valorTotal;
+}
@@ -0,0 +1,34 @@
+package com.example.desafio_vendas.dto;
+
+import com.example.desafio_vendas.model.RelatorioVendas;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RelatorioVendasDTO {
+    private String periodo;
+    private LocalDate inicio;
+    private LocalDate fim;
+    private long quantidadeVendas;
+    private long quantidadeItens;
+    private BigDecimal valorTotal;
+    private BigDecimal ticketMedio;
+    private List<ProdutoPeriodoDTO> topProdutos;
+    private Instant geradoEm;
+
+    public static RelatorioVendasDTO de(RelatorioVendas relatorio) {
+        return new RelatorioVendasDTO(relatorio.getId().getPeriodo(), relatorio.getId().getInicio(), relatorio.getFim(),
+                relatorio.getQuantidadeVendas(), relatorio.getQuantidadeItens(), relatorio.getValorTotal(),
+                relatorio.getTicketMedio(),
+                relatorio.getTopProdutos().stream()
+                        .map(p -> new ProdutoPeriodoDTO(p.getNomeProduto(), p.getQuantidadeItens(), p.getValorTotal()))
+                        .toList(),
+                relatorio.getGeradoEm());
+    }
+}
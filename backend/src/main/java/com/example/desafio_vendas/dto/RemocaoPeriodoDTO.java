@@ -0,0 +1,14 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class RemocaoPeriodoDTO {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private long removidas;
+}
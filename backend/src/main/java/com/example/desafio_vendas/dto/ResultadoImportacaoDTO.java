@@ -0,0 +1,15 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ResultadoImportacaoDTO {
+    private long totalRecebidas;
+    private long totalGravadas;
+    private long totalErros;
+    private List<ErroImportacaoDTO> erros; // limitado às primeiras ocorrências
+}
@@ -0,0 +1,15 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class ResumoAnaliticoDTO {
+    private long quantidadeVendas;
+    private long quantidadeItens;
+    private BigDecimal valorTotal;
+    private long linhasAnalisadas; // linhas percorridas no armazenamento colunar, dentro ou fora do filtro
+}
@@ -2,17 +2,16 @@ package com.example.desafio_vendas.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Getter
-@Setter
 @AllArgsConstructor
-public class Venda {
-    private Long id;
-    private String nomeProduto;
-    private int quantidadeVendida;
+public class ResumoDiarioDTO {
     private LocalDate dataVenda;
-    private BigDecimal valorTotal; 
-}
\ No newline at end of file
+    private String nomeProduto;
+    private Long quantidadeVendas;
+    private Long quantidadeItens;
+    private BigDecimal valorTotal;
+}
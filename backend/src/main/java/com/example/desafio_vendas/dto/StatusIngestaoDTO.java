@@ -0,0 +1,13 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StatusIngestaoDTO {
+    private String idRastreio;
+    private String status; // PENDENTE, GRAVADA ou REJEITADA
+    private Long idVenda; // conhecido apenas para gravações recentes
+    private String mensagem;
+}
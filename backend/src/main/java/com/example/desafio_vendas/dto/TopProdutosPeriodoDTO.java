@@ -0,0 +1,14 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TopProdutosPeriodoDTO {
+    private LocalDate inicioPeriodo;
+    private List<ProdutoPeriodoDTO> produtos;
+}
@@ -0,0 +1,16 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class TotalPeriodoDTO {
+    private LocalDate inicioPeriodo;
+    private long quantidadeVendas;
+    private long quantidadeItens;
+    private BigDecimal valorTotal;
+}
@@ -0,0 +1,15 @@
+package com.example.desafio_vendas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class TotalProdutoDTO {
+    private String nomeProduto;
+    private long quantidadeVendas;
+    private long quantidadeItens;
+    private BigDecimal valorTotal;
+}
@@ -0,0 +1,36 @@
+package com.example.desafio_vendas.dto;
+
+import com.example.desafio_vendas.model.Venda;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Venda como é entregue pela API. As listagens a recebem pronta do banco por projeção
+ * (SELECT new ...), sem entidades gerenciadas nem verificação de alterações.
+ */
+@Getter
+@AllArgsConstructor
+@JsonFilter(VendaDTO.FILTRO_CAMPOS)
+public class VendaDTO {
+
+    // Filtro do Jackson que aplica o parâmetro ?campos= das listagens
+    public static final String FILTRO_CAMPOS = "camposVenda";
+
+    private Long id;
+    private String nomeProduto;
+    private int quantidadeVendida;
+    private LocalDate dataVenda;
+    private BigDecimal valorTotal;
+    private Long versao;
+    private Instant ultimaAlteracao;
+
+    public static VendaDTO de(Venda venda) {
+        return new VendaDTO(venda.getId(), venda.getNomeProduto(), venda.getQuantidadeVendida(), venda.getDataVenda(),
+                venda.getValorTotal(), venda.getVersao(), venda.getUltimaAlteracao());
+    }
+}
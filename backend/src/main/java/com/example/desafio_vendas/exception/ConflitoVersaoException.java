@@ -0,0 +1,18 @@
+package com.example.desafio_vendas.exception;
+
+/**
+ * A venda foi alterada por outra requisição depois que o cliente leu a versão informada.
+ */
+public class ConflitoVersaoException extends RuntimeException {
+
+    private final long versaoAtual;
+
+    public ConflitoVersaoException(String message, long versaoAtual) {
+        super(message);
+        this.versaoAtual = versaoAtual;
+    }
+
+    public long getVersaoAtual() {
+        return versaoAtual;
+    }
+}
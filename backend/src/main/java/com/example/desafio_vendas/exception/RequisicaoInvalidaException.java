@@ -0,0 +1,7 @@
+package com.example.desafio_vendas.exception;
+
+public class RequisicaoInvalidaException extends RuntimeException {
+    public RequisicaoInvalidaException(String message) {
+        super(message);
+    }
+}
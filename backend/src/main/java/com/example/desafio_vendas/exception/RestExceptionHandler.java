@@ -2,6 +2,7 @@ package com.example.desafio_vendas.exception;
 
 import com.example.desafio_vendas.dto.DetalheErro; 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -28,6 +29,50 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(erro, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(RequisicaoInvalidaException.class)
+    public ResponseEntity<DetalheErro> handleRequisicaoInvalida(
+            RequisicaoInvalidaException ex, HttpServletRequest request) {
+
+        DetalheErro erro = new DetalheErro(
+                "Requisição Inválida",
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                "Parâmetros inválidos no caminho: " + request.getRequestURI() // mensagemDesenvolvedor
+        );
+        return new ResponseEntity<>(erro, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConflitoVersaoException.class)
+    public ResponseEntity<DetalheErro> handleConflitoVersao(
+            ConflitoVersaoException ex, HttpServletRequest request) {
+
+        DetalheErro erro = new DetalheErro(
+                "Conflito de Versão",
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                "Releia o recurso (versão atual: " + ex.getVersaoAtual() + ") e reenvie a alteração. Caminho: " + request.getRequestURI() // mensagemDesenvolvedor
+        );
+        return new ResponseEntity<>(erro, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServicoIndisponivelException.class)
+    public ResponseEntity<DetalheErro> handleServicoIndisponivel(
+            ServicoIndisponivelException ex, HttpServletRequest request) {
+
+        DetalheErro erro = new DetalheErro(
+                "Serviço Temporariamente Indisponível",
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                "Tente novamente após " + ex.getSegundosParaNovaTentativa() + " segundo(s). Caminho: " + request.getRequestURI() // mensagemDesenvolvedor
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getSegundosParaNovaTentativa()))
+                .body(erro);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<DetalheErro> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -0,0 +1,15 @@
+package com.example.desafio_vendas.exception;
+
+public class ServicoIndisponivelException extends RuntimeException {
+
+    private final long segundosParaNovaTentativa;
+
+    public ServicoIndisponivelException(String message, long segundosParaNovaTentativa) {
+        super(message);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.desafio_vendas.json;
+
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import com.fasterxml.jackson.databind.ser.BeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Campos de venda pedidos pelo parâmetro {@code ?campos=} das listagens, guardados como máscara
+ * de bits para o {@link SerializadorVendas}. Também é o FilterProvider usado quando a resposta é
+ * serializada pelo Jackson (escritor dedicado desabilitado).
+ */
+public final class CamposVenda extends FilterProvider {
+
+    static final int ID = 1;
+    static final int NOME_PRODUTO = 1 << 1;
+    static final int QUANTIDADE_VENDIDA = 1 << 2;
+    static final int DATA_VENDA = 1 << 3;
+    static final int VALOR_TOTAL = 1 << 4;
+    static final int VERSAO = 1 << 5;
+    static final int ULTIMA_ALTERACAO = 1 << 6;
+
+    // Na ordem dos bits e da serialização
+    private static final String[] NOMES = {
+            "id", "nomeProduto", "quantidadeVendida", "dataVenda", "valorTotal", "versao", "ultimaAlteracao"};
+
+    public static final CamposVenda TODOS = new CamposVenda((1 << NOMES.length) - 1);
+
+    private final int mascara;
+    private final PropertyFilter filtro;
+
+    private CamposVenda(int mascara) {
+        this.mascara = mascara;
+        this.filtro = SimpleBeanPropertyFilter.filterOutAllExcept(nomes().toArray(String[]::new));
+    }
+
+    /**
+     * @param campos Nomes separados por vírgula; null ou vazio seleciona todos.
+     * @throws RequisicaoInvalidaException Se algum nome não for um campo de venda.
+     */
+    public static CamposVenda de(String campos) {
+        if (campos == null || campos.isBlank()) {
+            return TODOS;
+        }
+        int mascara = 0;
+        for (String campo : campos.split(",")) {
+            int indice = List.of(NOMES).indexOf(campo.trim());
+            if (indice < 0) {
+                throw new RequisicaoInvalidaException("Campo desconhecido: '" + campo.trim() + "'. Campos válidos: "
+                        + String.join(", ", new TreeSet<>(List.of(NOMES))) + ".");
+            }
+            mascara |= 1 << indice;
+        }
+        return mascara == TODOS.mascara ? TODOS : new CamposVenda(mascara);
+    }
+
+    boolean inclui(int campo) {
+        return (mascara & campo) != 0;
+    }
+
+    /**
+     * Sufixo do ETag: seleções equivalentes (ordem ou repetição diferentes) geram o mesmo valor.
+     */
+    public String sufixoEtag() {
+        return this == TODOS ? "" : "-" + String.join(",", nomes());
+    }
+
+    private List<String> nomes() {
+        List<String> nomes = new ArrayList<>(NOMES.length);
+        for (int i = 0; i < NOMES.length; i++) {
+            if ((mascara & (1 << i)) != 0) {
+                nomes.add(NOMES[i]);
+            }
+        }
+        return nomes;
+    }
+
+    @Override
+    @Deprecated
+    public BeanPropertyFilter findFilter(Object filterId) {
+        throw new UnsupportedOperationException("Filtros obsoletos (BeanPropertyFilter) não são suportados.");
+    }
+
+    @Override
+    public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+        return VendaDTO.FILTRO_CAMPOS.equals(filterId) ? filtro : null;
+    }
+}
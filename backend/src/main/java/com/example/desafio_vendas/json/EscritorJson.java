@@ -0,0 +1,348 @@
+package com.example.desafio_vendas.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Escreve JSON diretamente em bytes UTF-8, sem reflexão e sem Strings intermediárias para
+ * números, datas e decimais. Os bytes vão para um buffer reaproveitado entre respostas, que é
+ * descarregado na saída sempre que enche. {@link #close()} descarrega o restante e devolve o
+ * buffer ao pool; a saída não é fechada.
+ * <p>
+ * Datas seguem o formato do Jackson no Spring Boot: LocalDate como {@code "2024-01-31"},
+ * Instant como ISO-8601 em UTC (fração em grupos de 3 dígitos) e LocalDateTime sem fuso.
+ * Textos e decimais também seguem o Jackson, byte a byte: escapes unicode em maiúsculas,
+ * cada metade de um par surrogate escapada e decimais pelo {@link BigDecimal#toString()}.
+ */
+public final class EscritorJson implements Closeable {
+
+    static final int TAMANHO_BUFFER = 16 * 1024;
+    private static final int MAXIMO_BUFFERS_LIVRES = 64;
+    private static final BlockingQueue<byte[]> LIVRES = new ArrayBlockingQueue<>(MAXIMO_BUFFERS_LIVRES);
+
+    // Maior escrita de tamanho fixo: um long com sinal, um decimal ou uma data e hora com fração
+    private static final int MAIOR_VALOR = 40;
+
+    private static final byte[] NULO = bytes("null");
+    private static final byte[] HEXA = bytes("0123456789ABCDEF");
+    private static final long SEGUNDOS_POR_DIA = 86_400L;
+
+    private final OutputStream saida;
+    private byte[] buffer;
+    private int posicao;
+
+    private EscritorJson(OutputStream saida, byte[] buffer) {
+        this.saida = saida;
+        this.buffer = buffer;
+    }
+
+    public static EscritorJson abrir(OutputStream saida) {
+        byte[] buffer = LIVRES.poll();
+        return new EscritorJson(saida, buffer != null ? buffer : new byte[TAMANHO_BUFFER]);
+    }
+
+    static byte[] bytes(String ascii) {
+        return ascii.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void byteBruto(char c) throws IOException {
+        reservar(1);
+        buffer[posicao++] = (byte) c;
+    }
+
+    /**
+     * Copia bytes já codificados, como nomes de campos pré-calculados ({@code "id":}).
+     */
+    public void bytesBrutos(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - posicao) {
+            descarregar();
+            if (bytes.length > buffer.length) {
+                saida.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, posicao, bytes.length);
+        posicao += bytes.length;
+    }
+
+    public void nulo() throws IOException {
+        bytesBrutos(NULO);
+    }
+
+    public void numero(long valor) throws IOException {
+        reservar(MAIOR_VALOR);
+        if (valor == Long.MIN_VALUE) {
+            bytesBrutos(bytes(Long.toString(valor)));
+            return;
+        }
+        if (valor < 0) {
+            buffer[posicao++] = '-';
+            valor = -valor;
+        }
+        posicao = digitos(valor, posicao + quantidadeDigitos(valor));
+    }
+
+    public void numero(Long valor) throws IOException {
+        if (valor == null) {
+            nulo();
+        } else {
+            numero(valor.longValue());
+        }
+    }
+
+    /**
+     * Escreve o decimal a partir do valor não escalado e da escala. Valores com mais de 18 dígitos,
+     * escala negativa ou que o toString escreveria em notação científica (expoente abaixo de -6),
+     * raros em valores monetários, usam o próprio toString, como o Jackson.
+     */
+    public void decimal(BigDecimal valor) throws IOException {
+        if (valor == null) {
+            nulo();
+            return;
+        }
+        int escala = valor.scale();
+        if (escala < 0 || escala > 18 || valor.precision() > 18 || valor.precision() - escala - 1 < -6) {
+            bytesBrutos(bytes(valor.toString()));
+            return;
+        }
+        long naoEscalado = valor.unscaledValue().longValue();
+        reservar(MAIOR_VALOR);
+        if (naoEscalado < 0) {
+            buffer[posicao++] = '-';
+            naoEscalado = -naoEscalado;
+        }
+        if (escala == 0) {
+            posicao = digitos(naoEscalado, posicao + quantidadeDigitos(naoEscalado));
+            return;
+        }
+        int quantidade = Math.max(quantidadeDigitos(naoEscalado), escala + 1);
+        int fim = posicao + quantidade + 1;
+        int p = fim;
+        for (int i = 0; i < quantidade; i++) {
+            if (i == escala) {
+                buffer[--p] = '.';
+            }
+            buffer[--p] = (byte) ('0' + naoEscalado % 10);
+            naoEscalado /= 10;
+        }
+        posicao = fim;
+    }
+
+    public void data(LocalDate data) throws IOException {
+        if (data == null) {
+            nulo();
+            return;
+        }
+        if (data.getYear() < 0 || data.getYear() > 9999) {
+            texto(data.toString());
+            return;
+        }
+        reservar(MAIOR_VALOR);
+        buffer[posicao++] = '"';
+        escreverData(data.getYear(), data.getMonthValue(), data.getDayOfMonth());
+        buffer[posicao++] = '"';
+    }
+
+    /**
+     * Instant em UTC, como o ISO_INSTANT: fração omitida quando zero, senão com 3, 6 ou 9 dígitos.
+     */
+    public void instante(Instant instante) throws IOException {
+        if (instante == null) {
+            nulo();
+            return;
+        }
+        long segundos = instante.getEpochSecond();
+        long dia = Math.floorDiv(segundos, SEGUNDOS_POR_DIA);
+        int segundoDoDia = (int) Math.floorMod(segundos, SEGUNDOS_POR_DIA);
+
+        // Conversão de dias desde 1970-01-01 para ano, mês e dia (calendário gregoriano proléptico)
+        long z = dia + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long diaDaEra = z - era * 146_097;
+        long anoDaEra = (diaDaEra - diaDaEra / 1460 + diaDaEra / 36_524 - diaDaEra / 146_096) / 365;
+        long diaDoAno = diaDaEra - (365 * anoDaEra + anoDaEra / 4 - anoDaEra / 100);
+        long mesDeslocado = (5 * diaDoAno + 2) / 153;
+        int diaDoMes = (int) (diaDoAno - (153 * mesDeslocado + 2) / 5 + 1);
+        int mes = (int) (mesDeslocado < 10 ? mesDeslocado + 3 : mesDeslocado - 9);
+        long ano = anoDaEra + era * 400 + (mes <= 2 ? 1 : 0);
+        if (ano < 0 || ano > 9999) {
+            texto(instante.toString());
+            return;
+        }
+
+        reservar(MAIOR_VALOR);
+        buffer[posicao++] = '"';
+        escreverData((int) ano, mes, diaDoMes);
+        buffer[posicao++] = 'T';
+        escreverHora(segundoDoDia / 3600, segundoDoDia / 60 % 60, segundoDoDia % 60);
+        int nanos = instante.getNano();
+        if (nanos != 0) {
+            buffer[posicao++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                posicao = digitos(nanos / 1_000_000, posicao + 3);
+            } else if (nanos % 1_000 == 0) {
+                posicao = digitos(nanos / 1_000, posicao + 6);
+            } else {
+                posicao = digitos(nanos, posicao + 9);
+            }
+        }
+        buffer[posicao++] = 'Z';
+        buffer[posicao++] = '"';
+    }
+
+    /**
+     * LocalDateTime como o ISO_LOCAL_DATE_TIME: segundos sempre presentes e fração sem zeros à direita.
+     */
+    public void dataHora(LocalDateTime dataHora) throws IOException {
+        if (dataHora == null) {
+            nulo();
+            return;
+        }
+        if (dataHora.getYear() < 0 || dataHora.getYear() > 9999) {
+            texto(dataHora.toString());
+            return;
+        }
+        reservar(MAIOR_VALOR);
+        buffer[posicao++] = '"';
+        escreverData(dataHora.getYear(), dataHora.getMonthValue(), dataHora.getDayOfMonth());
+        buffer[posicao++] = 'T';
+        escreverHora(dataHora.getHour(), dataHora.getMinute(), dataHora.getSecond());
+        int nanos = dataHora.getNano();
+        if (nanos != 0) {
+            buffer[posicao++] = '.';
+            posicao = digitos(nanos, posicao + 9);
+            while (buffer[posicao - 1] == '0') {
+                posicao--;
+            }
+        }
+        buffer[posicao++] = '"';
+    }
+
+    /**
+     * Texto entre aspas, codificado em UTF-8, com os escapes exigidos pelo JSON.
+     */
+    public void texto(String texto) throws IOException {
+        if (texto == null) {
+            nulo();
+            return;
+        }
+        reservar(1);
+        buffer[posicao++] = '"';
+        int tamanho = texto.length();
+        for (int i = 0; i < tamanho; i++) {
+            if (buffer.length - posicao < 6) {
+                descarregar();
+            }
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer[posicao++] = (byte) c;
+                } else {
+                    escapar(c);
+                }
+            } else if (c < 0x800) {
+                buffer[posicao++] = (byte) (0xC0 | (c >> 6));
+                buffer[posicao++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                escapar(c); // como o Jackson: cada metade do par vira um escape unicode, e uma metade sem par continua válida
+            } else {
+                buffer[posicao++] = (byte) (0xE0 | (c >> 12));
+                buffer[posicao++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[posicao++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        reservar(1);
+        buffer[posicao++] = '"';
+    }
+
+    public void descarregar() throws IOException {
+        if (posicao > 0) {
+            saida.write(buffer, 0, posicao);
+            posicao = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            descarregar();
+        } finally {
+            LIVRES.offer(buffer);
+            buffer = null;
+        }
+    }
+
+    private void reservar(int bytes) throws IOException {
+        if (buffer.length - posicao < bytes) {
+            descarregar();
+        }
+    }
+
+    private void escapar(char c) {
+        buffer[posicao++] = '\\';
+        switch (c) {
+            case '"' -> buffer[posicao++] = '"';
+            case '\\' -> buffer[posicao++] = '\\';
+            case '\n' -> buffer[posicao++] = 'n';
+            case '\r' -> buffer[posicao++] = 'r';
+            case '\t' -> buffer[posicao++] = 't';
+            case '\b' -> buffer[posicao++] = 'b';
+            case '\f' -> buffer[posicao++] = 'f';
+            default -> {
+                buffer[posicao++] = 'u';
+                buffer[posicao++] = HEXA[(c >> 12) & 0xF];
+                buffer[posicao++] = HEXA[(c >> 8) & 0xF];
+                buffer[posicao++] = HEXA[(c >> 4) & 0xF];
+                buffer[posicao++] = HEXA[c & 0xF];
+            }
+        }
+    }
+
+    private void escreverData(int ano, int mes, int dia) {
+        posicao = digitos(ano, posicao + 4);
+        buffer[posicao++] = '-';
+        posicao = digitos(mes, posicao + 2);
+        buffer[posicao++] = '-';
+        posicao = digitos(dia, posicao + 2);
+    }
+
+    private void escreverHora(int hora, int minuto, int segundo) {
+        posicao = digitos(hora, posicao + 2);
+        buffer[posicao++] = ':';
+        posicao = digitos(minuto, posicao + 2);
+        buffer[posicao++] = ':';
+        posicao = digitos(segundo, posicao + 2);
+    }
+
+    /**
+     * Escreve os dígitos de um valor não negativo da direita para a esquerda, terminando em
+     * {@code fim} e completando com zeros à esquerda até a posição atual.
+     *
+     * @return A posição seguinte ao último dígito ({@code fim}).
+     */
+    private int digitos(long valor, int fim) {
+        for (int p = fim - 1; p >= posicao; p--) {
+            buffer[p] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+        return fim;
+    }
+
+    private static int quantidadeDigitos(long valor) {
+        int quantidade = 1;
+        long limite = 10;
+        while (quantidade < 19 && valor >= limite) {
+            quantidade++;
+            limite *= 10;
+        }
+        return quantidade;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.desafio_vendas.json;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Corpo de uma resposta de vendas com seleção de campos. O {@link VendaJsonHttpMessageConverter}
+ * o escreve diretamente; sem ele, o Jackson aplica os mesmos campos pelo filtro.
+ */
+public class RespostaVendas extends MappingJacksonValue {
+
+    private final CamposVenda campos;
+
+    /**
+     * @param valor Uma VendaDTO, uma lista delas, uma PaginaVendasDTO ou uma lista de EventoVendaDTO.
+     */
+    public RespostaVendas(Object valor, CamposVenda campos) {
+        super(valor);
+        this.campos = campos;
+        setFilters(campos);
+    }
+
+    public CamposVenda getCampos() {
+        return campos;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.desafio_vendas.json;
+
+import com.example.desafio_vendas.dto.DetalheErro;
+import com.example.desafio_vendas.dto.EventoVendaDTO;
+import com.example.desafio_vendas.dto.PaginaVendasDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.model.Venda;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Serialização dos tipos da API de vendas com o {@link EscritorJson}: cada campo é escrito por
+ * código, com os nomes já codificados, no lugar da introspecção de getters do Jackson.
+ * O JSON produzido tem os mesmos campos e formatos do ObjectMapper da aplicação.
+ */
+public final class SerializadorVendas {
+
+    private static final byte[] ID = EscritorJson.bytes("\"id\":");
+    private static final byte[] NOME_PRODUTO = EscritorJson.bytes("\"nomeProduto\":");
+    private static final byte[] QUANTIDADE_VENDIDA = EscritorJson.bytes("\"quantidadeVendida\":");
+    private static final byte[] DATA_VENDA = EscritorJson.bytes("\"dataVenda\":");
+    private static final byte[] VALOR_TOTAL = EscritorJson.bytes("\"valorTotal\":");
+    private static final byte[] VERSAO = EscritorJson.bytes("\"versao\":");
+    private static final byte[] ULTIMA_ALTERACAO = EscritorJson.bytes("\"ultimaAlteracao\":");
+
+    private static final byte[] ITENS = EscritorJson.bytes("{\"itens\":");
+    private static final byte[] PROXIMO_CURSOR = EscritorJson.bytes(",\"proximoCursor\":");
+
+    private static final byte[] SEQUENCIA = EscritorJson.bytes("{\"sequencia\":");
+    private static final byte[] TIPO = EscritorJson.bytes(",\"tipo\":");
+    private static final byte[] ID_VENDA = EscritorJson.bytes(",\"idVenda\":");
+    private static final byte[] DATA_VENDA_EVENTO = EscritorJson.bytes(",\"dataVenda\":");
+    private static final byte[] DATA_FIM = EscritorJson.bytes(",\"dataFim\":");
+    private static final byte[] DATA_ANTERIOR = EscritorJson.bytes(",\"dataAnterior\":");
+    private static final byte[] VENDA = EscritorJson.bytes(",\"venda\":");
+
+    private static final byte[] TITULO = EscritorJson.bytes("{\"titulo\":");
+    private static final byte[] STATUS = EscritorJson.bytes(",\"status\":");
+    private static final byte[] DETALHE = EscritorJson.bytes(",\"detalhe\":");
+    private static final byte[] TIMESTAMP = EscritorJson.bytes(",\"timestamp\":");
+    private static final byte[] MENSAGEM_DESENVOLVEDOR = EscritorJson.bytes(",\"mensagemDesenvolvedor\":");
+
+    private SerializadorVendas() {
+    }
+
+    /**
+     * @return true se o tipo tem serialização dedicada. Listas só são aceitas dentro de uma
+     * {@link RespostaVendas}, que garante o tipo dos itens.
+     */
+    public static boolean suporta(Class<?> tipo) {
+        return VendaDTO.class == tipo || Venda.class.isAssignableFrom(tipo) || PaginaVendasDTO.class == tipo
+                || DetalheErro.class == tipo || EventoVendaDTO.class == tipo;
+    }
+
+    /**
+     * Escreve uma VendaDTO, uma Venda, uma lista delas, uma PaginaVendasDTO, um DetalheErro ou
+     * um EventoVendaDTO (ou uma lista deles, o lote do feed SSE).
+     *
+     * @throws IllegalArgumentException Se o valor (ou um item da lista) não tiver serialização dedicada.
+     */
+    public static void escrever(EscritorJson escritor, Object valor, CamposVenda campos) throws IOException {
+        if (valor instanceof VendaDTO venda) {
+            escrever(escritor, venda, campos);
+        } else if (valor instanceof Venda venda) {
+            escrever(escritor, venda, campos);
+        } else if (valor instanceof List<?> lista) {
+            escreverLista(escritor, lista, campos);
+        } else if (valor instanceof PaginaVendasDTO pagina) {
+            escritor.bytesBrutos(ITENS);
+            escreverLista(escritor, pagina.getItens(), campos);
+            escritor.bytesBrutos(PROXIMO_CURSOR);
+            escritor.texto(pagina.getProximoCursor());
+            escritor.byteBruto('}');
+        } else if (valor instanceof DetalheErro erro) {
+            escrever(escritor, erro);
+        } else if (valor instanceof EventoVendaDTO evento) {
+            escrever(escritor, evento);
+        } else {
+            throw new IllegalArgumentException("Sem serialização dedicada para "
+                    + (valor == null ? "null" : valor.getClass().getName()));
+        }
+    }
+
+    public static void escrever(EscritorJson escritor, VendaDTO venda, CamposVenda campos) throws IOException {
+        escreverVenda(escritor, campos, venda.getId(), venda.getNomeProduto(), venda.getQuantidadeVendida(),
+                venda.getDataVenda(), venda.getValorTotal(), venda.getVersao(), venda.getUltimaAlteracao());
+    }
+
+    public static void escrever(EscritorJson escritor, Venda venda, CamposVenda campos) throws IOException {
+        escreverVenda(escritor, campos, venda.getId(), venda.getNomeProduto(), venda.getQuantidadeVendida(),
+                venda.getDataVenda(), venda.getValorTotal(), venda.getVersao(), venda.getUltimaAlteracao());
+    }
+
+    public static void escrever(EscritorJson escritor, DetalheErro erro) throws IOException {
+        escritor.bytesBrutos(TITULO);
+        escritor.texto(erro.getTitulo());
+        escritor.bytesBrutos(STATUS);
+        escritor.numero(erro.getStatus());
+        escritor.bytesBrutos(DETALHE);
+        escritor.texto(erro.getDetalhe());
+        escritor.bytesBrutos(TIMESTAMP);
+        escritor.dataHora(erro.getTimestamp());
+        escritor.bytesBrutos(MENSAGEM_DESENVOLVEDOR);
+        escritor.texto(erro.getMensagemDesenvolvedor());
+        escritor.byteBruto('}');
+    }
+
+    public static void escrever(EscritorJson escritor, EventoVendaDTO evento) throws IOException {
+        escritor.bytesBrutos(SEQUENCIA);
+        escritor.numero(evento.getSequencia());
+        escritor.bytesBrutos(TIPO);
+        escritor.texto(evento.getTipo());
+        escritor.bytesBrutos(ID_VENDA);
+        escritor.numero(evento.getIdVenda());
+        escritor.bytesBrutos(DATA_VENDA_EVENTO);
+        escritor.data(evento.getDataVenda());
+        escritor.bytesBrutos(DATA_FIM);
+        escritor.data(evento.getDataFim());
+        escritor.bytesBrutos(DATA_ANTERIOR);
+        escritor.data(evento.getDataAnterior());
+        escritor.bytesBrutos(VENDA);
+        if (evento.getVenda() != null) {
+            escrever(escritor, evento.getVenda(), CamposVenda.TODOS);
+        } else {
+            escritor.nulo();
+        }
+        escritor.byteBruto('}');
+    }
+
+    private static void escreverLista(EscritorJson escritor, List<?> lista, CamposVenda campos) throws IOException {
+        escritor.byteBruto('[');
+        // Índices em vez de iterador: as listagens são ArrayList e o laço não aloca
+        for (int i = 0, tamanho = lista.size(); i < tamanho; i++) {
+            if (i > 0) {
+                escritor.byteBruto(',');
+            }
+            Object item = lista.get(i);
+            if (item instanceof VendaDTO venda) {
+                escrever(escritor, venda, campos);
+            } else if (item instanceof Venda venda) {
+                escrever(escritor, venda, campos);
+            } else if (item instanceof EventoVendaDTO evento) {
+                escrever(escritor, evento);
+            } else {
+                throw new IllegalArgumentException("Sem serialização dedicada para itens do tipo "
+                        + (item == null ? "null" : item.getClass().getName()));
+            }
+        }
+        escritor.byteBruto(']');
+    }
+
+    private static void escreverVenda(EscritorJson escritor, CamposVenda campos, Long id, String nomeProduto,
+                                      int quantidadeVendida, LocalDate dataVenda, BigDecimal valorTotal, Long versao,
+                                      Instant ultimaAlteracao) throws IOException {
+        escritor.byteBruto('{');
+        boolean primeiro = true;
+        if (campos.inclui(CamposVenda.ID)) {
+            primeiro = campo(escritor, ID, primeiro);
+            escritor.numero(id);
+        }
+        if (campos.inclui(CamposVenda.NOME_PRODUTO)) {
+            primeiro = campo(escritor, NOME_PRODUTO, primeiro);
+            escritor.texto(nomeProduto);
+        }
+        if (campos.inclui(CamposVenda.QUANTIDADE_VENDIDA)) {
+            primeiro = campo(escritor, QUANTIDADE_VENDIDA, primeiro);
+            escritor.numero(quantidadeVendida);
+        }
+        if (campos.inclui(CamposVenda.DATA_VENDA)) {
+            primeiro = campo(escritor, DATA_VENDA, primeiro);
+            escritor.data(dataVenda);
+        }
+        if (campos.inclui(CamposVenda.VALOR_TOTAL)) {
+            primeiro = campo(escritor, VALOR_TOTAL, primeiro);
+            escritor.decimal(valorTotal);
+        }
+        if (campos.inclui(CamposVenda.VERSAO)) {
+            primeiro = campo(escritor, VERSAO, primeiro);
+            escritor.numero(versao);
+        }
+        if (campos.inclui(CamposVenda.ULTIMA_ALTERACAO)) {
+            campo(escritor, ULTIMA_ALTERACAO, primeiro);
+            escritor.instante(ultimaAlteracao);
+        }
+        escritor.byteBruto('}');
+    }
+
+    private static boolean campo(EscritorJson escritor, byte[] nome, boolean primeiro) throws IOException {
+        if (!primeiro) {
+            escritor.byteBruto(',');
+        }
+        escritor.bytesBrutos(nome);
+        return false;
+    }
+}
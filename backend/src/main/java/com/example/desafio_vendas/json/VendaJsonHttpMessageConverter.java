@@ -0,0 +1,51 @@
+package com.example.desafio_vendas.json;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+
+/**
+ * Escreve as respostas JSON de vendas (listagens, página, detalhe, criação) e os erros
+ * ({@code DetalheErro}) com o {@link SerializadorVendas}. Os demais tipos e toda a leitura de
+ * corpos continuam com o conversor do Jackson, que fica depois deste na lista do Spring MVC.
+ */
+public class VendaJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public VendaJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RespostaVendas.class == clazz || SerializadorVendas.suporta(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Conversor apenas de escrita.", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object valor, HttpOutputMessage outputMessage) throws IOException {
+        CamposVenda campos = CamposVenda.TODOS;
+        if (valor instanceof RespostaVendas resposta) {
+            campos = resposta.getCampos();
+            valor = resposta.getValue();
+        }
+        try (EscritorJson escritor = EscritorJson.abrir(outputMessage.getBody())) {
+            SerializadorVendas.escrever(escritor, valor, campos);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotWritableException(e.getMessage(), e);
+        }
+    }
+}
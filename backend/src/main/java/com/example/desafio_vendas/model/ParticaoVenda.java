@@ -0,0 +1,29 @@
+package com.example.desafio_vendas.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Catálogo das partições mensais de vendas. Cada linha descreve uma tabela venda_AAAAMM
+ * com as vendas de um mês já selado.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticaoVenda {
+
+    @Id
+    private LocalDate mes; // primeiro dia do mês
+    private String tabela;
+    private long linhas;
+    private Long menorId; // faixa de IDs, usada para localizar uma venda sem consultar todas as partições
+    private Long maiorId;
+}
@@ -0,0 +1,25 @@
+package com.example.desafio_vendas.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Até onde o log de ingestão assíncrona já foi gravado no banco. É atualizada na mesma
+ * transação das vendas, então a retomada após uma queda não duplica nem perde registros.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosicaoIngestao {
+
+    @Id
+    private Long id;
+    private long geracao;
+    private int deslocamento;
+}
@@ -0,0 +1,24 @@
+package com.example.desafio_vendas.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Produto do ranking de um {@link RelatorioVendas}.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoRelatorio {
+
+    private String nomeProduto;
+    private long quantidadeItens;
+    private BigDecimal valorTotal;
+}
@@ -0,0 +1,48 @@
+package com.example.desafio_vendas.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório pré-calculado de um mês ou trimestre: faturamento, volume, ticket médio e os
+ * produtos de maior faturamento. Gravado pelo RelatorioVendaService, nunca pelas requisições.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioVendas {
+
+    @EmbeddedId
+    private RelatorioVendasId id;
+    private LocalDate fim;
+    private long quantidadeVendas;
+    private long quantidadeItens;
+    private BigDecimal valorTotal;
+    private BigDecimal ticketMedio; // valorTotal / quantidadeVendas
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "relatorio_vendas_produto", joinColumns = {
+            @JoinColumn(name = "periodo", referencedColumnName = "periodo"),
+            @JoinColumn(name = "inicio", referencedColumnName = "inicio")})
+    @OrderColumn(name = "posicao")
+    private List<ProdutoRelatorio> topProdutos = new ArrayList<>();
+
+    private Instant geradoEm;
+}
@@ -0,0 +1,21 @@
+package com.example.desafio_vendas.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RelatorioVendasId implements Serializable {
+
+    private String periodo; // nome de PeriodoRelatorio
+    private LocalDate inicio; // primeiro dia do período
+}
@@ -0,0 +1,28 @@
+package com.example.desafio_vendas.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais pré-agregados de vendas por dia e produto, mantidos incrementalmente
+ * a cada venda criada ou removida.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoVendaDiaria {
+
+    @EmbeddedId
+    private ResumoVendaDiariaId id;
+    private Long quantidadeVendas;
+    private Long quantidadeItens;
+    private BigDecimal valorTotal;
+}
@@ -0,0 +1,21 @@
+package com.example.desafio_vendas.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ResumoVendaDiariaId implements Serializable {
+
+    private LocalDate dataVenda;
+    private Long produtoId; // 0 para vendas sem produto
+}
@@ -1,29 +1,76 @@
 package com.example.desafio_vendas.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity 
+@Table(indexes = {
+        @Index(name = "idx_venda_data_venda", columnList = "dataVenda"),
+        @Index(name = "idx_venda_data_venda_id", columnList = "dataVenda, id"), // paginação por chave e ordenação
+        @Index(name = "idx_venda_produto", columnList = "produto_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor 
 @AllArgsConstructor
+@JsonPropertyOrder({"id", "nomeProduto", "quantidadeVendida", "dataVenda", "valorTotal", "versao", "ultimaAlteracao"}) // a mesma da VendaDTO
 public class Venda {
 
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY) 
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venda_seq")
+    @SequenceGenerator(name = "venda_seq", sequenceName = "venda_seq", allocationSize = 50) // IDs em blocos permitem inserts em lote
     private Long id;
-    private String nomeProduto;
+
+    // Referência à dimensão de produtos: cada linha guarda só o ID, o nome fica em uma única linha de produto
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "produto_id")
+    @JsonIgnore
+    private Produto produto;
+
     private int quantidadeVendida;
     private LocalDate dataVenda;
     private BigDecimal valorTotal;
+
+    @Version
+    private Long versao; // incrementada a cada alteração; base dos ETags
+
+    @UpdateTimestamp
+    private Instant ultimaAlteracao;
+
+    public Venda(Long id, Produto produto, int quantidadeVendida, LocalDate dataVenda, BigDecimal valorTotal) {
+        this.id = id;
+        this.produto = produto;
+        this.quantidadeVendida = quantidadeVendida;
+        this.dataVenda = dataVenda;
+        this.valorTotal = valorTotal;
+    }
+
+    /**
+     * Nome do produto vendido, mantido no JSON para que os clientes não dependam da dimensão de produtos.
+     */
+    @JsonProperty("nomeProduto")
+    public String getNomeProduto() {
+        return produto != null ? produto.getNome() : null;
+    }
 }
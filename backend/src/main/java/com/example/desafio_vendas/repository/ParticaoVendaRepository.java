@@ -0,0 +1,22 @@
+package com.example.desafio_vendas.repository;
+
+import com.example.desafio_vendas.model.ParticaoVenda;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ParticaoVendaRepository extends JpaRepository<ParticaoVenda, LocalDate> {
+
+    List<ParticaoVenda> findAllByOrderByMesAsc();
+
+    @Query("SELECT p FROM ParticaoVenda p WHERE p.mes BETWEEN :primeiroMes AND :ultimoMes ORDER BY p.mes")
+    List<ParticaoVenda> buscarSobrepostas(@Param("primeiroMes") LocalDate primeiroMes, @Param("ultimoMes") LocalDate ultimoMes);
+
+    @Query("SELECT p FROM ParticaoVenda p WHERE :id BETWEEN p.menorId AND p.maiorId ORDER BY p.mes")
+    List<ParticaoVenda> buscarPorFaixaDeId(@Param("id") Long id);
+}
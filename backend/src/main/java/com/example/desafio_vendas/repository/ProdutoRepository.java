@@ -0,0 +1,9 @@
+package com.example.desafio_vendas.repository;
+
+import com.example.desafio_vendas.model.Produto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+}
@@ -0,0 +1,23 @@
+package com.example.desafio_vendas.repository;
+
+import com.example.desafio_vendas.model.RelatorioVendas;
+import com.example.desafio_vendas.model.RelatorioVendasId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RelatorioVendasRepository extends JpaRepository<RelatorioVendas, RelatorioVendasId> {
+
+    @Query("SELECT DISTINCT r FROM RelatorioVendas r LEFT JOIN FETCH r.topProdutos "
+            + "WHERE r.id.periodo = :periodo AND r.id.inicio BETWEEN :inicio AND :fim ORDER BY r.id.inicio")
+    List<RelatorioVendas> buscarPorPeriodo(@Param("periodo") String periodo, @Param("inicio") LocalDate inicio,
+                                           @Param("fim") LocalDate fim);
+
+    @Query("SELECT r.id.inicio FROM RelatorioVendas r WHERE r.id.periodo = :periodo")
+    List<LocalDate> listarInicios(@Param("periodo") String periodo);
+}
@@ -0,0 +1,31 @@
+package com.example.desafio_vendas.repository;
+
+import com.example.desafio_vendas.dto.ResumoDiarioDTO;
+import com.example.desafio_vendas.model.ResumoVendaDiaria;
+import com.example.desafio_vendas.model.ResumoVendaDiariaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumoVendaDiariaRepository extends JpaRepository<ResumoVendaDiaria, ResumoVendaDiariaId> {
+
+    @Query("SELECT new com.example.desafio_vendas.dto.ResumoDiarioDTO(r.id.dataVenda, COALESCE(p.nome, ''), r.quantidadeVendas, r.quantidadeItens, r.valorTotal) "
+            + "FROM ResumoVendaDiaria r LEFT JOIN Produto p ON p.id = r.id.produtoId "
+            + "WHERE r.id.dataVenda BETWEEN :dataInicio AND :dataFim")
+    List<ResumoDiarioDTO> buscarPorPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Modifying
+    @Query("DELETE FROM ResumoVendaDiaria r WHERE r.quantidadeVendas <= 0 "
+            + "AND r.id.dataVenda = :dataVenda AND r.id.produtoId = :produtoId")
+    int removerSeVazio(@Param("dataVenda") LocalDate dataVenda, @Param("produtoId") Long produtoId);
+
+    @Modifying
+    @Query("DELETE FROM ResumoVendaDiaria r WHERE r.id.dataVenda BETWEEN :dataInicio AND :dataFim")
+    int removerPorPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+}
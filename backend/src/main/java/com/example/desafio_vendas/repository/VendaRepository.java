@@ -1,19 +1,125 @@
 package com.example.desafio_vendas.repository;
 
+import com.example.desafio_vendas.dto.EstadoListagemDTO;
+import com.example.desafio_vendas.dto.ResumoDiarioDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
 import com.example.desafio_vendas.model.Venda;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate; 
+import java.util.Collection;
 import java.util.List;     
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VendaRepository extends JpaRepository<Venda, Long> {
 
-    List<Venda> findByDataVendaBetween(LocalDate dataInicio, LocalDate dataFim);
+    // Projeção usada pelas listagens: só as colunas da resposta, sem entidades no contexto de persistência
+    String SELECAO_DTO = "SELECT new com.example.desafio_vendas.dto.VendaDTO(v.id, p.nome, v.quantidadeVendida, "
+            + "v.dataVenda, v.valorTotal, v.versao, v.ultimaAlteracao) FROM Venda v LEFT JOIN v.produto p ";
 
-    List<Venda> findByDataVendaGreaterThanEqual(LocalDate dataInicio);
+    @Transactional(readOnly = true)
+    @Query(SELECAO_DTO)
+    List<VendaDTO> listarTodas();
 
-    List<Venda> findByDataVendaLessThanEqual(LocalDate dataFim);
+    @Transactional(readOnly = true)
+    @Query(SELECAO_DTO + "WHERE v.dataVenda BETWEEN :dataInicio AND :dataFim")
+    List<VendaDTO> listarPorPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
 
-}
\ No newline at end of file
+    /**
+     * Vendas dos produtos informados, pelo índice de produto_id. Os IDs vêm da busca por trecho do nome
+     * no CatalogoProdutoService, que substitui um LIKE '%termo%' sobre todas as vendas.
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECAO_DTO + "WHERE v.produto.id IN :produtos")
+    List<VendaDTO> listarPorProdutos(@Param("produtos") Collection<Long> produtos);
+
+    @Transactional(readOnly = true)
+    @Query(SELECAO_DTO + "WHERE v.produto.id IN :produtos AND v.dataVenda BETWEEN :dataInicio AND :dataFim")
+    List<VendaDTO> listarPorProdutosEPeriodo(@Param("produtos") Collection<Long> produtos,
+                                             @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Transactional(readOnly = true)
+    @Query(SELECAO_DTO + "WHERE v.id = :id")
+    Optional<VendaDTO> buscarDTOPorId(@Param("id") Long id);
+
+    /**
+     * Versão atual da venda, consultada só quando uma alteração condicionada à versão não afeta nenhuma linha.
+     */
+    @Query("SELECT COALESCE(v.versao, 0) FROM Venda v WHERE v.id = :id")
+    Optional<Long> buscarVersao(@Param("id") Long id);
+
+    /**
+     * Primeira página da paginação por chave (keyset) ordenada por (dataVenda, id).
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECAO_DTO + "WHERE v.dataVenda BETWEEN :dataInicio AND :dataFim ORDER BY v.dataVenda, v.id")
+    List<VendaDTO> buscarPrimeiraPagina(@Param("dataInicio") LocalDate dataInicio,
+                                        @Param("dataFim") LocalDate dataFim,
+                                        Pageable pageable);
+
+    /**
+     * Próxima página a partir da última chave (dataVenda, id) entregue ao cliente.
+     * Não usa OFFSET, então o custo não cresce com a profundidade da página.
+     */
+    @Transactional(readOnly = true)
+    @Query(SELECAO_DTO + "WHERE v.dataVenda BETWEEN :dataInicio AND :dataFim "
+            + "AND (v.dataVenda > :ultimaData OR (v.dataVenda = :ultimaData AND v.id > :ultimoId)) "
+            + "ORDER BY v.dataVenda, v.id")
+    List<VendaDTO> buscarPaginaApos(@Param("dataInicio") LocalDate dataInicio,
+                                    @Param("dataFim") LocalDate dataFim,
+                                    @Param("ultimaData") LocalDate ultimaData,
+                                    @Param("ultimoId") Long ultimoId,
+                                    Pageable pageable);
+
+    /**
+     * Percorre as vendas do intervalo sem materializar a lista inteira.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Venda v LEFT JOIN FETCH v.produto WHERE v.dataVenda BETWEEN :dataInicio AND :dataFim ORDER BY v.dataVenda, v.id")
+    Stream<Venda> streamPorPeriodo(@Param("dataInicio") LocalDate dataInicio,
+                                   @Param("dataFim") LocalDate dataFim);
+
+    /**
+     * Totais por dia e produto calculados pelo banco, usados para os dias ainda abertos.
+     */
+    @Query("SELECT new com.example.desafio_vendas.dto.ResumoDiarioDTO(v.dataVenda, COALESCE(p.nome, ''), COUNT(v), SUM(v.quantidadeVendida), SUM(v.valorTotal)) "
+            + "FROM Venda v LEFT JOIN v.produto p WHERE v.dataVenda BETWEEN :dataInicio AND :dataFim "
+            + "GROUP BY v.dataVenda, p.id, p.nome")
+    List<ResumoDiarioDTO> agruparPorDiaEProduto(@Param("dataInicio") LocalDate dataInicio,
+                                                @Param("dataFim") LocalDate dataFim);
+
+    /**
+     * Datas da venda mais antiga e da mais recente da tabela ativa, lidas nas pontas do índice de data.
+     */
+    @Query("SELECT MIN(v.dataVenda) FROM Venda v")
+    LocalDate menorDataVenda();
+
+    @Query("SELECT MAX(v.dataVenda) FROM Venda v")
+    LocalDate maiorDataVenda();
+
+    /**
+     * Quantidade, soma das versões, última alteração e maior ID das vendas do intervalo.
+     * Qualquer inclusão, alteração ou exclusão muda pelo menos um desses valores.
+     */
+    @Query("SELECT new com.example.desafio_vendas.dto.EstadoListagemDTO(COUNT(v), SUM(v.versao), MAX(v.ultimaAlteracao), MAX(v.id)) "
+            + "FROM Venda v WHERE v.dataVenda BETWEEN :dataInicio AND :dataFim")
+    EstadoListagemDTO estadoPorPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Query("SELECT new com.example.desafio_vendas.dto.EstadoListagemDTO(COUNT(v), SUM(v.versao), MAX(v.ultimaAlteracao), MAX(v.id)) FROM Venda v")
+    EstadoListagemDTO estadoCompleto();
+
+}
@@ -0,0 +1,56 @@
+package com.example.desafio_vendas.security;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Arquivo local relido periodicamente (chaves de assinatura, tokens revogados). Compara data de
+ * modificação e tamanho para que o conteúdo só seja lido de novo quando o arquivo mudar.
+ * <p>
+ * A verificação e o registro são separados: os atributos só são guardados depois que o chamador
+ * leu e aplicou o conteúdo. Uma carga que falha (arquivo pela metade, conteúdo inválido, erro de
+ * leitura) é tentada de novo na consulta seguinte, mesmo que o arquivo não mude mais.
+ */
+final class ArquivoMonitorado {
+
+    private final Path caminho;
+    private FileTime ultimaModificacao;
+    private long tamanho = -1;
+
+    ArquivoMonitorado(Path caminho) {
+        this.caminho = caminho;
+    }
+
+    Path caminho() {
+        return caminho;
+    }
+
+    /**
+     * Os atributos são lidos antes do conteúdo: se o arquivo mudar durante a leitura, a próxima
+     * consulta vê atributos diferentes dos registrados e lê de novo.
+     *
+     * @return Os atributos atuais, a passar para {@link #marcarCarregado} depois que o conteúdo
+     * for aplicado; null se o arquivo não mudou desde a última carga bem-sucedida.
+     * @throws IOException Se o arquivo não existir ou não puder ser lido.
+     */
+    synchronized BasicFileAttributes mudou() throws IOException {
+        BasicFileAttributes atributos = Files.readAttributes(caminho, BasicFileAttributes.class);
+        if (atributos.lastModifiedTime().equals(ultimaModificacao) && atributos.size() == tamanho) {
+            return null;
+        }
+        return atributos;
+    }
+
+    /**
+     * Registra a versão do arquivo cujo conteúdo acabou de ser aplicado.
+     *
+     * @param atributos O retorno de {@link #mudou} que precedeu a leitura.
+     */
+    synchronized void marcarCarregado(BasicFileAttributes atributos) {
+        ultimaModificacao = atributos.lastModifiedTime();
+        tamanho = atributos.size();
+    }
+}
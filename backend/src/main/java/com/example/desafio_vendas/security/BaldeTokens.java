@@ -0,0 +1,58 @@
+package com.example.desafio_vendas.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens sem bloqueio, implementado como GCRA: em vez de guardar o saldo e o instante
+ * da última reposição, guarda só o instante teórico em que o balde estaria cheio de novo.
+ * Consumir é um único compareAndSet nesse valor.
+ */
+final class BaldeTokens {
+
+    private final int capacidade;
+    private final long nanosPorToken;
+    private final long capacidadeNanos;
+    private final AtomicLong instanteCheio;
+
+    BaldeTokens(int capacidade, double reposicaoPorSegundo, long agora) {
+        this.capacidade = capacidade;
+        this.nanosPorToken = Math.max(1L, Math.round(1_000_000_000L / reposicaoPorSegundo));
+        this.capacidadeNanos = capacidade * nanosPorToken;
+        this.instanteCheio = new AtomicLong(agora);
+    }
+
+    /**
+     * Tenta retirar {@code custo} tokens do balde. Um custo acima da capacidade nunca caberia no
+     * balde e seria recusado para sempre, com uma espera que não se cumpre; ele é cobrado como a
+     * capacidade inteira, o que exige o balde cheio e o esvazia.
+     *
+     * @param agora Instante atual em {@link System#nanoTime()}.
+     * @return 0 se os tokens foram retirados; senão, quantos nanossegundos faltam para haver saldo.
+     */
+    long consumir(int custo, long agora) {
+        long incremento = Math.min(custo, capacidade) * nanosPorToken;
+        while (true) {
+            long atual = instanteCheio.get();
+            long novo = Math.max(atual, agora) + incremento;
+            long espera = novo - agora - capacidadeNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (instanteCheio.compareAndSet(atual, novo)) {
+                return 0;
+            }
+        }
+    }
+
+    double tokensDisponiveis(long agora) {
+        long emUso = Math.max(0L, instanteCheio.get() - agora);
+        return (double) (capacidadeNanos - emUso) / nanosPorToken;
+    }
+
+    /**
+     * Um balde cheio equivale a um recém-criado e pode ser descartado sem perder estado.
+     */
+    boolean cheio(long agora) {
+        return instanteCheio.get() <= agora;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.desafio_vendas.security;
+
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guarda a autenticação de tokens já verificados até o instante de expiração (exp)
+ * de cada um, para que requisições repetidas não refaçam a verificação HMAC.
+ * Um acerto ainda consulta a lista de revogação e o conjunto de chaves, ambos em memória:
+ * um token revogado, assinado por uma chave retirada ou por um segredo trocado (o kid continua
+ * no conjunto, mas com outro verificador) deixa de valer já na requisição seguinte.
+ * <p>
+ * Cheio, o Caffeine descarta os tokens menos usados em tempo constante, sem varrer as entradas.
+ * Acertos, falhas e descartes por tamanho aparecem no Actuator como {@code cache.*{cache=auth.tokens}}.
+ */
+@Component
+public class CacheTokens {
+
+    private record Entrada(Authentication autenticacao, long expiraEmMillis, String idToken, String kid,
+                           JWTVerifier verificador) {}
+
+    // Cada entrada expira no exp do próprio token; leituras não prolongam o prazo
+    private static final Expiry<String, Entrada> ATE_O_EXP = new Expiry<>() {
+        @Override
+        public long expireAfterCreate(String token, Entrada entrada, long agora) {
+            long restante = entrada.expiraEmMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(restante, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Entrada entrada, long agora, long duracaoAtual) {
+            return expireAfterCreate(token, entrada, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Entrada entrada, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    };
+
+    private final Cache<String, Entrada> entradas;
+    private final Counter invalidados;
+    private final RevogacaoTokens revogacaoTokens;
+    private final ChavesJwt chavesJwt;
+
+    public CacheTokens(@Value("${api.security.token.cache.tamanho-maximo:10000}") int tamanhoMaximo,
+                       RevogacaoTokens revogacaoTokens, ChavesJwt chavesJwt, MeterRegistry registry) {
+        this.revogacaoTokens = revogacaoTokens;
+        this.chavesJwt = chavesJwt;
+        this.entradas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(ATE_O_EXP)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, entradas, "auth.tokens");
+        this.invalidados = Counter.builder("auth.token.cache.invalidados")
+                .description("Tokens encontrados no cache, mas revogados ou de uma chave retirada ou trocada")
+                .register(registry);
+    }
+
+    /**
+     * @return A autenticação do token, ou null se ele não estiver no cache, já tiver expirado,
+     * tiver sido revogado ou sua chave tiver saído do conjunto ou mudado de segredo.
+     */
+    public Authentication buscar(String token) {
+        Entrada entrada = entradas.getIfPresent(token);
+        if (entrada == null) {
+            return null;
+        }
+        if (revogacaoTokens.revogado(entrada.idToken())
+                || chavesJwt.verificador(entrada.kid()) != entrada.verificador()) {
+            entradas.asMap().remove(token, entrada);
+            invalidados.increment();
+            return null;
+        }
+        return entrada.autenticacao();
+    }
+
+    public void guardar(String token, Authentication autenticacao, JwtTokenService.TokenVerificado verificado) {
+        DecodedJWT decodificado = verificado.decodificado();
+        Instant expiraEm = decodificado.getExpiresAtAsInstant();
+        if (expiraEm == null) {
+            return; // sem exp não há como saber quando descartar
+        }
+        entradas.put(token, new Entrada(autenticacao, expiraEm.toEpochMilli(), decodificado.getId(),
+                decodificado.getKeyId(), verificado.verificador()));
+    }
+}
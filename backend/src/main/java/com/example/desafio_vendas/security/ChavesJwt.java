@@ -0,0 +1,197 @@
+package com.example.desafio_vendas.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chaves HMAC de assinatura dos tokens, identificadas pelo cabeçalho "kid" do JWT. Uma chave
+ * assina os tokens novos; todas as do conjunto são aceitas na verificação. Assim várias
+ * instâncias podem trocar de chave sem derrubar os tokens já emitidos:
+ * <ol>
+ *     <li>a chave nova entra no arquivo de todas as instâncias;</li>
+ *     <li>{@code ativa} passa a apontar para ela;</li>
+ *     <li>a antiga sai depois que os tokens assinados com ela expiraram (2 horas).</li>
+ * </ol>
+ * Sem {@code api.security.token.chaves.arquivo}, o conjunto tem só {@code api.security.token.secret},
+ * com o kid {@value #KID_PADRAO}. Tokens sem kid, emitidos antes das chaves nomeadas, são
+ * verificados com esse kid.
+ * <p>
+ * Formato do arquivo (properties), relido quando muda:
+ * <pre>
+ * ativa=2024-06
+ * chave.2024-06=segredo-novo
+ * chave.padrao=segredo-anterior
+ * </pre>
+ */
+@Component
+public class ChavesJwt {
+
+    private static final Logger log = LoggerFactory.getLogger(ChavesJwt.class);
+
+    static final String KID_PADRAO = "padrao";
+    private static final String PREFIXO_CHAVE = "chave.";
+
+    /**
+     * Chave que assina os tokens novos.
+     */
+    record Assinatura(String kid, Algorithm algoritmo) {}
+
+    /**
+     * Chave do conjunto. O verificador identifica o segredo: ele só é recriado quando o segredo do
+     * kid muda, então quem guardou o verificador usado numa verificação sabe se ela ainda vale.
+     */
+    private record Chave(String segredo, Algorithm algoritmo, JWTVerifier verificador) {}
+
+    private record Conjunto(Assinatura ativa, Map<String, Chave> chaves) {}
+
+    // Trocado inteiro a cada recarga: quem lê nunca vê uma mistura de conjuntos
+    private volatile Conjunto conjunto;
+
+    private final ArquivoMonitorado arquivo;
+    private final ScheduledExecutorService agendador;
+    private final Counter recargas;
+    private final Counter falhasRecarga;
+
+    public ChavesJwt(@Value("${api.security.token.secret}") String segredoPadrao,
+                     @Value("${api.security.token.chaves.arquivo:}") String arquivo,
+                     @Value("${api.security.token.chaves.intervalo-recarga:30s}") Duration intervaloRecarga,
+                     MeterRegistry registry) {
+        this.recargas = Counter.builder("auth.chaves.recargas").tag("resultado", "sucesso")
+                .description("Recargas do arquivo de chaves de assinatura")
+                .register(registry);
+        this.falhasRecarga = Counter.builder("auth.chaves.recargas").tag("resultado", "falha")
+                .description("Recargas do arquivo de chaves rejeitadas; o conjunto anterior é mantido")
+                .register(registry);
+        Gauge.builder("auth.chaves.quantidade", this, chaves -> chaves.conjunto.chaves().size())
+                .description("Chaves aceitas na verificação de tokens")
+                .register(registry);
+
+        if (arquivo == null || arquivo.isBlank()) {
+            this.arquivo = null;
+            this.agendador = null;
+            this.conjunto = criarConjunto(KID_PADRAO, Map.of(KID_PADRAO, segredoPadrao), Map.of());
+            return;
+        }
+        this.arquivo = new ArquivoMonitorado(Path.of(arquivo));
+        try {
+            BasicFileAttributes atributos = this.arquivo.mudou();
+            this.conjunto = ler(this.arquivo.caminho(), Map.of()); // sem chaves válidas na subida, a aplicação não sobe
+            this.arquivo.marcarCarregado(atributos);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler o arquivo de chaves " + arquivo, e);
+        }
+        long intervalo = intervaloRecarga.toMillis();
+        this.agendador = Executors.newSingleThreadScheduledExecutor();
+        agendador.scheduleWithFixedDelay(this::recarregarAgendado, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    Assinatura assinaturaAtiva() {
+        return conjunto.ativa();
+    }
+
+    /**
+     * @param kid Cabeçalho kid do token; null para tokens emitidos antes das chaves nomeadas.
+     * @return O verificador da chave, ou null se ela não estiver (ou não estiver mais) no conjunto.
+     */
+    JWTVerifier verificador(String kid) {
+        Chave chave = conjunto.chaves().get(kid != null ? kid : KID_PADRAO);
+        return chave != null ? chave.verificador() : null;
+    }
+
+    /**
+     * Relê o arquivo de chaves se ele mudou desde a última carga bem-sucedida.
+     *
+     * @throws IOException Se o arquivo não puder ser lido.
+     * @throws IllegalStateException Se o conteúdo for inválido; o conjunto atual continua em uso
+     * e a leitura é tentada de novo na próxima recarga.
+     */
+    public void recarregar() throws IOException {
+        if (arquivo == null) {
+            return;
+        }
+        BasicFileAttributes atributos = arquivo.mudou();
+        if (atributos != null) {
+            conjunto = ler(arquivo.caminho(), conjunto.chaves());
+            arquivo.marcarCarregado(atributos);
+            recargas.increment();
+            log.info("Chaves de assinatura recarregadas: ativa '{}', {} aceita(s)",
+                    conjunto.ativa().kid(), conjunto.chaves().size());
+        }
+    }
+
+    private void recarregarAgendado() {
+        try {
+            recarregar();
+        } catch (IOException | RuntimeException e) {
+            // Uma falha não pode cancelar as execuções seguintes do agendador
+            falhasRecarga.increment();
+            log.error("Falha ao recarregar as chaves de assinatura de {}", arquivo.caminho(), e);
+        }
+    }
+
+    private static Conjunto ler(Path caminho, Map<String, Chave> anteriores) throws IOException {
+        Properties propriedades = new Properties();
+        try (Reader leitor = Files.newBufferedReader(caminho, StandardCharsets.UTF_8)) {
+            propriedades.load(leitor);
+        }
+        Map<String, String> segredos = new HashMap<>();
+        for (String nome : propriedades.stringPropertyNames()) {
+            String segredo = propriedades.getProperty(nome).trim();
+            if (nome.startsWith(PREFIXO_CHAVE) && !segredo.isEmpty()) {
+                segredos.put(nome.substring(PREFIXO_CHAVE.length()), segredo);
+            }
+        }
+        String ativa = propriedades.getProperty("ativa", "").trim();
+        if (!segredos.containsKey(ativa)) {
+            throw new IllegalStateException("A chave ativa '" + ativa + "' não está entre as chaves de " + caminho
+                    + ": " + segredos.keySet());
+        }
+        return criarConjunto(ativa, segredos, anteriores);
+    }
+
+    private static Conjunto criarConjunto(String ativa, Map<String, String> segredos, Map<String, Chave> anteriores) {
+        Map<String, Chave> chaves = new HashMap<>();
+        for (Map.Entry<String, String> entrada : segredos.entrySet()) {
+            // Algorithm e JWTVerifier são imutáveis e thread-safe, então são criados uma vez por segredo;
+            // um kid cujo segredo não mudou mantém o verificador e os tokens em cache continuam valendo
+            Chave chave = anteriores.get(entrada.getKey());
+            if (chave == null || !chave.segredo().equals(entrada.getValue())) {
+                Algorithm algoritmo = Algorithm.HMAC256(entrada.getValue());
+                chave = new Chave(entrada.getValue(), algoritmo,
+                        JWT.require(algoritmo).withIssuer(JwtTokenService.ISSUER).build());
+            }
+            chaves.put(entrada.getKey(), chave);
+        }
+        return new Conjunto(new Assinatura(ativa, chaves.get(ativa).algoritmo()), Map.copyOf(chaves));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+}
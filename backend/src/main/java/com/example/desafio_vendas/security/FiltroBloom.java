@@ -0,0 +1,68 @@
+package com.example.desafio_vendas.security;
+
+/**
+ * Filtro de Bloom de Strings, imutável depois de preenchido. Responde "certamente ausente" sem
+ * falsos negativos; um "talvez presente" precisa ser confirmado na lista exata.
+ * As k posições vêm de dois hashes de 64 bits combinados (h1 + i * h2), sem alocação por consulta.
+ */
+final class FiltroBloom {
+
+    private final long[] bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+
+    /**
+     * @param capacidade            Quantidade de elementos que serão inseridos.
+     * @param taxaFalsosPositivos   Probabilidade desejada de "talvez presente" para um elemento ausente.
+     */
+    FiltroBloom(int capacidade, double taxaFalsosPositivos) {
+        int n = Math.max(capacidade, 1);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.quantidadeBits = Math.max(64, m);
+        this.bits = new long[(int) ((quantidadeBits + 63) / 64)];
+        this.quantidadeHashes = (int) Math.max(1, Math.min(16, Math.round((double) quantidadeBits / n * Math.log(2))));
+    }
+
+    void adicionar(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = ((h1 + i * h2) & Long.MAX_VALUE) % quantidadeBits;
+            bits[(int) (posicao >>> 6)] |= 1L << posicao;
+        }
+    }
+
+    boolean talvezContenha(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = ((h1 + i * h2) & Long.MAX_VALUE) % quantidadeBits;
+            if ((bits[(int) (posicao >>> 6)] & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long tamanhoEmBytes() {
+        return bits.length * 8L;
+    }
+
+    // FNV-1a de 64 bits sobre os chars, seguido da finalização do MurmurHash3 para espalhar os bits
+    private static long hash(String valor) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h = (h ^ valor.charAt(i)) * 0x100000001B3L;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,46 +1,87 @@
 package com.example.desafio_vendas.security;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
-import org.springframework.beans.factory.annotation.Value;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.UUID;
 
 @Service
 public class JwtTokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    static final String ISSUER = "VendasMonitoringAPI";
 
-    private static final String ISSUER = "VendasMonitoringAPI";
+    @Autowired
+    private ChavesJwt chavesJwt;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter tokensValidos;
+    private Counter tokensInvalidos;
+
+    @PostConstruct
+    void inicializar() {
+        tokensValidos = Counter.builder("auth.token.validacoes").tag("resultado", "valido").register(meterRegistry);
+        tokensInvalidos = Counter.builder("auth.token.validacoes").tag("resultado", "invalido").register(meterRegistry);
+    }
 
     public String gerarToken(String nomeUsuario) {
+        ChavesJwt.Assinatura assinatura = chavesJwt.assinaturaAtiva();
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
+                    .withKeyId(assinatura.kid())
+                    .withJWTId(UUID.randomUUID().toString()) // identifica o token na lista de revogação
                     .withIssuer(ISSUER)
                     .withSubject(nomeUsuario)
                     .withExpiresAt(gerarDataExpiracao())
-                    .sign(algorithm);
+                    .sign(assinatura.algoritmo());
         } catch (JWTCreationException exception){
             throw new RuntimeException("Erro ao gerar token JWT", exception);
         }
     }
 
+    /**
+     * Token que passou na verificação e o verificador da chave que o aceitou. O verificador muda
+     * quando o segredo do kid é trocado, então serve para saber se a verificação ainda vale.
+     */
+    public record TokenVerificado(DecodedJWT decodificado, JWTVerifier verificador) {}
+
     public String validarToken(String tokenJWT) {
+        TokenVerificado verificado = verificarToken(tokenJWT);
+        return verificado != null ? verificado.decodificado().getSubject() : null;
+    }
+
+    /**
+     * Verifica assinatura, emissor e expiração do token com a chave indicada no seu kid.
+     *
+     * @return O token verificado, ou null se for inválido ou assinado por uma chave fora do conjunto.
+     */
+    @Timed(value = "auth.token.verificacao", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public TokenVerificado verificarToken(String tokenJWT) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer(ISSUER)
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            DecodedJWT token = JWT.decode(tokenJWT);
+            JWTVerifier verificador = chavesJwt.verificador(token.getKeyId());
+            if (verificador == null) {
+                tokensInvalidos.increment();
+                return null;
+            }
+            DecodedJWT decodificado = verificador.verify(token);
+            tokensValidos.increment();
+            return new TokenVerificado(decodificado, verificador);
         } catch (JWTVerificationException exception){
+            tokensInvalidos.increment();
             return null; 
         }
     }
@@ -0,0 +1,209 @@
+package com.example.desafio_vendas.security;
+
+import com.example.desafio_vendas.dto.DetalheErro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limita a taxa de requisições de cada usuário autenticado (o "sub" do JWT) com um balde de
+ * tokens. Cada endpoint retira uma quantidade de tokens proporcional ao trabalho que gera no
+ * banco: buscar uma venda pelo ID custa 1, listar sem filtro de data custa o máximo.
+ */
+@Component
+@ConditionalOnProperty(name = "vendas.limite-taxa.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private record Limitador(BaldeTokens balde, Counter aceitas, Counter recusadas, Counter tokens, Gauge disponiveis) {}
+
+    private final Map<String, Limitador> limitadores = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${vendas.limite-taxa.capacidade:60}")
+    private int capacidade;
+
+    @Value("${vendas.limite-taxa.reposicao-por-segundo:10}")
+    private double reposicaoPorSegundo;
+
+    @Value("${vendas.limite-taxa.custo-sem-filtro:20}")
+    private int custoSemFiltro;
+
+    @Value("${vendas.limite-taxa.dias-por-token:31}")
+    private int diasPorToken;
+
+    @Value("${vendas.limite-taxa.custo-importacao:10}")
+    private int custoImportacao;
+
+    @Value("${vendas.limite-taxa.maximo-usuarios:10000}")
+    private int maximoUsuarios;
+
+    // Sujeitos internos, como o aquecimento da subida, que não devem consumir nem esgotar baldes
+    @Value("${vendas.limite-taxa.sujeitos-isentos:}")
+    private Set<String> sujeitosIsentos;
+
+    public LimiteTaxaFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "/auth/login".equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao == null || !autenticacao.isAuthenticated() || autenticacao instanceof AnonymousAuthenticationToken
+                || sujeitosIsentos.contains(autenticacao.getName())) {
+            filterChain.doFilter(request, response); // sem sujeito (a autorização decide) ou isento
+            return;
+        }
+
+        long agora = System.nanoTime();
+        Limitador limitador = limitador(autenticacao.getName(), agora);
+        int custo = Math.min(custo(request), capacidade);
+        long esperaNanos = limitador.balde().consumir(custo, agora);
+        if (esperaNanos > 0) {
+            limitador.recusadas().increment();
+            recusar(request, response, custo, esperaNanos);
+            return;
+        }
+        limitador.aceitas().increment();
+        limitador.tokens().increment(custo);
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Tokens cobrados pela requisição. Listagens completas custam de acordo com o intervalo
+     * de datas pedido, já que o resultado inteiro é lido do banco.
+     */
+    int custo(HttpServletRequest request) {
+        String caminho = request.getRequestURI();
+        String metodo = request.getMethod();
+        if (HttpMethod.POST.matches(metodo) && "/vendas/lote".equals(caminho)
+                || HttpMethod.DELETE.matches(metodo) && "/vendas".equals(caminho)
+                || HttpMethod.POST.matches(metodo) && "/relatorios/execucoes".equals(caminho)) {
+            return custoImportacao; // importação, remoção em lote e recálculo de relatórios
+        }
+        if (!HttpMethod.GET.matches(metodo)) {
+            return 1;
+        }
+        return switch (caminho) {
+            case "/vendas", "/vendas/fluxo", "/vendas/export" -> custoPorIntervalo(request);
+            case "/vendas/pagina" -> 2;
+            default -> 1;
+        };
+    }
+
+    private int custoPorIntervalo(HttpServletRequest request) {
+        LocalDate inicio = data(request.getParameter("dataInicio"));
+        LocalDate fim = data(request.getParameter("dataFim"));
+        if (inicio == null || fim == null) {
+            return custoSemFiltro;
+        }
+        long dias = Math.max(1L, ChronoUnit.DAYS.between(inicio, fim) + 1);
+        return (int) Math.min(custoSemFiltro, 1 + (dias + diasPorToken - 1) / diasPorToken);
+    }
+
+    private static LocalDate data(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            return null; // o controller responde 400; aqui só não há desconto
+        }
+    }
+
+    private Limitador limitador(String sujeito, long agora) {
+        Limitador limitador = limitadores.get(sujeito);
+        if (limitador != null) {
+            return limitador;
+        }
+        if (limitadores.size() >= maximoUsuarios) {
+            descartarCheios(agora);
+        }
+        return limitadores.computeIfAbsent(sujeito, s -> novoLimitador(s, agora));
+    }
+
+    private Limitador novoLimitador(String sujeito, long agora) {
+        BaldeTokens balde = new BaldeTokens(capacidade, reposicaoPorSegundo, agora);
+        return new Limitador(balde,
+                Counter.builder("vendas.limite.requisicoes").tag("sujeito", sujeito).tag("resultado", "aceita")
+                        .description("Requisições admitidas pelo limite de taxa")
+                        .register(registry),
+                Counter.builder("vendas.limite.requisicoes").tag("sujeito", sujeito).tag("resultado", "recusada")
+                        .description("Requisições recusadas com 429 pelo limite de taxa")
+                        .register(registry),
+                Counter.builder("vendas.limite.tokens.consumidos").tag("sujeito", sujeito)
+                        .description("Tokens retirados do balde pelas requisições admitidas")
+                        .register(registry),
+                Gauge.builder("vendas.limite.tokens.disponiveis", balde, b -> b.tokensDisponiveis(System.nanoTime()))
+                        .tag("sujeito", sujeito)
+                        .description("Saldo atual do balde de tokens")
+                        .register(registry));
+    }
+
+    /**
+     * Descarta os baldes cheios, que não guardam nenhum estado, junto com as métricas do usuário.
+     */
+    private void descartarCheios(long agora) {
+        limitadores.entrySet().removeIf(entrada -> {
+            Limitador limitador = entrada.getValue();
+            if (!limitador.balde().cheio(agora)) {
+                return false;
+            }
+            registry.remove(limitador.aceitas());
+            registry.remove(limitador.recusadas());
+            registry.remove(limitador.tokens());
+            registry.remove(limitador.disponiveis());
+            return true;
+        });
+    }
+
+    private void recusar(HttpServletRequest request, HttpServletResponse response, int custo, long esperaNanos) throws IOException {
+        long segundos = Math.max(1L, (esperaNanos + 999_999_999L) / 1_000_000_000L);
+        DetalheErro erro = new DetalheErro(
+                "Muitas Requisições",
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Limite de requisições excedido. Tente novamente em " + segundos + " segundo(s).",
+                LocalDateTime.now(),
+                "Custo da requisição: " + custo + " token(s). Caminho: " + request.getRequestURI() // mensagemDesenvolvedor
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), erro);
+    }
+}
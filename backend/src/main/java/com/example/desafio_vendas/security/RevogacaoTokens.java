@@ -0,0 +1,153 @@
+package com.example.desafio_vendas.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens revogados antes de expirar, identificados pelo "jti". A lista vem de um arquivo local
+ * (um jti por linha; linhas vazias e iniciadas por # são ignoradas), relido quando muda. Cada
+ * instância consulta só a sua memória, sem chamadas remotas por requisição.
+ * <p>
+ * A consulta passa primeiro por um {@link FiltroBloom}: quase todos os tokens não são revogados
+ * e saem dali em tempo constante. Um "talvez" é confirmado por busca binária na lista ordenada,
+ * então um falso positivo nunca recusa um token válido.
+ * <p>
+ * Como os tokens duram 2 horas, um jti pode sair do arquivo depois desse prazo.
+ */
+@Component
+public class RevogacaoTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(RevogacaoTokens.class);
+
+    private record Lista(FiltroBloom filtro, String[] ids) {}
+
+    private static final Lista VAZIA = new Lista(null, new String[0]);
+
+    private volatile Lista lista = VAZIA;
+    private boolean arquivoAusente; // só acessado pela subida e pelo agendador, para avisar uma vez
+
+    private final ArquivoMonitorado arquivo;
+    private final double taxaFalsosPositivos;
+    private final ScheduledExecutorService agendador;
+    private final Counter revogados;
+    private final Counter falsosPositivos;
+    private final Counter falhasRecarga;
+
+    public RevogacaoTokens(@Value("${api.security.revogacao.arquivo:}") String arquivo,
+                           @Value("${api.security.revogacao.intervalo-recarga:30s}") Duration intervaloRecarga,
+                           @Value("${api.security.revogacao.taxa-falsos-positivos:0.001}") double taxaFalsosPositivos,
+                           MeterRegistry registry) {
+        this.taxaFalsosPositivos = taxaFalsosPositivos;
+        this.revogados = Counter.builder("auth.token.revogados")
+                .description("Requisições recusadas por usarem um token revogado")
+                .register(registry);
+        this.falsosPositivos = Counter.builder("auth.revogacao.falsos-positivos")
+                .description("Tokens válidos que o filtro de Bloom indicou como talvez revogados")
+                .register(registry);
+        this.falhasRecarga = Counter.builder("auth.revogacao.falhas-recarga")
+                .description("Recargas da lista de revogação que falharam; a lista anterior é mantida")
+                .register(registry);
+        Gauge.builder("auth.revogacao.tamanho", this, revogacao -> revogacao.lista.ids().length)
+                .description("Tokens na lista de revogação")
+                .register(registry);
+
+        if (arquivo == null || arquivo.isBlank()) {
+            this.arquivo = null;
+            this.agendador = null;
+            return;
+        }
+        this.arquivo = new ArquivoMonitorado(Path.of(arquivo));
+        recarregarAgendado(); // arquivo ausente na subida equivale a lista vazia até ele ser criado
+        long intervalo = intervaloRecarga.toMillis();
+        this.agendador = Executors.newSingleThreadScheduledExecutor();
+        agendador.scheduleWithFixedDelay(this::recarregarAgendado, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param idToken O jti do token; tokens sem jti não podem ser revogados.
+     */
+    public boolean revogado(String idToken) {
+        Lista atual = lista;
+        if (idToken == null || atual.ids().length == 0 || !atual.filtro().talvezContenha(idToken)) {
+            return false;
+        }
+        if (Arrays.binarySearch(atual.ids(), idToken) >= 0) {
+            revogados.increment();
+            return true;
+        }
+        falsosPositivos.increment();
+        return false;
+    }
+
+    /**
+     * Relê o arquivo de revogação se ele mudou desde a última carga bem-sucedida.
+     *
+     * @throws IOException Se o arquivo não puder ser lido; a lista atual continua em uso e a
+     * leitura é tentada de novo na próxima recarga.
+     */
+    public void recarregar() throws IOException {
+        if (arquivo == null) {
+            return;
+        }
+        BasicFileAttributes atributos = arquivo.mudou();
+        if (atributos == null) {
+            return;
+        }
+        List<String> linhas = Files.readAllLines(arquivo.caminho(), StandardCharsets.UTF_8);
+        String[] ids = linhas.stream()
+                .map(String::trim)
+                .filter(linha -> !linha.isEmpty() && !linha.startsWith("#"))
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        FiltroBloom filtro = new FiltroBloom(ids.length, taxaFalsosPositivos);
+        for (String id : ids) {
+            filtro.adicionar(id);
+        }
+        lista = new Lista(filtro, ids);
+        arquivo.marcarCarregado(atributos);
+        log.info("Lista de revogação recarregada: {} token(s), filtro de {} bytes", ids.length, filtro.tamanhoEmBytes());
+    }
+
+    private void recarregarAgendado() {
+        try {
+            recarregar();
+            arquivoAusente = false;
+        } catch (NoSuchFileException e) {
+            if (!arquivoAusente) {
+                log.warn("Arquivo de revogação {} não encontrado; a lista atual é mantida", arquivo.caminho());
+                arquivoAusente = true;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Uma falha não pode cancelar as execuções seguintes do agendador
+            falhasRecarga.increment();
+            log.error("Falha ao recarregar a lista de revogação de {}", arquivo.caminho(), e);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.desafio_vendas.security;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,6 +23,12 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenService jwtTokenService;
 
+    @Autowired
+    private CacheTokens cacheTokens;
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -28,22 +36,37 @@ public class SecurityFilter extends OncePerRequestFilter {
         String tokenJWT = recuperarToken(request);
 
         if (tokenJWT != null) {
-            String subject = jwtTokenService.validarToken(tokenJWT);
-            if (subject != null) {
-                
-                UserDetails userDetails = User.withUsername(subject)
-                                            .password("") 
-                                            .authorities(Collections.emptyList()) 
-                                            .build();
-
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+            Authentication authentication = cacheTokens.buscar(tokenJWT);
+            if (authentication == null) {
+                authentication = autenticar(tokenJWT);
+            }
+            if (authentication != null) {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
         filterChain.doFilter(request, response);
     }
 
+    private Authentication autenticar(String tokenJWT) {
+        JwtTokenService.TokenVerificado verificado = jwtTokenService.verificarToken(tokenJWT);
+        if (verificado == null) {
+            return null;
+        }
+        DecodedJWT decodificado = verificado.decodificado();
+        if (decodificado.getSubject() == null || revogacaoTokens.revogado(decodificado.getId())) {
+            return null;
+        }
+        UserDetails userDetails = User.withUsername(decodificado.getSubject())
+                                    .password("") 
+                                    .authorities(Collections.emptyList()) 
+                                    .build();
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        cacheTokens.guardar(tokenJWT, authentication, verificado);
+        return authentication;
+    }
+
     private String recuperarToken(HttpServletRequest request) {
         String authorizationHeader = request.getHeader("Authorization");
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
@@ -0,0 +1,249 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.ProdutoPeriodoDTO;
+import com.example.desafio_vendas.dto.ResumoDiarioDTO;
+import com.example.desafio_vendas.dto.TopProdutosPeriodoDTO;
+import com.example.desafio_vendas.dto.TotalPeriodoDTO;
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import com.example.desafio_vendas.model.ResumoVendaDiaria;
+import com.example.desafio_vendas.model.ResumoVendaDiariaId;
+import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.ResumoVendaDiariaRepository;
+import com.example.desafio_vendas.repository.VendaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class AgregacaoVendaService {
+
+    // Soma ou cria a linha do dia/produto num único comando; um UPDATE seguido de save(), quando duas
+    // transações criavam a mesma linha, falhava na chave primária ou sobrescrevia os totais da outra
+    static final String ACUMULAR = "MERGE INTO resumo_venda_diaria r USING (VALUES (CAST(? AS DATE), CAST(? AS BIGINT), "
+            + "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS NUMERIC(38, 2)))) d (data_venda, produto_id, vendas, itens, valor) "
+            + "ON r.data_venda = d.data_venda AND r.produto_id = d.produto_id "
+            + "WHEN MATCHED THEN UPDATE SET quantidade_vendas = r.quantidade_vendas + d.vendas, "
+            + "quantidade_itens = r.quantidade_itens + d.itens, valor_total = r.valor_total + d.valor "
+            + "WHEN NOT MATCHED AND d.vendas > 0 THEN INSERT (data_venda, produto_id, quantidade_vendas, quantidade_itens, valor_total) "
+            + "VALUES (d.data_venda, d.produto_id, d.vendas, d.itens, d.valor)";
+
+    // Recalcula todos os resumos em uma única instrução; %s é a tabela ativa mais as partições seladas
+    private static final String RECONSTRUIR = "INSERT INTO resumo_venda_diaria (data_venda, produto_id, quantidade_vendas, quantidade_itens, valor_total) "
+            + "SELECT data_venda, COALESCE(produto_id, 0), COUNT(*), SUM(quantidade_vendida), COALESCE(SUM(valor_total), 0) "
+            + "FROM (%s) v WHERE data_venda IS NOT NULL GROUP BY data_venda, COALESCE(produto_id, 0)";
+    private static final String COLUNAS_RESUMO = "data_venda, produto_id, quantidade_vendida, valor_total";
+
+    private final VendaRepository vendaRepository;
+    private final ResumoVendaDiariaRepository resumoRepository;
+    private final RelatorioVendaService relatorioVendaService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AgregacaoVendaService(VendaRepository vendaRepository, ResumoVendaDiariaRepository resumoRepository,
+                                 RelatorioVendaService relatorioVendaService, JdbcTemplate jdbcTemplate) {
+        this.vendaRepository = vendaRepository;
+        this.resumoRepository = resumoRepository;
+        this.relatorioVendaService = relatorioVendaService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Soma uma venda recém-gravada ao resumo diário do seu dia e produto.
+     */
+    @Transactional
+    public void registrarVenda(Venda venda) {
+        aplicarDelta(venda, 1);
+    }
+
+    /**
+     * Soma um lote de vendas ao resumo diário com uma única atualização por dia/produto,
+     * em vez de uma por venda.
+     */
+    @Transactional
+    public void registrarVendas(Collection<Venda> vendas) {
+        Map<ResumoVendaDiariaId, ResumoVendaDiaria> deltas = new HashMap<>();
+        for (Venda venda : vendas) {
+            if (venda.getDataVenda() == null) {
+                continue;
+            }
+            ResumoVendaDiariaId chave = new ResumoVendaDiariaId(venda.getDataVenda(), idProduto(venda));
+            ResumoVendaDiaria delta = deltas.computeIfAbsent(chave, k -> new ResumoVendaDiaria(k, 0L, 0L, BigDecimal.ZERO));
+            delta.setQuantidadeVendas(delta.getQuantidadeVendas() + 1);
+            delta.setQuantidadeItens(delta.getQuantidadeItens() + venda.getQuantidadeVendida());
+            delta.setValorTotal(delta.getValorTotal().add(valorOuZero(venda.getValorTotal())));
+        }
+        deltas.values().forEach(this::acumular);
+        relatorioVendaService.marcarAlteracao(deltas.keySet().stream().map(ResumoVendaDiariaId::getDataVenda).toList());
+    }
+
+    /**
+     * Subtrai do resumo diário uma venda que foi removida ou alterada.
+     */
+    @Transactional
+    public void removerVenda(Venda venda) {
+        aplicarDelta(venda, -1);
+    }
+
+    /**
+     * Apaga os resumos de um período cujas vendas foram removidas em bloco.
+     */
+    @Transactional
+    public void removerResumos(LocalDate dataInicio, LocalDate dataFim) {
+        resumoRepository.removerPorPeriodo(dataInicio, dataFim);
+        relatorioVendaService.marcarPeriodo(dataInicio, dataFim);
+    }
+
+    /**
+     * Apaga e recalcula todos os resumos diários a partir da tabela de vendas e das partições
+     * seladas, que ficam registradas em particao_venda mesmo com o particionamento desabilitado.
+     * Usado na carga inicial, quando as vendas foram gravadas sem passar pelo serviço.
+     */
+    @Transactional
+    public void reconstruirResumos() {
+        StringBuilder origem = new StringBuilder("SELECT " + COLUNAS_RESUMO + " FROM venda");
+        for (String tabela : jdbcTemplate.queryForList("SELECT tabela FROM particao_venda ORDER BY mes", String.class)) {
+            origem.append(" UNION ALL SELECT " + COLUNAS_RESUMO + " FROM ").append(tabela);
+        }
+        resumoRepository.deleteAllInBatch();
+        jdbcTemplate.update(RECONSTRUIR.formatted(origem));
+        relatorioVendaService.marcarTudo();
+    }
+
+    /**
+     * Calcula quantidade de vendas, itens e valor total por período.
+     *
+     * @param dataInicio Data de início (pode ser null).
+     * @param dataFim    Data de fim (pode ser null).
+     * @param periodo    Granularidade dos grupos.
+     * @return Um total por período, em ordem cronológica.
+     */
+    @Transactional(readOnly = true)
+    public List<TotalPeriodoDTO> totaisPorPeriodo(LocalDate dataInicio, LocalDate dataFim, PeriodoAgregacao periodo) {
+        Map<LocalDate, long[]> contagens = new TreeMap<>();
+        Map<LocalDate, BigDecimal> valores = new HashMap<>();
+
+        for (ResumoDiarioDTO resumo : buscarResumosDiarios(dataInicio, dataFim)) {
+            LocalDate chave = periodo.inicioDoPeriodo(resumo.getDataVenda());
+            long[] contagem = contagens.computeIfAbsent(chave, k -> new long[2]);
+            contagem[0] += valorOuZero(resumo.getQuantidadeVendas());
+            contagem[1] += valorOuZero(resumo.getQuantidadeItens());
+            valores.merge(chave, valorOuZero(resumo.getValorTotal()), BigDecimal::add);
+        }
+
+        List<TotalPeriodoDTO> totais = new ArrayList<>(contagens.size());
+        contagens.forEach((inicio, contagem) ->
+                totais.add(new TotalPeriodoDTO(inicio, contagem[0], contagem[1], valores.get(inicio))));
+        return totais;
+    }
+
+    /**
+     * Lista os produtos de maior faturamento em cada período.
+     *
+     * @param dataInicio Data de início (pode ser null).
+     * @param dataFim    Data de fim (pode ser null).
+     * @param periodo    Granularidade dos grupos.
+     * @param limite     Quantidade máxima de produtos por período.
+     * @return Os produtos mais vendidos por período, em ordem cronológica.
+     */
+    @Transactional(readOnly = true)
+    public List<TopProdutosPeriodoDTO> topProdutosPorPeriodo(LocalDate dataInicio, LocalDate dataFim,
+                                                             PeriodoAgregacao periodo, int limite) {
+        if (limite < 1) {
+            throw new RequisicaoInvalidaException("O limite deve ser maior que zero.");
+        }
+        Map<LocalDate, Map<String, ProdutoPeriodoDTO>> porPeriodo = new TreeMap<>();
+
+        for (ResumoDiarioDTO resumo : buscarResumosDiarios(dataInicio, dataFim)) {
+            LocalDate chave = periodo.inicioDoPeriodo(resumo.getDataVenda());
+            porPeriodo.computeIfAbsent(chave, k -> new HashMap<>())
+                    .merge(resumo.getNomeProduto(),
+                            new ProdutoPeriodoDTO(resumo.getNomeProduto(), valorOuZero(resumo.getQuantidadeItens()), valorOuZero(resumo.getValorTotal())),
+                            (a, b) -> new ProdutoPeriodoDTO(a.getNomeProduto(),
+                                    a.getQuantidadeItens() + b.getQuantidadeItens(),
+                                    a.getValorTotal().add(b.getValorTotal())));
+        }
+
+        List<TopProdutosPeriodoDTO> resultado = new ArrayList<>(porPeriodo.size());
+        porPeriodo.forEach((inicio, produtos) -> resultado.add(new TopProdutosPeriodoDTO(inicio,
+                produtos.values().stream()
+                        .sorted(Comparator.comparing(ProdutoPeriodoDTO::getValorTotal).reversed())
+                        .limit(limite)
+                        .toList())));
+        return resultado;
+    }
+
+    /**
+     * Dias já encerrados vêm da tabela de resumo; o dia corrente (e datas futuras)
+     * são agrupados diretamente na tabela de vendas.
+     */
+    private List<ResumoDiarioDTO> buscarResumosDiarios(LocalDate dataInicio, LocalDate dataFim) {
+        LocalDate inicio = dataInicio != null ? dataInicio : VendaService.DATA_MINIMA;
+        LocalDate fim = dataFim != null ? dataFim : VendaService.DATA_MAXIMA;
+        if (inicio.isAfter(fim)) {
+            throw new RequisicaoInvalidaException("A data de início deve ser anterior ou igual à data de fim.");
+        }
+        LocalDate hoje = LocalDate.now();
+
+        List<ResumoDiarioDTO> resumos = new ArrayList<>();
+        if (inicio.isBefore(hoje)) {
+            LocalDate ontem = hoje.minusDays(1);
+            resumos.addAll(resumoRepository.buscarPorPeriodo(inicio, fim.isBefore(ontem) ? fim : ontem));
+        }
+        if (!fim.isBefore(hoje)) {
+            resumos.addAll(vendaRepository.agruparPorDiaEProduto(inicio.isAfter(hoje) ? inicio : hoje, fim));
+        }
+        return resumos;
+    }
+
+    private void aplicarDelta(Venda venda, int sinal) {
+        if (venda.getDataVenda() == null) {
+            return;
+        }
+        BigDecimal valor = valorOuZero(venda.getValorTotal());
+        acumular(new ResumoVendaDiaria(
+                new ResumoVendaDiariaId(venda.getDataVenda(), idProduto(venda)),
+                (long) sinal,
+                (long) venda.getQuantidadeVendida() * sinal,
+                sinal < 0 ? valor.negate() : valor));
+        relatorioVendaService.marcarAlteracao(venda.getDataVenda());
+    }
+
+    private void acumular(ResumoVendaDiaria delta) {
+        ResumoVendaDiariaId chave = delta.getId();
+        Object[] parametros = {chave.getDataVenda(), chave.getProdutoId(),
+                delta.getQuantidadeVendas(), delta.getQuantidadeItens(), delta.getValorTotal()};
+        try {
+            jdbcTemplate.update(ACUMULAR, parametros);
+        } catch (DuplicateKeyException e) {
+            // Outra transação inseriu a mesma linha depois da leitura do MERGE; agora ela é visível e é somada
+            jdbcTemplate.update(ACUMULAR, parametros);
+        }
+        if (delta.getQuantidadeVendas() < 0) {
+            resumoRepository.removerSeVazio(chave.getDataVenda(), chave.getProdutoId());
+        }
+    }
+
+    private static Long idProduto(Venda venda) {
+        return venda.getProduto() != null ? venda.getProduto().getId() : 0L;
+    }
+
+    private static long valorOuZero(Long valor) {
+        return valor != null ? valor : 0L;
+    }
+
+    private static BigDecimal valorOuZero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.ResumoAnaliticoDTO;
+import com.example.desafio_vendas.dto.TotalPeriodoDTO;
+import com.example.desafio_vendas.dto.TotalProdutoDTO;
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import com.example.desafio_vendas.exception.ServicoIndisponivelException;
+import com.example.desafio_vendas.model.Venda;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cópia somente leitura das vendas em colunas primitivas, para agregações sobre todo o histórico.
+ * <p>
+ * Cada venda ocupa uma posição nos arrays: dia (epoch day), quantidade, valor em centavos e
+ * produto codificado por dicionário. Nenhum objeto é criado por linha, nem na carga nem nas
+ * consultas, que percorrem os arrays em paralelo com fork-join. A cópia é carregada quando a
+ * aplicação fica pronta e acompanha as gravações confirmadas pelos serviços de vendas.
+ */
+@Service
+public class AnaliseColunarService {
+
+    private static final int LINHAS_POR_TAREFA = 1 << 16;
+    private static final int DIA_NULO = Integer.MIN_VALUE;
+    private static final int MAXIMO_DIAS_AGRUPADOS = 36_600; // cerca de 100 anos
+    private static final int ESCALA_VALOR = 2;
+
+    // Agrupamentos suportados pelo laço de agregação
+    private static final int TOTAL = 0;
+    private static final int POR_PRODUTO = 1;
+    private static final int POR_DIA = 2;
+
+    private record Linha(long id, int dia, int quantidade, long centavos, String produto) {}
+
+    private record Colunas(int[] dias, int[] quantidades, long[] centavos, int[] produtos, int linhas) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ParticionamentoVendaService> particionamento;
+    private final boolean habilitado;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos pelo lock
+    private long[] ids = new long[0];
+    private int[] dias = new int[0];
+    private int[] quantidades = new int[0];
+    private long[] centavos = new long[0];
+    private int[] produtos = new int[0];
+    private int linhas;
+    private int menorDia = Integer.MAX_VALUE;
+    private int maiorDia = Integer.MIN_VALUE;
+    private final MapaIdPosicao posicoes = new MapaIdPosicao(1024);
+    private final Map<String, Integer> codigosProduto = new HashMap<>();
+    private final List<String> nomesProduto = new ArrayList<>();
+
+    private volatile boolean carregado;
+
+    public AnaliseColunarService(JdbcTemplate jdbcTemplate,
+                                 ObjectProvider<ParticionamentoVendaService> particionamento,
+                                 @Value("${vendas.analytics.habilitado:true}") boolean habilitado,
+                                 MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.particionamento = particionamento;
+        this.habilitado = habilitado;
+
+        Gauge.builder("vendas.analytics.linhas", this, servico -> servico.linhas).register(registry);
+        Gauge.builder("vendas.analytics.bytes", this, AnaliseColunarService::bytesOcupados).register(registry);
+    }
+
+    /**
+     * Carrega todas as vendas. Roda depois da carga inicial de dados; gravações confirmadas
+     * durante a carga esperam o lock e são aplicadas em seguida, sem duplicar linhas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            linhas = 0;
+            posicoes.limpar();
+            jdbcTemplate.query("SELECT v.id, p.nome AS nome_produto, v.quantidade_vendida, v.data_venda, v.valor_total "
+                    + "FROM venda v LEFT JOIN produto p ON p.id = v.produto_id", rs -> {
+                LocalDate data = rs.getObject("data_venda", LocalDate.class);
+                gravar(rs.getLong("id"), data != null ? (int) data.toEpochDay() : DIA_NULO,
+                        rs.getInt("quantidade_vendida"), centavos(rs.getBigDecimal("valor_total")),
+                        codigoProduto(rs.getString("nome_produto")));
+            });
+            ParticionamentoVendaService particoes = particionamento.getIfAvailable();
+            if (particoes != null) {
+                particoes.percorrerPorPeriodo(VendaService.DATA_MINIMA, VendaService.DATA_MAXIMA,
+                        venda -> gravar(linhaDe(venda)));
+            }
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui ou atualiza vendas. Dentro de uma transação, a alteração só é aplicada após o commit.
+     */
+    public void registrar(Collection<Venda> vendas) {
+        if (!habilitado || vendas.isEmpty()) {
+            return;
+        }
+        // Os valores são copiados agora; a entidade pode ser desanexada ou reutilizada depois
+        List<Linha> novas = vendas.stream().map(AnaliseColunarService::linhaDe).toList();
+        aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                novas.forEach(this::gravar);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void registrar(Venda venda) {
+        registrar(List.of(venda));
+    }
+
+    public void remover(Long id) {
+        if (!habilitado) {
+            return;
+        }
+        aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removerPosicao(posicoes.buscar(id));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove todas as vendas do período, usado quando um mês inteiro é descartado de uma vez.
+     */
+    public void removerPeriodo(LocalDate inicio, LocalDate fim) {
+        if (!habilitado) {
+            return;
+        }
+        int diaInicio = (int) inicio.toEpochDay();
+        int diaFim = (int) fim.toEpochDay();
+        aposCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (int i = linhas - 1; i >= 0; i--) {
+                    if (dias[i] >= diaInicio && dias[i] <= diaFim) {
+                        removerPosicao(i);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Timed(value = "vendas.analytics", extraTags = {"operacao", "resumo"}, percentiles = {0.5, 0.95, 0.99})
+    public ResumoAnaliticoDTO resumo(LocalDate dataInicio, LocalDate dataFim) {
+        lock.readLock().lock();
+        try {
+            Colunas colunas = colunas();
+            long[] total = agregar(colunas, diaInicio(dataInicio), diaFim(dataFim), TOTAL, 0, 1);
+            return new ResumoAnaliticoDTO(total[0], total[1], BigDecimal.valueOf(total[2], ESCALA_VALOR), colunas.linhas());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Timed(value = "vendas.analytics", extraTags = {"operacao", "por-produto"}, percentiles = {0.5, 0.95, 0.99})
+    public List<TotalProdutoDTO> totaisPorProduto(LocalDate dataInicio, LocalDate dataFim, Integer limite) {
+        if (limite != null && limite < 1) {
+            throw new RequisicaoInvalidaException("O limite deve ser maior que zero.");
+        }
+        List<TotalProdutoDTO> totais = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long[] grupos = agregar(colunas(), diaInicio(dataInicio), diaFim(dataFim), POR_PRODUTO, 0, nomesProduto.size());
+            for (int produto = 0; produto < nomesProduto.size(); produto++) {
+                int k = produto * 3;
+                if (grupos[k] > 0) {
+                    totais.add(new TotalProdutoDTO(nomesProduto.get(produto), grupos[k], grupos[k + 1],
+                            BigDecimal.valueOf(grupos[k + 2], ESCALA_VALOR)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        totais.sort(Comparator.comparing(TotalProdutoDTO::getValorTotal).reversed());
+        return limite != null && totais.size() > limite ? totais.subList(0, limite) : totais;
+    }
+
+    @Timed(value = "vendas.analytics", extraTags = {"operacao", "por-periodo"}, percentiles = {0.5, 0.95, 0.99})
+    public List<TotalPeriodoDTO> totaisPorPeriodo(LocalDate dataInicio, LocalDate dataFim, PeriodoAgregacao periodo) {
+        long[] grupos;
+        int primeiroDia;
+        lock.readLock().lock();
+        try {
+            // Os grupos diários cobrem só os dias que existem nos dados, dentro do filtro
+            primeiroDia = Math.max(diaInicio(dataInicio), menorDia);
+            int ultimoDia = Math.min(diaFim(dataFim), maiorDia);
+            if (primeiroDia > ultimoDia) {
+                return List.of();
+            }
+            if ((long) ultimoDia - primeiroDia + 1 > MAXIMO_DIAS_AGRUPADOS) {
+                throw new RequisicaoInvalidaException("O intervalo com vendas passa de " + MAXIMO_DIAS_AGRUPADOS
+                        + " dias; informe dataInicio e dataFim.");
+            }
+            grupos = agregar(colunas(), primeiroDia, ultimoDia, POR_DIA, primeiroDia, ultimoDia - primeiroDia + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<LocalDate, long[]> porPeriodo = new TreeMap<>();
+        for (int d = 0; d < grupos.length / 3; d++) {
+            int k = d * 3;
+            if (grupos[k] == 0) {
+                continue;
+            }
+            long[] acumulado = porPeriodo.computeIfAbsent(
+                    periodo.inicioDoPeriodo(LocalDate.ofEpochDay(primeiroDia + d)), chave -> new long[3]);
+            acumulado[0] += grupos[k];
+            acumulado[1] += grupos[k + 1];
+            acumulado[2] += grupos[k + 2];
+        }
+        List<TotalPeriodoDTO> totais = new ArrayList<>(porPeriodo.size());
+        porPeriodo.forEach((inicio, total) ->
+                totais.add(new TotalPeriodoDTO(inicio, total[0], total[1], BigDecimal.valueOf(total[2], ESCALA_VALOR))));
+        return totais;
+    }
+
+    private Colunas colunas() {
+        if (!habilitado) {
+            throw new ServicoIndisponivelException("O armazenamento analítico está desabilitado.", 3600);
+        }
+        if (!carregado) {
+            throw new ServicoIndisponivelException("O armazenamento analítico ainda está sendo carregado.", 5);
+        }
+        return new Colunas(dias, quantidades, centavos, produtos, linhas);
+    }
+
+    /**
+     * Soma quantidade de vendas, itens e centavos por grupo. O resultado tem três posições
+     * por grupo: [vendas, itens, centavos].
+     */
+    private static long[] agregar(Colunas colunas, int diaInicio, int diaFim, int agrupamento, int base, int grupos) {
+        return ForkJoinPool.commonPool().invoke(
+                new TarefaAgregacao(colunas, 0, colunas.linhas(), diaInicio, diaFim, agrupamento, base, grupos));
+    }
+
+    private static final class TarefaAgregacao extends RecursiveTask<long[]> {
+
+        private final Colunas colunas;
+        private final int de;
+        private final int ate;
+        private final int diaInicio;
+        private final int diaFim;
+        private final int agrupamento;
+        private final int base;
+        private final int grupos;
+
+        TarefaAgregacao(Colunas colunas, int de, int ate, int diaInicio, int diaFim, int agrupamento, int base, int grupos) {
+            this.colunas = colunas;
+            this.de = de;
+            this.ate = ate;
+            this.diaInicio = diaInicio;
+            this.diaFim = diaFim;
+            this.agrupamento = agrupamento;
+            this.base = base;
+            this.grupos = grupos;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (ate - de <= LINHAS_POR_TAREFA) {
+                return somar();
+            }
+            int meio = (de + ate) >>> 1;
+            TarefaAgregacao esquerda = new TarefaAgregacao(colunas, de, meio, diaInicio, diaFim, agrupamento, base, grupos);
+            TarefaAgregacao direita = new TarefaAgregacao(colunas, meio, ate, diaInicio, diaFim, agrupamento, base, grupos);
+            esquerda.fork();
+            long[] resultado = direita.compute();
+            long[] parcial = esquerda.join();
+            for (int i = 0; i < resultado.length; i++) {
+                resultado[i] += parcial[i];
+            }
+            return resultado;
+        }
+
+        private long[] somar() {
+            int[] dias = colunas.dias();
+            int[] quantidades = colunas.quantidades();
+            long[] centavos = colunas.centavos();
+            int[] produtos = colunas.produtos();
+            long[] acumulado = new long[grupos * 3];
+            for (int i = de; i < ate; i++) {
+                int dia = dias[i];
+                if (dia < diaInicio || dia > diaFim) {
+                    continue;
+                }
+                int k = switch (agrupamento) {
+                    case POR_PRODUTO -> produtos[i] * 3;
+                    case POR_DIA -> (dia - base) * 3;
+                    default -> 0;
+                };
+                acumulado[k]++;
+                acumulado[k + 1] += quantidades[i];
+                acumulado[k + 2] += centavos[i];
+            }
+            return acumulado;
+        }
+    }
+
+    private void gravar(Linha linha) {
+        gravar(linha.id(), linha.dia(), linha.quantidade(), linha.centavos(), codigoProduto(linha.produto()));
+    }
+
+    private void gravar(long id, int dia, int quantidade, long valorCentavos, int produto) {
+        int posicao = posicoes.buscar(id);
+        if (posicao < 0) {
+            garantirCapacidade(linhas + 1);
+            posicao = linhas++;
+            ids[posicao] = id;
+            posicoes.gravar(id, posicao);
+        }
+        dias[posicao] = dia;
+        quantidades[posicao] = quantidade;
+        centavos[posicao] = valorCentavos;
+        produtos[posicao] = produto;
+        if (dia != DIA_NULO) {
+            menorDia = Math.min(menorDia, dia);
+            maiorDia = Math.max(maiorDia, dia);
+        }
+    }
+
+    // Move a última linha para a posição removida, mantendo os arrays contíguos
+    private void removerPosicao(int posicao) {
+        if (posicao < 0) {
+            return;
+        }
+        posicoes.remover(ids[posicao]);
+        int ultima = --linhas;
+        if (posicao != ultima) {
+            ids[posicao] = ids[ultima];
+            dias[posicao] = dias[ultima];
+            quantidades[posicao] = quantidades[ultima];
+            centavos[posicao] = centavos[ultima];
+            produtos[posicao] = produtos[ultima];
+            posicoes.gravar(ids[posicao], posicao);
+        }
+    }
+
+    private void garantirCapacidade(int necessaria) {
+        if (necessaria <= ids.length) {
+            return;
+        }
+        int capacidade = Math.max(necessaria, Math.max(1024, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, capacidade);
+        dias = Arrays.copyOf(dias, capacidade);
+        quantidades = Arrays.copyOf(quantidades, capacidade);
+        centavos = Arrays.copyOf(centavos, capacidade);
+        produtos = Arrays.copyOf(produtos, capacidade);
+    }
+
+    private int codigoProduto(String nomeProduto) {
+        String nome = nomeProduto != null ? nomeProduto : "";
+        Integer codigo = codigosProduto.get(nome);
+        if (codigo == null) {
+            codigo = nomesProduto.size();
+            nomesProduto.add(nome);
+            codigosProduto.put(nome, codigo);
+        }
+        return codigo;
+    }
+
+    private long bytesOcupados() {
+        lock.readLock().lock();
+        try {
+            // id, dia, quantidade, centavos e produto por posição alocada, mais o índice de IDs
+            return (long) ids.length * (Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES)
+                    + posicoes.bytesOcupados();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Linha linhaDe(Venda venda) {
+        return new Linha(venda.getId(),
+                venda.getDataVenda() != null ? (int) venda.getDataVenda().toEpochDay() : DIA_NULO,
+                venda.getQuantidadeVendida(), centavos(venda.getValorTotal()), venda.getNomeProduto());
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor != null ? valor.setScale(ESCALA_VALOR, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    private static int diaInicio(LocalDate dataInicio) {
+        return dataInicio != null ? (int) dataInicio.toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    private static int diaFim(LocalDate dataFim) {
+        return dataFim != null ? (int) dataFim.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória das consultas de vendas por ID e por intervalo de datas. Guarda as projeções
+ * {@link VendaDTO}, que não prendem sessão nem entidades do Hibernate.
+ * Escritas invalidam apenas o ID alterado e os intervalos que contêm a data da venda.
+ */
+@Component
+public class CacheVendas {
+
+    record Intervalo(LocalDate inicio, LocalDate fim) {
+        boolean contem(LocalDate data) {
+            return !data.isBefore(inicio) && !data.isAfter(fim);
+        }
+    }
+
+    private final Cache<Long, VendaDTO> porId;
+    private final Cache<Intervalo, List<VendaDTO>> porIntervalo;
+
+    // Incrementada a cada invalidação; uma consulta iniciada antes dela não pode gravar no cache
+    private final AtomicLong geracao = new AtomicLong();
+
+    public CacheVendas(@Value("${vendas.cache.por-id.tamanho-maximo:10000}") long tamanhoMaximoPorId,
+                       @Value("${vendas.cache.intervalo.linhas-maximas:200000}") long linhasMaximasPorIntervalo,
+                       @Value("${vendas.cache.ttl:60s}") Duration ttl,
+                       MeterRegistry registry) {
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoPorId)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.porIntervalo = Caffeine.newBuilder()
+                .maximumWeight(linhasMaximasPorIntervalo)
+                .weigher((Intervalo intervalo, List<VendaDTO> vendas) -> vendas.size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, porId, "vendas.por-id");
+        CaffeineCacheMetrics.monitor(registry, porIntervalo, "vendas.por-intervalo");
+        Gauge.builder("vendas.cache.taxa.acerto", porId, cache -> cache.stats().hitRate())
+                .tag("cache", "vendas.por-id")
+                .register(registry);
+        Gauge.builder("vendas.cache.taxa.acerto", porIntervalo, cache -> cache.stats().hitRate())
+                .tag("cache", "vendas.por-intervalo")
+                .register(registry);
+    }
+
+    public Optional<VendaDTO> buscarPorId(Long id, Supplier<Optional<VendaDTO>> consulta) {
+        VendaDTO emCache = porId.getIfPresent(id);
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+        long geracaoInicial = geracao.get();
+        Optional<VendaDTO> venda = consulta.get();
+        if (venda.isPresent() && geracao.get() == geracaoInicial) {
+            porId.put(id, venda.get());
+        }
+        return venda;
+    }
+
+    public List<VendaDTO> buscarPorIntervalo(LocalDate inicio, LocalDate fim, Supplier<List<VendaDTO>> consulta) {
+        Intervalo chave = new Intervalo(inicio, fim);
+        List<VendaDTO> emCache = porIntervalo.getIfPresent(chave);
+        if (emCache != null) {
+            return emCache;
+        }
+        long geracaoInicial = geracao.get();
+        List<VendaDTO> vendas = List.copyOf(consulta.get());
+        if (geracao.get() == geracaoInicial) {
+            porIntervalo.put(chave, vendas);
+        }
+        return vendas;
+    }
+
+    /**
+     * Invalida o ID e os intervalos que contêm alguma das datas. Dentro de uma transação,
+     * a invalidação é repetida após o commit para descartar leituras feitas antes dele.
+     */
+    public void invalidar(Long id, Collection<LocalDate> datas) {
+        invalidarAgora(id, datas);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidarAgora(id, datas);
+                }
+            });
+        }
+    }
+
+    public void invalidar(Long id, LocalDate data) {
+        invalidar(id, data != null ? Set.of(data) : Set.of());
+    }
+
+    /**
+     * Descarta todo o cache; usado quando muitas vendas mudam de lugar de uma só vez.
+     * Como em {@link #invalidar(Long, Collection)}, é repetido após o fim da transação atual.
+     */
+    public void invalidarTudo() {
+        invalidarTudoAgora();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidarTudoAgora();
+                }
+            });
+        }
+    }
+
+    private void invalidarTudoAgora() {
+        geracao.incrementAndGet();
+        porId.invalidateAll();
+        porIntervalo.invalidateAll();
+    }
+
+    private void invalidarAgora(Long id, Collection<LocalDate> datas) {
+        geracao.incrementAndGet();
+        if (id != null) {
+            porId.invalidate(id);
+        }
+        if (!datas.isEmpty()) {
+            porIntervalo.asMap().keySet().removeIf(intervalo -> datas.stream().anyMatch(intervalo::contem));
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import com.example.desafio_vendas.model.Produto;
+import com.example.desafio_vendas.repository.ProdutoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cache em memória da dimensão de produtos: nome → produto, ID → produto, um índice
+ * ordenado por nome normalizado para o autocompletar e um índice de trigramas para a busca
+ * por trecho do nome. Produtos nunca mudam de nome, então as entradas não precisam ser
+ * invalidadas.
+ */
+@Service
+public class CatalogoProdutoService {
+
+    private static final int LIMITE_AUTOCOMPLETAR_MAXIMO = 100;
+
+    static final String CRIAR_SE_AUSENTE = "MERGE INTO produto p USING (VALUES (CAST(? AS VARCHAR(255)))) d (nome) "
+            + "ON p.nome = d.nome "
+            + "WHEN NOT MATCHED THEN INSERT (id, nome) VALUES (NEXT VALUE FOR produto_seq, d.nome)";
+    static final String BUSCAR_ID_POR_NOME = "SELECT id FROM produto WHERE nome = ?";
+
+    private final ProdutoRepository produtoRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Produto> porNome = new ConcurrentHashMap<>();
+    private final Map<Long, Produto> porId = new ConcurrentHashMap<>();
+    // Chave: nome normalizado + '\0' + nome, para que nomes que só diferem na caixa não colidam
+    private final NavigableMap<String, Produto> porPrefixo = new ConcurrentSkipListMap<>();
+    private final IndiceTrigramas porTrecho = new IndiceTrigramas(); // protegido pelo lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public CatalogoProdutoService(ProdutoRepository produtoRepository, JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.produtoRepository = produtoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("vendas.produtos.cache", porId, Map::size).register(registry);
+        Gauge.builder("vendas.produtos.indice.bytes", this, CatalogoProdutoService::bytesIndice)
+                .description("Memória estimada do índice de trigramas dos nomes de produtos")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("vendas.produtos.indice.trigramas", this, CatalogoProdutoService::trigramasIndice)
+                .description("Trigramas distintos no índice dos nomes de produtos")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void recarregar() {
+        porNome.clear();
+        porId.clear();
+        porPrefixo.clear();
+        lock.writeLock().lock();
+        try {
+            porTrecho.limpar();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        produtoRepository.findAll().forEach(this::guardar);
+    }
+
+    /**
+     * Retorna o produto com o nome informado, criando-o se ainda não existir.
+     * A criação usa a conexão da transação em curso, se houver, em vez de abrir uma segunda
+     * conexão do pool enquanto o chamador segura a primeira. O produto só entra no cache depois
+     * do commit: se a venda que o criou for desfeita, ele some junto e é criado de novo na próxima.
+     *
+     * @return O produto, ou null se o nome for nulo ou vazio.
+     */
+    public Produto obterOuCriar(String nomeProduto) {
+        if (nomeProduto == null || nomeProduto.isBlank()) {
+            return null;
+        }
+        String nome = nomeProduto.trim();
+        Produto produto = porNome.get(nome);
+        if (produto != null) {
+            return produto;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            produto = criarSeAusente(nome);
+            guardar(produto);
+            return produto;
+        }
+
+        Map<String, Produto> pendentes = pendentesDaTransacao();
+        produto = pendentes.get(nome);
+        if (produto == null) {
+            produto = criarSeAusente(nome);
+            pendentes.put(nome, produto);
+        }
+        return produto;
+    }
+
+    /**
+     * Busca o produto pelo ID, consultando o banco só na primeira vez.
+     */
+    public Produto buscarPorId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Produto produto = porId.get(id);
+        if (produto == null) {
+            produto = produtoRepository.findById(id).orElse(null);
+            if (produto != null) {
+                guardar(produto);
+            }
+        }
+        return produto;
+    }
+
+    /**
+     * Produtos cujo nome começa com o prefixo, sem diferenciar maiúsculas nem acentos.
+     */
+    public List<Produto> autocompletar(String prefixo, int limite) {
+        if (limite < 1 || limite > LIMITE_AUTOCOMPLETAR_MAXIMO) {
+            throw new RequisicaoInvalidaException("O limite deve estar entre 1 e " + LIMITE_AUTOCOMPLETAR_MAXIMO + ".");
+        }
+        String inicio = normalizar(prefixo != null ? prefixo : "");
+        List<Produto> produtos = new ArrayList<>(limite);
+        for (Map.Entry<String, Produto> entrada : porPrefixo.tailMap(inicio, true).entrySet()) {
+            if (!entrada.getKey().startsWith(inicio) || produtos.size() == limite) {
+                break;
+            }
+            produtos.add(entrada.getValue());
+        }
+        return produtos;
+    }
+
+    /**
+     * IDs dos produtos cujo nome contém o termo em qualquer posição, sem diferenciar maiúsculas
+     * nem acentos. Responde pelo índice de trigramas, sem consultar o banco.
+     */
+    public List<Long> buscarIdsPorTrecho(String termo) {
+        String trecho = normalizar(termo != null ? termo : "");
+        if (trecho.isEmpty()) {
+            throw new RequisicaoInvalidaException("O termo de busca do produto não pode ser vazio.");
+        }
+        lock.readLock().lock();
+        try {
+            return porTrecho.buscar(trecho);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Produto criarSeAusente(String nome) {
+        try {
+            jdbcTemplate.update(CRIAR_SE_AUSENTE, nome);
+        } catch (DuplicateKeyException e) {
+            // Outra transação criou o mesmo produto entre a verificação e a inserção do MERGE;
+            // na segunda tentativa a linha já confirmada é encontrada
+            jdbcTemplate.update(CRIAR_SE_AUSENTE, nome);
+        }
+        return new Produto(jdbcTemplate.queryForObject(BUSCAR_ID_POR_NOME, Long.class, nome), nome);
+    }
+
+    /**
+     * Produtos resolvidos na transação em curso, para que nomes repetidos num mesmo lote não
+     * voltem ao banco. Vão para o cache quando a transação confirma.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Produto> pendentesDaTransacao() {
+        Map<String, Produto> pendentes = (Map<String, Produto>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Map<String, Produto> novos = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, novos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    novos.values().forEach(CatalogoProdutoService.this::guardar);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogoProdutoService.this);
+                }
+            });
+            pendentes = novos;
+        }
+        return pendentes;
+    }
+
+    private void guardar(Produto produto) {
+        porNome.put(produto.getNome(), produto);
+        porPrefixo.put(normalizar(produto.getNome()) + '\0' + produto.getNome(), produto);
+        // Só quem grava o ID primeiro indexa o nome; corridas entre obterOuCriar e buscarPorId não o duplicam
+        if (porId.put(produto.getId(), produto) == null) {
+            lock.writeLock().lock();
+            try {
+                porTrecho.adicionar(produto.getId(), normalizar(produto.getNome()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private long bytesIndice() {
+        lock.readLock().lock();
+        try {
+            return porTrecho.bytesOcupados();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int trigramasIndice() {
+        lock.readLock().lock();
+        try {
+            return porTrecho.trigramas();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+}
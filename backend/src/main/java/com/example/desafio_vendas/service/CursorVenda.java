@@ -0,0 +1,43 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Chave de continuação da paginação por (dataVenda, id).
+ * O cliente recebe apenas o texto codificado e não deve interpretá-lo.
+ */
+public record CursorVenda(LocalDate dataVenda, Long id) {
+
+    public String codificar() {
+        String bruto = dataVenda.toEpochDay() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Aceita só cursores como os emitidos por {@link #codificar()}: outra grafia dos mesmos números
+     * (sinal, zeros à esquerda, padding), ID não positivo ou data fora do intervalo das vendas é recusada.
+     *
+     * @throws RequisicaoInvalidaException Se o cursor for malformado ou forjado.
+     */
+    public static CursorVenda decodificar(String cursor) {
+        CursorVenda decodificado;
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = bruto.indexOf(':');
+            LocalDate data = LocalDate.ofEpochDay(Long.parseLong(bruto.substring(0, separador)));
+            Long id = Long.parseLong(bruto.substring(separador + 1));
+            decodificado = new CursorVenda(data, id);
+        } catch (RuntimeException e) {
+            throw new RequisicaoInvalidaException("Cursor de paginação inválido.");
+        }
+        if (decodificado.id() < 1 || decodificado.dataVenda().isBefore(VendaService.DATA_MINIMA)
+                || decodificado.dataVenda().isAfter(VendaService.DATA_MAXIMA) || !cursor.equals(decodificado.codificar())) {
+            throw new RequisicaoInvalidaException("Cursor de paginação inválido.");
+        }
+        return decodificado;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.model.Venda;
+import io.micrometer.core.annotation.Timed;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta as vendas de um intervalo direto do cursor do banco para a saída, em CSV ou Apache Arrow.
+ * A memória usada é constante: nenhuma lista de vendas é montada.
+ */
+@Service
+public class ExportacaoVendaService {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // Linhas por record batch do Arrow; cada coluna do lote fica contígua em memória
+    private static final int LINHAS_POR_LOTE = 8192;
+
+    // A coluna monetária segue a escala padrão do Hibernate para BigDecimal
+    private static final int ESCALA_VALOR = 2;
+
+    private static final Schema ESQUEMA_ARROW = new Schema(List.of(
+            Field.nullable("id", new ArrowType.Int(64, true)),
+            Field.nullable("nomeProduto", ArrowType.Utf8.INSTANCE),
+            Field.notNullable("quantidadeVendida", new ArrowType.Int(32, true)),
+            Field.nullable("dataVenda", new ArrowType.Date(DateUnit.DAY)),
+            Field.nullable("valorTotal", new ArrowType.Decimal(38, ESCALA_VALOR, 128))));
+
+    private final VendaService vendaService;
+
+    @Autowired
+    public ExportacaoVendaService(VendaService vendaService) {
+        this.vendaService = vendaService;
+    }
+
+    /**
+     * Escreve as vendas do intervalo na saída, na ordem (dataVenda, id).
+     *
+     * @param dataInicio Data de início para o filtro (pode ser null).
+     * @param dataFim    Data de fim para o filtro (pode ser null).
+     * @param formato    Formato do arquivo gerado.
+     * @param compactar  Se true, a saída é um arquivo gzip.
+     * @param saida      Destino dos bytes; não é fechado por este método.
+     */
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "exportar"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public void exportar(LocalDate dataInicio, LocalDate dataFim, FormatoExportacao formato, boolean compactar,
+                         OutputStream saida) throws IOException {
+        GZIPOutputStream gzip = compactar ? new GZIPOutputStream(saida, TAMANHO_BUFFER) : null;
+        OutputStream destino = gzip != null ? gzip : saida;
+        try {
+            switch (formato) {
+                case CSV -> exportarCsv(dataInicio, dataFim, destino);
+                case ARROW -> exportarArrow(dataInicio, dataFim, destino);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (gzip != null) {
+            gzip.finish();
+        }
+    }
+
+    private void exportarCsv(LocalDate dataInicio, LocalDate dataFim, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        escritor.write("id,nomeProduto,quantidadeVendida,dataVenda,valorTotal\n");
+        vendaService.percorrerVendas(dataInicio, dataFim, venda -> {
+            try {
+                escreverLinhaCsv(escritor, venda);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        escritor.flush();
+    }
+
+    private static void escreverLinhaCsv(Writer escritor, Venda venda) throws IOException {
+        escritor.write(venda.getId() != null ? venda.getId().toString() : "");
+        escritor.write(',');
+        escreverCampoCsv(escritor, venda.getNomeProduto());
+        escritor.write(',');
+        escritor.write(Integer.toString(venda.getQuantidadeVendida()));
+        escritor.write(',');
+        escritor.write(venda.getDataVenda() != null ? venda.getDataVenda().toString() : "");
+        escritor.write(',');
+        escritor.write(venda.getValorTotal() != null ? venda.getValorTotal().toPlainString() : "");
+        escritor.write('\n');
+    }
+
+    /**
+     * Escreve o texto com as regras do RFC 4180. Um valor que começa com =, +, -, @, tab ou CR seria
+     * interpretado como fórmula por Excel e LibreOffice (CSV injection): ele recebe um apóstrofo na
+     * frente e vai entre aspas, para que a planilha o mostre como texto.
+     */
+    private static void escreverCampoCsv(Writer escritor, String valor) throws IOException {
+        if (valor == null || valor.isEmpty()) {
+            return;
+        }
+        char primeiro = valor.charAt(0);
+        boolean formula = primeiro == '=' || primeiro == '+' || primeiro == '-' || primeiro == '@'
+                || primeiro == '\t' || primeiro == '\r';
+        boolean precisaAspas = formula;
+        for (int i = 0; i < valor.length() && !precisaAspas; i++) {
+            char c = valor.charAt(i);
+            precisaAspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            escritor.write(valor);
+            return;
+        }
+        escritor.write('"');
+        if (formula) {
+            escritor.write('\'');
+        }
+        escritor.write(valor.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+
+    private void exportarArrow(LocalDate dataInicio, LocalDate dataFim, OutputStream saida) throws IOException {
+        try (BufferAllocator alocador = new RootAllocator();
+             VectorSchemaRoot raiz = VectorSchemaRoot.create(ESQUEMA_ARROW, alocador);
+             ArrowStreamWriter escritor = new ArrowStreamWriter(raiz, null, Channels.newChannel(StreamUtils.nonClosing(saida)))) {
+
+            BigIntVector ids = (BigIntVector) raiz.getVector("id");
+            VarCharVector nomes = (VarCharVector) raiz.getVector("nomeProduto");
+            IntVector quantidades = (IntVector) raiz.getVector("quantidadeVendida");
+            DateDayVector datas = (DateDayVector) raiz.getVector("dataVenda");
+            DecimalVector valores = (DecimalVector) raiz.getVector("valorTotal");
+
+            raiz.allocateNew();
+            escritor.start();
+            int[] linhas = {0};
+            vendaService.percorrerVendas(dataInicio, dataFim, venda -> {
+                int i = linhas[0];
+                if (venda.getId() != null) {
+                    ids.setSafe(i, venda.getId());
+                } else {
+                    ids.setNull(i);
+                }
+                if (venda.getNomeProduto() != null) {
+                    nomes.setSafe(i, venda.getNomeProduto().getBytes(StandardCharsets.UTF_8));
+                } else {
+                    nomes.setNull(i);
+                }
+                quantidades.setSafe(i, venda.getQuantidadeVendida());
+                if (venda.getDataVenda() != null) {
+                    datas.setSafe(i, (int) venda.getDataVenda().toEpochDay());
+                } else {
+                    datas.setNull(i);
+                }
+                BigDecimal valor = venda.getValorTotal();
+                if (valor != null) {
+                    valores.setSafe(i, valor.setScale(ESCALA_VALOR, RoundingMode.HALF_UP));
+                } else {
+                    valores.setNull(i);
+                }
+                if (++linhas[0] == LINHAS_POR_LOTE) {
+                    escreverLote(raiz, escritor, linhas[0]);
+                    linhas[0] = 0;
+                }
+            });
+            if (linhas[0] > 0) {
+                escreverLote(raiz, escritor, linhas[0]);
+            }
+            escritor.end();
+        }
+    }
+
+    private static void escreverLote(VectorSchemaRoot raiz, ArrowStreamWriter escritor, int linhas) {
+        raiz.setRowCount(linhas);
+        try {
+            escritor.writeBatch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Reaproveita os buffers já alocados no próximo lote
+        raiz.getFieldVectors().forEach(ValueVector::reset);
+    }
+}
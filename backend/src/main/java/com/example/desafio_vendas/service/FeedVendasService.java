@@ -0,0 +1,333 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.EventoVendaDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.json.CamposVenda;
+import com.example.desafio_vendas.json.RespostaVendas;
+import com.example.desafio_vendas.model.Venda;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Distribui as vendas criadas, alteradas e removidas para os assinantes de GET /vendas/stream (SSE).
+ * <p>
+ * Cada assinante tem um buffer limitado. Os eventos são agrupados e enviados a cada
+ * intervalo de despacho, em um único evento SSE por assinante. Um assinante cujo buffer
+ * enche é desconectado e pode retomar com Last-Event-ID, a partir do histórico recente.
+ * <p>
+ * O envio bloqueia na escrita do socket. Cada assinante tem no máximo um envio em curso, e o
+ * pool de envio cresce além de {@code vendas.feed.threads-envio} quando todas as threads estão
+ * presas, para que clientes parados não atrasem os demais. Um envio que passa de
+ * {@code vendas.feed.prazo-envio} desconecta o assinante e tem a thread interrompida.
+ */
+@Service
+public class FeedVendasService {
+
+    private final class Assinante {
+        private final SseEmitter emitter;
+        private final LocalDate inicio;
+        private final LocalDate fim;
+        private final BlockingQueue<EventoVendaDTO> pendentes;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile long inicioEnvio; // System.nanoTime() do envio em curso; 0 fora de um envio
+        private volatile Future<?> envio;
+        private volatile boolean expirado;
+
+        private Assinante(SseEmitter emitter, LocalDate inicio, LocalDate fim) {
+            this.emitter = emitter;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.pendentes = new ArrayBlockingQueue<>(tamanhoBuffer);
+        }
+
+        // Uma alteração que move a venda de data interessa a quem vê a data antiga, para tirá-la da tela
+        private boolean aceita(EventoVendaDTO evento) {
+            LocalDate data = evento.getDataVenda();
+            LocalDate ultima = evento.getDataFim() != null ? evento.getDataFim() : data;
+            return data == null || (!ultima.isBefore(inicio) && !data.isAfter(fim)) || contem(evento.getDataAnterior());
+        }
+
+        private boolean contem(LocalDate data) {
+            return data != null && !data.isBefore(inicio) && !data.isAfter(fim);
+        }
+    }
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final Deque<EventoVendaDTO> historico = new ArrayDeque<>();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private final int tamanhoBuffer;
+    private final int tamanhoHistorico;
+    private final long timeoutMillis;
+    private final long prazoEnvioNanos;
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService envios;
+    private final Counter desconexoesPorLentidao;
+    private final Counter desconexoesPorPrazo;
+
+    public FeedVendasService(@Value("${vendas.feed.buffer-por-assinante:1000}") int tamanhoBuffer,
+                             @Value("${vendas.feed.historico:10000}") int tamanhoHistorico,
+                             @Value("${vendas.feed.intervalo-despacho:200ms}") Duration intervaloDespacho,
+                             @Value("${vendas.feed.timeout:30m}") Duration timeout,
+                             @Value("${vendas.feed.threads-envio:4}") int threadsEnvio,
+                             @Value("${vendas.feed.prazo-envio:10s}") Duration prazoEnvio,
+                             MeterRegistry registry) {
+        this.tamanhoBuffer = tamanhoBuffer;
+        this.tamanhoHistorico = tamanhoHistorico;
+        this.timeoutMillis = timeout.toMillis();
+        this.prazoEnvioNanos = prazoEnvio.toNanos();
+        // Sem fila: com todas as threads ocupadas, o envio ganha uma thread nova, descartada após 1 minuto ociosa.
+        // O total fica limitado ao número de assinantes, que têm no máximo um envio em curso cada
+        this.envios = new ThreadPoolExecutor(threadsEnvio, Integer.MAX_VALUE, 1, TimeUnit.MINUTES, new SynchronousQueue<>());
+        this.desconexoesPorLentidao = Counter.builder("vendas.feed.desconexoes")
+                .tag("motivo", "buffer-cheio")
+                .register(registry);
+        this.desconexoesPorPrazo = Counter.builder("vendas.feed.desconexoes")
+                .tag("motivo", "prazo-envio")
+                .register(registry);
+        Gauge.builder("vendas.feed.assinantes", assinantes, Set::size).register(registry);
+
+        long intervalo = intervaloDespacho.toMillis();
+        agendador.scheduleWithFixedDelay(this::despachar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        agendador.scheduleWithFixedDelay(this::enviarHeartbeat, 15, 15, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registra um novo assinante.
+     *
+     * @param dataInicio  Data de início do filtro (pode ser null).
+     * @param dataFim     Data de fim do filtro (pode ser null).
+     * @param ultimoEvento Valor do cabeçalho Last-Event-ID (pode ser null).
+     */
+    public SseEmitter assinar(LocalDate dataInicio, LocalDate dataFim, Long ultimoEvento) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Assinante assinante = new Assinante(emitter,
+                dataInicio != null ? dataInicio : VendaService.DATA_MINIMA,
+                dataFim != null ? dataFim : VendaService.DATA_MAXIMA);
+
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+
+        boolean retomado;
+        synchronized (historico) {
+            // Registrar e reenviar o histórico sob o mesmo lock da publicação evita perder ou duplicar eventos
+            retomado = ultimoEvento == null || retomar(assinante, ultimoEvento);
+            assinantes.add(assinante);
+        }
+        if (!retomado) {
+            try {
+                // O histórico não cobre mais o ponto de retomada: o cliente deve recarregar a listagem
+                emitter.send(SseEmitter.event().name("reiniciar").data(sequencia.get()));
+            } catch (IOException e) {
+                descartar(assinante, e);
+            }
+        }
+        return emitter;
+    }
+
+    // A entidade vira VendaDTO só após o commit, quando versão e data de alteração já foram gravadas;
+    // o histórico e os lotes guardam o DTO, e não entidades JPA
+    public void publicarCriacao(Venda venda) {
+        publicarAposCommit(sequencia -> new EventoVendaDTO(sequencia, "CRIADA", venda.getId(), venda.getDataVenda(),
+                null, null, VendaDTO.de(venda)));
+    }
+
+    /**
+     * @param dataAnterior Data da venda antes da alteração; assinantes cujo filtro a contém
+     *                     recebem o evento mesmo que a nova data esteja fora dele.
+     */
+    public void publicarAlteracao(Venda venda, LocalDate dataAnterior) {
+        publicarAposCommit(sequencia -> new EventoVendaDTO(sequencia, "ALTERADA", venda.getId(), venda.getDataVenda(),
+                null, dataAnterior, VendaDTO.de(venda)));
+    }
+
+    public void publicarRemocao(Long idVenda, LocalDate dataVenda) {
+        publicarAposCommit(sequencia -> new EventoVendaDTO(sequencia, "REMOVIDA", idVenda, dataVenda, null, null, null));
+    }
+
+    /**
+     * Um único evento para uma remoção em lote: o cliente descarta as vendas do intervalo que
+     * tiver em tela, em vez de receber um evento por venda removida.
+     */
+    public void publicarRemocaoPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        publicarAposCommit(sequencia -> new EventoVendaDTO(sequencia, "PERIODO_REMOVIDO", null, dataInicio, dataFim,
+                null, null));
+    }
+
+    // O evento recebe a sequência só na publicação, para que a ordem do feed seja a dos commits
+    private void publicarAposCommit(LongFunction<EventoVendaDTO> evento) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicar(evento);
+                }
+            });
+        } else {
+            publicar(evento);
+        }
+    }
+
+    private void publicar(LongFunction<EventoVendaDTO> criarEvento) {
+        synchronized (historico) {
+            EventoVendaDTO evento = criarEvento.apply(sequencia.incrementAndGet());
+            historico.addLast(evento);
+            if (historico.size() > tamanhoHistorico) {
+                historico.removeFirst();
+            }
+            for (Assinante assinante : assinantes) {
+                if (assinante.aceita(evento) && !assinante.pendentes.offer(evento)) {
+                    desconectarPorLentidao(assinante);
+                }
+            }
+        }
+    }
+
+    private boolean retomar(Assinante assinante, long ultimoEvento) {
+        if (ultimoEvento > sequencia.get()) {
+            return false; // ID de antes de um reinício do servidor, quando a sequência voltou a zero
+        }
+        EventoVendaDTO maisAntigo = historico.peekFirst();
+        if (maisAntigo != null && maisAntigo.getSequencia() > ultimoEvento + 1) {
+            return false;
+        }
+        for (EventoVendaDTO evento : historico) {
+            if (evento.getSequencia() > ultimoEvento && assinante.aceita(evento)
+                    && !assinante.pendentes.offer(evento)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void despachar() {
+        long agora = System.nanoTime();
+        for (Assinante assinante : assinantes) {
+            if (!assinante.pendentes.isEmpty() && assinante.enviando.compareAndSet(false, true)) {
+                assinante.envio = envios.submit(() -> enviarLote(assinante));
+            } else {
+                verificarPrazo(assinante, agora);
+            }
+        }
+    }
+
+    /**
+     * Desconecta o assinante cujo envio em curso passou do prazo e interrompe a thread presa na
+     * escrita. O emitter é encerrado pela própria thread de envio, quando a escrita retornar ou
+     * falhar: encerrá-lo daqui esperaria pelo mesmo lock que a escrita bloqueada segura.
+     */
+    private void verificarPrazo(Assinante assinante, long agora) {
+        long inicio = assinante.inicioEnvio;
+        if (inicio != 0 && agora - inicio > prazoEnvioNanos && assinantes.remove(assinante)) {
+            desconexoesPorPrazo.increment();
+            assinante.expirado = true;
+            Future<?> envio = assinante.envio;
+            if (envio != null) {
+                envio.cancel(true);
+            }
+        }
+    }
+
+    private void enviarLote(Assinante assinante) {
+        try {
+            List<EventoVendaDTO> lote = new ArrayList<>(assinante.pendentes.size());
+            assinante.pendentes.drainTo(lote);
+            if (lote.isEmpty()) {
+                return;
+            }
+            long ultimaSequencia = lote.get(lote.size() - 1).getSequencia();
+            // Como RespostaVendas, o lote é escrito pelo VendaJsonHttpMessageConverter, sem reflexão do Jackson
+            enviar(assinante, SseEmitter.event()
+                    .id(Long.toString(ultimaSequencia))
+                    .name("vendas")
+                    .data(new RespostaVendas(lote, CamposVenda.TODOS), MediaType.APPLICATION_JSON));
+        } finally {
+            assinante.enviando.set(false);
+        }
+    }
+
+    private void enviar(Assinante assinante, SseEmitter.SseEventBuilder evento) {
+        assinante.inicioEnvio = System.nanoTime();
+        try {
+            assinante.emitter.send(evento);
+            if (assinante.expirado) {
+                // A escrita terminou depois do prazo, sem ser interrompida: o assinante já foi desconectado
+                descartar(assinante, new IOException("Envio ao assinante excedeu o prazo"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            descartar(assinante, e);
+        } finally {
+            assinante.inicioEnvio = 0;
+        }
+    }
+
+    // Chamado sob o lock do histórico: o complete vai para o pool, porque espera um envio em curso terminar
+    private void desconectarPorLentidao(Assinante assinante) {
+        if (assinantes.remove(assinante)) {
+            desconexoesPorLentidao.increment();
+            envios.execute(assinante.emitter::complete);
+        }
+    }
+
+    /**
+     * Remove o assinante cujo envio falhou e encerra a resposta assíncrona, para que o
+     * container libere a conexão em vez de esperar o timeout do emitter.
+     */
+    private void descartar(Assinante assinante, Exception erro) {
+        assinantes.remove(assinante);
+        assinante.emitter.completeWithError(erro);
+    }
+
+    private void enviarHeartbeat() {
+        for (Assinante assinante : assinantes) {
+            if (assinante.enviando.compareAndSet(false, true)) {
+                assinante.envio = envios.submit(() -> {
+                    try {
+                        enviar(assinante, SseEmitter.event().comment("heartbeat"));
+                    } finally {
+                        assinante.enviando.set(false);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdownNow();
+        envios.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantes.clear();
+    }
+}
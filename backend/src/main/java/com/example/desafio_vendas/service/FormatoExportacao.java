@@ -0,0 +1,34 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+
+import java.util.Locale;
+
+public enum FormatoExportacao {
+    CSV("text/csv", "csv"),
+    ARROW("application/vnd.apache.arrow.stream", "arrows"); // formato de streaming do Apache Arrow (IPC)
+
+    private final String tipoConteudo;
+    private final String extensao;
+
+    FormatoExportacao(String tipoConteudo, String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public static FormatoExportacao de(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RequisicaoInvalidaException("Formato de exportação inválido: '" + valor + "'. Use csv ou arrow.");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.desafio_vendas.service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Gera vendas sintéticas reproduzíveis. A mesma semente produz sempre as mesmas vendas, com
+ * qualquer quantidade de threads, porque cada bloco sorteia com um gerador derivado do seu índice.
+ * <p>
+ * As distribuições imitam um histórico real: poucos produtos concentram a maior parte das vendas
+ * (Zipf), os dias recentes têm mais vendas que os antigos e os fins de semana vendem menos.
+ */
+public final class GeradorVendas {
+
+    public record VendaGerada(int produto, int quantidade, LocalDate data, BigDecimal valorTotal) {}
+
+    private static final String[] TIPOS = {"Notebook", "Monitor", "Teclado", "Mouse", "Headset", "SSD",
+            "Webcam", "Cadeira Gamer", "Smartphone", "Placa de Vídeo", "Roteador", "Impressora"};
+    private static final String[] LINHAS = {"Pro", "Max", "Lite", "Plus", "Ultra", "Essential"};
+
+    private static final double EXPOENTE_ZIPF = 1.1;
+    private static final double CHANCE_DESCARTE_FIM_DE_SEMANA = 0.4;
+
+    private final long semente;
+    private final int dias;
+    private final LocalDate hoje;
+    private final double[] acumuladaProdutos;
+    private final long[] precoCentavos;
+
+    /**
+     * @param produtos Quantidade de produtos distintos.
+     * @param dias     Tamanho do histórico, em dias até {@code hoje}.
+     */
+    public GeradorVendas(long semente, int produtos, int dias, LocalDate hoje) {
+        if (produtos < 1 || dias < 1) {
+            throw new IllegalArgumentException("São necessários ao menos um produto e um dia.");
+        }
+        this.semente = semente;
+        this.dias = dias;
+        this.hoje = hoje;
+
+        acumuladaProdutos = new double[produtos];
+        double soma = 0;
+        for (int i = 0; i < produtos; i++) {
+            soma += 1 / Math.pow(i + 1, EXPOENTE_ZIPF);
+            acumuladaProdutos[i] = soma;
+        }
+        for (int i = 0; i < produtos; i++) {
+            acumuladaProdutos[i] /= soma;
+        }
+
+        // Preços entre R$ 20 e R$ 8.000, log-uniformes: muitos acessórios baratos, poucos itens caros
+        SplittableRandom precos = new SplittableRandom(semente);
+        precoCentavos = new long[produtos];
+        for (int i = 0; i < produtos; i++) {
+            precoCentavos[i] = Math.round(2_000 * Math.pow(400, precos.nextDouble()));
+        }
+    }
+
+    public int quantidadeProdutos() {
+        return precoCentavos.length;
+    }
+
+    /**
+     * Nome do produto de índice {@code indice}; índices distintos geram nomes distintos.
+     */
+    public String nomeProduto(int indice) {
+        return TIPOS[indice % TIPOS.length] + " " + LINHAS[(indice / TIPOS.length) % LINHAS.length] + " " + (100 + indice);
+    }
+
+    /**
+     * Gerador de números para o bloco {@code bloco}; blocos diferentes têm sequências independentes.
+     */
+    public SplittableRandom aleatorio(long bloco) {
+        return new SplittableRandom(semente ^ (bloco + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    public VendaGerada proxima(SplittableRandom aleatorio) {
+        int produto = sortearProduto(aleatorio);
+        int quantidade = 1 + (int) Math.min(19, -Math.log(1 - aleatorio.nextDouble()) * 1.5);
+        LocalDate data = sortearData(aleatorio);
+        return new VendaGerada(produto, quantidade, data, BigDecimal.valueOf(precoCentavos[produto] * quantidade, 2));
+    }
+
+    public int sortearProduto(SplittableRandom aleatorio) {
+        int posicao = Arrays.binarySearch(acumuladaProdutos, aleatorio.nextDouble());
+        return Math.min(posicao >= 0 ? posicao : -posicao - 1, acumuladaProdutos.length - 1);
+    }
+
+    /**
+     * Idade da venda com distribuição exponencial (média de um quarto do histórico), truncada
+     * ao histórico; um sorteio em fim de semana é refeito com probabilidade de 40%.
+     */
+    public LocalDate sortearData(SplittableRandom aleatorio) {
+        double media = Math.max(1.0, dias / 4.0);
+        while (true) {
+            long idade = (long) (-Math.log(1 - aleatorio.nextDouble()) * media);
+            if (idade >= dias) {
+                continue;
+            }
+            LocalDate data = hoje.minusDays(idade);
+            DayOfWeek diaSemana = data.getDayOfWeek();
+            boolean fimDeSemana = diaSemana == DayOfWeek.SATURDAY || diaSemana == DayOfWeek.SUNDAY;
+            if (fimDeSemana && aleatorio.nextDouble() < CHANCE_DESCARTE_FIM_DE_SEMANA) {
+                continue;
+            }
+            return data;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.CriarVendaDTO;
+import com.example.desafio_vendas.dto.ErroImportacaoDTO;
+import com.example.desafio_vendas.dto.ResultadoImportacaoDTO;
+import com.example.desafio_vendas.model.Venda;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Importa grandes volumes de vendas lendo a entrada sob demanda e gravando
+ * em blocos, cada bloco na sua própria transação com inserts em lote (JDBC batch).
+ */
+@Service
+public class ImportacaoVendaService {
+
+    private static final int MAXIMO_ERROS_REPORTADOS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AgregacaoVendaService agregacaoVendaService;
+    private final CacheVendas cacheVendas;
+    private final AnaliseColunarService analiseColunarService;
+    private final CatalogoProdutoService catalogoProdutoService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${vendas.lote.tamanho-bloco:1000}")
+    private int tamanhoBloco;
+
+    @Autowired
+    public ImportacaoVendaService(ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                                  AgregacaoVendaService agregacaoVendaService, CacheVendas cacheVendas,
+                                  AnaliseColunarService analiseColunarService, CatalogoProdutoService catalogoProdutoService) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.agregacaoVendaService = agregacaoVendaService;
+        this.cacheVendas = cacheVendas;
+        this.analiseColunarService = analiseColunarService;
+        this.catalogoProdutoService = catalogoProdutoService;
+    }
+
+    /**
+     * Lê vendas de um array JSON ou de um fluxo NDJSON e grava as válidas.
+     *
+     * @param entrada Corpo da requisição; não é carregado inteiro em memória.
+     * @return Totais da importação e os erros encontrados, por linha (começando em 1).
+     */
+    public ResultadoImportacaoDTO importar(InputStream entrada) throws IOException {
+        Relatorio relatorio = new Relatorio();
+        List<CriarVendaDTO> bloco = new ArrayList<>(tamanhoBloco);
+        long primeiraLinhaDoBloco = 1;
+        long linha = 0;
+
+        // O MappingIterator aceita tanto um array na raiz quanto valores separados por quebra de linha
+        try (MappingIterator<CriarVendaDTO> itens = objectMapper.readerFor(CriarVendaDTO.class).readValues(entrada)) {
+            while (true) {
+                try {
+                    if (!itens.hasNextValue()) {
+                        break;
+                    }
+                    linha++;
+                    bloco.add(itens.nextValue());
+                } catch (JsonParseException e) {
+                    // Erro de sintaxe: não há como continuar lendo a entrada com segurança
+                    relatorio.erro(linha, "JSON malformado: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    relatorio.erro(linha, "Campo inválido: " + e.getOriginalMessage());
+                    bloco.add(null); // mantém a numeração das linhas dentro do bloco
+                }
+                if (bloco.size() == tamanhoBloco) {
+                    gravarBloco(bloco, primeiraLinhaDoBloco, relatorio);
+                    primeiraLinhaDoBloco += bloco.size();
+                    bloco.clear();
+                }
+            }
+        }
+        if (!bloco.isEmpty()) {
+            gravarBloco(bloco, primeiraLinhaDoBloco, relatorio);
+        }
+        relatorio.totalRecebidas = linha;
+        return relatorio.paraDTO();
+    }
+
+    private void gravarBloco(List<CriarVendaDTO> bloco, long primeiraLinha, Relatorio relatorio) {
+        List<Venda> vendas = new ArrayList<>(bloco.size());
+        for (int i = 0; i < bloco.size(); i++) {
+            CriarVendaDTO dados = bloco.get(i);
+            if (dados == null) {
+                continue; // já reportado como erro de leitura
+            }
+            String erro = validar(dados);
+            if (erro != null) {
+                relatorio.erro(primeiraLinha + i, erro);
+            } else {
+                vendas.add(dados.paraEntidade(catalogoProdutoService.obterOuCriar(dados.getNomeProduto())));
+            }
+        }
+        if (vendas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                vendas.forEach(entityManager::persist);
+                agregacaoVendaService.registrarVendas(vendas);
+                cacheVendas.invalidar(null, vendas.stream().map(Venda::getDataVenda).collect(Collectors.toSet()));
+                analiseColunarService.registrar(vendas);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            relatorio.totalGravadas += vendas.size();
+        } catch (RuntimeException e) {
+            long ultimaLinha = primeiraLinha + bloco.size() - 1;
+            relatorio.erro(primeiraLinha, "Falha ao gravar o bloco das linhas " + primeiraLinha + " a " + ultimaLinha
+                    + " (" + vendas.size() + " vendas não gravadas): " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return A mensagem do primeiro campo inválido, ou null se a venda for válida.
+     */
+    static String validar(CriarVendaDTO dados) {
+        if (dados.getNomeProduto() == null || dados.getNomeProduto().isBlank()) {
+            return "'nomeProduto' é obrigatório.";
+        }
+        if (dados.getQuantidadeVendida() <= 0) {
+            return "'quantidadeVendida' deve ser maior que zero.";
+        }
+        if (dados.getDataVenda() == null) {
+            return "'dataVenda' é obrigatória.";
+        }
+        if (dados.getValorTotal() == null || dados.getValorTotal().compareTo(BigDecimal.ZERO) < 0) {
+            return "'valorTotal' é obrigatório e não pode ser negativo.";
+        }
+        return null;
+    }
+
+    private static class Relatorio {
+        private long totalRecebidas;
+        private long totalGravadas;
+        private long totalErros;
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+        void erro(long linha, String mensagem) {
+            totalErros++;
+            if (erros.size() < MAXIMO_ERROS_REPORTADOS) {
+                erros.add(new ErroImportacaoDTO(linha, mensagem));
+            }
+        }
+
+        ResultadoImportacaoDTO paraDTO() {
+            return new ResultadoImportacaoDTO(totalRecebidas, totalGravadas, totalErros, erros);
+        }
+    }
+}
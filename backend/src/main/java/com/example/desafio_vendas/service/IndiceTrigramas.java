@@ -0,0 +1,163 @@
+package com.example.desafio_vendas.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice invertido de trigramas sobre nomes já normalizados: cada sequência de três caracteres
+ * aponta para os códigos dos nomes que a contêm, em ordem crescente. A busca intersecta as
+ * listas dos trigramas do termo e confirma cada candidato com contains, já que ter todos os
+ * trigramas não garante a substring. Não é thread-safe; o chamador controla o acesso.
+ */
+final class IndiceTrigramas {
+
+    // Tamanhos aproximados na heap (64 bits, compressed oops), usados só em bytesOcupados()
+    private static final int CABECALHO_OBJETO = 16;
+    private static final int REFERENCIA = 4;
+    private static final int STRING = 24;
+    private static final int NO_HASHMAP = 32;
+    private static final int LONG_BOXED = 16;
+
+    private static final class Postagens {
+        int[] codigos = new int[2];
+        int tamanho;
+
+        void adicionar(int codigo) {
+            if (tamanho == codigos.length) {
+                codigos = Arrays.copyOf(codigos, tamanho * 2);
+            }
+            codigos[tamanho++] = codigo;
+        }
+    }
+
+    private final Map<Long, Postagens> postagens = new HashMap<>();
+    private String[] nomes = new String[16];
+    private long[] ids = new long[16];
+    private int tamanho;
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    int trigramas() {
+        return postagens.size();
+    }
+
+    void adicionar(long id, String nome) {
+        if (tamanho == nomes.length) {
+            nomes = Arrays.copyOf(nomes, tamanho * 2);
+            ids = Arrays.copyOf(ids, tamanho * 2);
+        }
+        int codigo = tamanho++;
+        nomes[codigo] = nome;
+        ids[codigo] = id;
+        for (int i = 0; i + 3 <= nome.length(); i++) {
+            Postagens lista = postagens.computeIfAbsent(trigrama(nome, i), t -> new Postagens());
+            // Um trigrama repetido no mesmo nome entra uma vez; os códigos só crescem, basta olhar o último
+            if (lista.tamanho == 0 || lista.codigos[lista.tamanho - 1] != codigo) {
+                lista.adicionar(codigo);
+            }
+        }
+    }
+
+    /**
+     * IDs dos nomes que contêm o termo (já normalizado). Termos com menos de três caracteres
+     * não têm trigramas e são comparados com todos os nomes.
+     */
+    List<Long> buscar(String termo) {
+        List<Long> encontrados = new ArrayList<>();
+        if (termo.length() < 3) {
+            for (int codigo = 0; codigo < tamanho; codigo++) {
+                if (nomes[codigo].contains(termo)) {
+                    encontrados.add(ids[codigo]);
+                }
+            }
+            return encontrados;
+        }
+
+        List<Postagens> listas = new ArrayList<>();
+        Set<Long> vistos = new HashSet<>();
+        for (int i = 0; i + 3 <= termo.length(); i++) {
+            long trigrama = trigrama(termo, i);
+            if (!vistos.add(trigrama)) {
+                continue;
+            }
+            Postagens lista = postagens.get(trigrama);
+            if (lista == null) {
+                return encontrados; // nenhum nome tem esse trigrama
+            }
+            listas.add(lista);
+        }
+        // A intersecção começa pela lista mais curta, que limita todas as outras
+        listas.sort(Comparator.comparingInt(lista -> lista.tamanho));
+        Postagens menor = listas.get(0);
+        int[] candidatos = Arrays.copyOf(menor.codigos, menor.tamanho);
+        int quantidade = menor.tamanho;
+        for (int l = 1; l < listas.size() && quantidade > 0; l++) {
+            quantidade = intersectar(candidatos, quantidade, listas.get(l));
+        }
+        for (int i = 0; i < quantidade; i++) {
+            int codigo = candidatos[i];
+            if (nomes[codigo].contains(termo)) {
+                encontrados.add(ids[codigo]);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Mantém em {@code candidatos} só os códigos que também estão na lista. As duas estão em
+     * ordem crescente, então basta um passo de merge, gravando o resultado no próprio array.
+     *
+     * @return A nova quantidade de candidatos.
+     */
+    private static int intersectar(int[] candidatos, int quantidade, Postagens lista) {
+        int mantidos = 0;
+        int j = 0;
+        for (int i = 0; i < quantidade && j < lista.tamanho; i++) {
+            int codigo = candidatos[i];
+            while (j < lista.tamanho && lista.codigos[j] < codigo) {
+                j++;
+            }
+            if (j < lista.tamanho && lista.codigos[j] == codigo) {
+                candidatos[mantidos++] = codigo;
+                j++;
+            }
+        }
+        return mantidos;
+    }
+
+    void limpar() {
+        postagens.clear();
+        Arrays.fill(nomes, 0, tamanho, null);
+        tamanho = 0;
+    }
+
+    /**
+     * Estimativa da memória ocupada: arrays de nomes e IDs, as strings e, por trigrama, a entrada
+     * do mapa, a chave, a lista e o array de códigos.
+     */
+    long bytesOcupados() {
+        long bytes = 2L * CABECALHO_OBJETO + (long) nomes.length * REFERENCIA + (long) ids.length * Long.BYTES;
+        for (int codigo = 0; codigo < tamanho; codigo++) {
+            bytes += STRING + CABECALHO_OBJETO + nomes[codigo].length();
+        }
+        bytes += (long) postagens.size() * 2 * REFERENCIA; // tabela do HashMap (fator de carga 0,75, arredondado)
+        for (Postagens lista : postagens.values()) {
+            bytes += NO_HASHMAP + LONG_BOXED + CABECALHO_OBJETO + REFERENCIA + Integer.BYTES
+                    + CABECALHO_OBJETO + (long) lista.codigos.length * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    // Três caracteres UTF-16 em 48 bits
+    private static long trigrama(String texto, int i) {
+        return (long) texto.charAt(i) << 32 | (long) texto.charAt(i + 1) << 16 | texto.charAt(i + 2);
+    }
+}
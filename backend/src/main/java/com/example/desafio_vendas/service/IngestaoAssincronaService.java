@@ -0,0 +1,450 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.CriarVendaDTO;
+import com.example.desafio_vendas.dto.StatusIngestaoDTO;
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import com.example.desafio_vendas.exception.ServicoIndisponivelException;
+import com.example.desafio_vendas.model.PosicaoIngestao;
+import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.PosicaoIngestaoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Modo de ingestão assíncrona do POST /vendas.
+ * <p>
+ * Cada venda validada é anexada a um log em arquivo mapeado em memória e a requisição
+ * retorna imediatamente. Uma thread de fundo lê o log e grava as vendas no banco em lotes,
+ * atualizando na mesma transação a {@link PosicaoIngestao}. Ao reiniciar, o log é relido
+ * a partir dessa posição.
+ * <p>
+ * Formato do arquivo: 8 bytes com a geração do log, seguidos de registros
+ * [tamanho int][JSON do CriarVendaDTO]. Um tamanho 0 marca o fim. Quando o log enche e
+ * tudo já foi gravado, ele recomeça do início com a geração seguinte.
+ */
+@Service
+@ConditionalOnProperty(name = "vendas.ingestao.assincrona.habilitada", havingValue = "true")
+public class IngestaoAssincronaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestaoAssincronaService.class);
+
+    private static final int CABECALHO = Long.BYTES;
+    private static final long ESPERA_MINIMA_MILLIS = 100;
+    private static final long ESPERA_MAXIMA_MILLIS = 30_000;
+    private static final long ID_POSICAO = 1L;
+    private static final int MAXIMO_STATUS_GUARDADOS = 100_000;
+
+    private record Registro(int posicao, int proximaPosicao, CriarVendaDTO dados) {}
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final PosicaoIngestaoRepository posicaoRepository;
+    private final AgregacaoVendaService agregacaoVendaService;
+    private final CacheVendas cacheVendas;
+    private final FeedVendasService feedVendasService;
+    private final AnaliseColunarService analiseColunarService;
+    private final CatalogoProdutoService catalogoProdutoService;
+    private final MeterRegistry registry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${vendas.ingestao.arquivo:data/vendas-ingestao.log}")
+    private Path arquivo;
+
+    @Value("${vendas.ingestao.tamanho-arquivo:64MB}")
+    private DataSize tamanhoArquivo;
+
+    @Value("${vendas.ingestao.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Value("${vendas.ingestao.pendentes-maximos:100000}")
+    private long pendentesMaximos;
+
+    @Value("${vendas.ingestao.sincronizar-disco:true}")
+    private boolean sincronizarDisco;
+
+    private FileChannel canal;
+    private MappedByteBuffer mapa;
+    private int capacidade;
+
+    // Protegidos pelo lock do próprio serviço
+    private long geracao;
+    private int posicaoEscrita;
+
+    private volatile int limiteLeitura;
+    private volatile int posicaoGravada;
+    private final AtomicLong pendentes = new AtomicLong();
+
+    private final Map<String, StatusIngestaoDTO> resultados = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StatusIngestaoDTO> maisAntigo) {
+            return size() > MAXIMO_STATUS_GUARDADOS;
+        }
+    };
+
+    private volatile boolean ativo;
+    private Thread gravador;
+
+    @Autowired
+    public IngestaoAssincronaService(ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+                                     PosicaoIngestaoRepository posicaoRepository,
+                                     AgregacaoVendaService agregacaoVendaService, CacheVendas cacheVendas,
+                                     FeedVendasService feedVendasService, AnaliseColunarService analiseColunarService,
+                                     CatalogoProdutoService catalogoProdutoService, MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.posicaoRepository = posicaoRepository;
+        this.agregacaoVendaService = agregacaoVendaService;
+        this.cacheVendas = cacheVendas;
+        this.feedVendasService = feedVendasService;
+        this.analiseColunarService = analiseColunarService;
+        this.catalogoProdutoService = catalogoProdutoService;
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        capacidade = (int) Math.min(tamanhoArquivo.toBytes(), Integer.MAX_VALUE);
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+
+        geracao = mapa.getLong(0);
+        if (geracao == 0) {
+            geracao = 1;
+            mapa.putInt(CABECALHO, 0);
+            mapa.putLong(0, geracao);
+        }
+
+        // Recuperação: encontra o fim do log e a última posição já gravada no banco
+        int posicao = CABECALHO;
+        int tamanho;
+        while (posicao + Integer.BYTES <= capacidade && (tamanho = mapa.getInt(posicao)) > 0) {
+            posicao += Integer.BYTES + tamanho;
+        }
+        posicaoEscrita = posicao;
+        limiteLeitura = posicao;
+
+        PosicaoIngestao gravada = transactionTemplate.execute(status -> posicaoRepository.findById(ID_POSICAO).orElse(null));
+        posicaoGravada = gravada != null && gravada.getGeracao() == geracao ? gravada.getDeslocamento() : CABECALHO;
+        // Uma queda durante reiniciarLog deixa o marcador de fim zerado e a geração antiga: o deslocamento
+        // do banco aponta além do fim do log e, sem o limite, a leitura começaria no meio de um registro
+        posicaoGravada = Math.min(posicaoGravada, posicaoEscrita);
+        pendentes.set(contarRegistros(posicaoGravada, posicaoEscrita));
+
+        Gauge.builder("vendas.ingestao.pendentes", pendentes, AtomicLong::get).register(registry);
+
+        ativo = true;
+        gravador = new Thread(this::executarGravador, "ingestao-vendas");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    /**
+     * Valida a venda e a anexa ao log.
+     *
+     * @return O identificador de rastreio, usado para consultar o status da gravação.
+     */
+    public String enfileirar(CriarVendaDTO dados) {
+        String erro = ImportacaoVendaService.validar(dados);
+        if (erro != null) {
+            throw new RequisicaoInvalidaException(erro);
+        }
+        if (!gravador.isAlive()) {
+            throw new ServicoIndisponivelException("A gravação de vendas da ingestão está parada.", 60);
+        }
+        if (pendentes.get() >= pendentesMaximos) {
+            throw new ServicoIndisponivelException("A fila de ingestão de vendas está cheia.", 1);
+        }
+        byte[] conteudo;
+        try {
+            conteudo = objectMapper.writeValueAsBytes(dados);
+        } catch (JsonProcessingException e) {
+            throw new RequisicaoInvalidaException("Não foi possível serializar a venda: " + e.getOriginalMessage());
+        }
+        return anexar(conteudo);
+    }
+
+    private synchronized String anexar(byte[] conteudo) {
+        int necessario = Integer.BYTES + conteudo.length;
+        if (posicaoEscrita + necessario + Integer.BYTES > capacidade) {
+            if (posicaoGravada != posicaoEscrita) {
+                throw new ServicoIndisponivelException("O log de ingestão está cheio e ainda sendo gravado no banco.", 1);
+            }
+            reiniciarLog();
+        }
+        int posicao = posicaoEscrita;
+        mapa.put(posicao + Integer.BYTES, conteudo);
+        mapa.putInt(posicao + necessario, 0); // novo marcador de fim
+        mapa.putInt(posicao, conteudo.length); // o registro só passa a existir quando o tamanho é escrito
+        if (sincronizarDisco) {
+            mapa.force(posicao, necessario + Integer.BYTES);
+        }
+        posicaoEscrita = posicao + necessario;
+        pendentes.incrementAndGet();
+        limiteLeitura = posicaoEscrita;
+        return idRastreio(geracao, posicao);
+    }
+
+    /**
+     * Recomeça o log com a geração seguinte. O marcador de fim é zerado e levado ao disco antes
+     * da nova geração: na ordem inversa, uma queda entre as duas escritas deixaria os registros
+     * antigos sob a geração nova e a recuperação os gravaria de novo. Uma queda entre as duas
+     * deixa um log vazio da geração antiga, tratado pelo limite aplicado em {@link #iniciar()}.
+     */
+    private void reiniciarLog() {
+        mapa.putInt(CABECALHO, 0);
+        if (sincronizarDisco) {
+            mapa.force(CABECALHO, Integer.BYTES);
+        }
+        mapa.putLong(0, ++geracao);
+        if (sincronizarDisco) {
+            mapa.force(0, CABECALHO);
+        }
+        posicaoEscrita = CABECALHO;
+        posicaoGravada = CABECALHO;
+        limiteLeitura = CABECALHO;
+    }
+
+    public StatusIngestaoDTO consultarStatus(String idRastreio) {
+        synchronized (resultados) {
+            StatusIngestaoDTO resultado = resultados.get(idRastreio);
+            if (resultado != null) {
+                return resultado;
+            }
+        }
+        long geracaoRegistro;
+        int posicao;
+        try {
+            String[] partes = idRastreio.split("-", 2);
+            geracaoRegistro = Long.parseLong(partes[0]);
+            posicao = Integer.parseInt(partes[1]);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        synchronized (this) {
+            if (geracaoRegistro < geracao || (geracaoRegistro == geracao && posicao < posicaoGravada)) {
+                return new StatusIngestaoDTO(idRastreio, "GRAVADA", null, null);
+            }
+            if (geracaoRegistro == geracao && posicao < posicaoEscrita) {
+                return new StatusIngestaoDTO(idRastreio, "PENDENTE", null, null);
+            }
+        }
+        return null;
+    }
+
+    private void executarGravador() {
+        long espera = ESPERA_MINIMA_MILLIS;
+        while (ativo) {
+            try {
+                if (!gravarProximoLote()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                }
+                espera = ESPERA_MINIMA_MILLIS;
+            } catch (RuntimeException e) {
+                // Falha transitória (banco fora do ar, pool esgotado, lock): a posição não avançou e os
+                // registros são relidos na próxima tentativa. A thread é a única gravadora e não pode morrer
+                log.warn("Falha ao gravar vendas da ingestão; nova tentativa em {} ms", espera, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(espera));
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * @return false se não havia nada a gravar.
+     */
+    private boolean gravarProximoLote() {
+        int inicio;
+        int limite;
+        long geracaoLote;
+        // Leitura consistente das três posições: o log pode ter sido reiniciado entre elas
+        synchronized (this) {
+            inicio = posicaoGravada;
+            limite = limiteLeitura;
+            geracaoLote = geracao;
+        }
+        if (inicio >= limite) {
+            return false;
+        }
+        List<Registro> lote = ler(inicio, limite);
+        int fim = lote.get(lote.size() - 1).proximaPosicao();
+        try {
+            gravarLote(lote, geracaoLote, fim);
+        } catch (RuntimeException e) {
+            // Um registro ruim não pode travar a fila: regrava um a um para isolar o problema
+            gravarIndividualmente(lote, geracaoLote);
+            return true;
+        }
+        avancar(fim, lote.size());
+        return true;
+    }
+
+    private void avancar(int posicao, int registros) {
+        synchronized (this) {
+            posicaoGravada = posicao;
+        }
+        pendentes.addAndGet(-registros);
+    }
+
+    private List<Registro> ler(int inicio, int limite) {
+        List<Registro> lote = new ArrayList<>(Math.min(tamanhoLote, 1024));
+        int posicao = inicio;
+        while (posicao < limite && lote.size() < tamanhoLote) {
+            int tamanho = mapa.getInt(posicao);
+            byte[] conteudo = new byte[tamanho];
+            mapa.get(posicao + Integer.BYTES, conteudo);
+            int proxima = posicao + Integer.BYTES + tamanho;
+            CriarVendaDTO dados;
+            try {
+                dados = objectMapper.readValue(conteudo, CriarVendaDTO.class);
+            } catch (IOException e) {
+                dados = null;
+            }
+            lote.add(new Registro(posicao, proxima, dados));
+            posicao = proxima;
+        }
+        return lote;
+    }
+
+    private void gravarLote(List<Registro> lote, long geracaoLote, int fim) {
+        List<Venda> vendas = new ArrayList<>(lote.size());
+        List<String> ids = new ArrayList<>(lote.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Registro registro : lote) {
+                if (registro.dados() == null) {
+                    continue;
+                }
+                Venda venda = paraEntidade(registro.dados());
+                entityManager.persist(venda);
+                vendas.add(venda);
+                ids.add(idRastreio(geracaoLote, registro.posicao()));
+            }
+            agregacaoVendaService.registrarVendas(vendas);
+            cacheVendas.invalidar(null, vendas.stream().map(Venda::getDataVenda).collect(Collectors.toSet()));
+            vendas.forEach(feedVendasService::publicarCriacao);
+            analiseColunarService.registrar(vendas);
+            posicaoRepository.save(new PosicaoIngestao(ID_POSICAO, geracaoLote, fim));
+            entityManager.flush();
+            entityManager.clear();
+        });
+        synchronized (resultados) {
+            for (int i = 0; i < vendas.size(); i++) {
+                resultados.put(ids.get(i), new StatusIngestaoDTO(ids.get(i), "GRAVADA", vendas.get(i).getId(), null));
+            }
+            for (Registro registro : lote) {
+                if (registro.dados() == null) {
+                    String id = idRastreio(geracaoLote, registro.posicao());
+                    resultados.put(id, new StatusIngestaoDTO(id, "REJEITADA", null, "Registro ilegível no log de ingestão."));
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava os registros um a um, avançando a posição a cada um. Só falhas determinísticas
+     * (registro ilegível, dados inválidos, violação de restrição) rejeitam o registro; as demais
+     * são propagadas sem avançar, para que o registro seja tentado de novo.
+     */
+    private void gravarIndividualmente(List<Registro> lote, long geracaoLote) {
+        for (Registro registro : lote) {
+            String id = idRastreio(geracaoLote, registro.posicao());
+            StatusIngestaoDTO resultado;
+            try {
+                if (registro.dados() == null) {
+                    throw new RequisicaoInvalidaException("Registro ilegível no log de ingestão.");
+                }
+                Venda venda = transactionTemplate.execute(status -> {
+                    Venda nova = paraEntidade(registro.dados());
+                    entityManager.persist(nova);
+                    agregacaoVendaService.registrarVenda(nova);
+                    cacheVendas.invalidar(null, nova.getDataVenda());
+                    feedVendasService.publicarCriacao(nova);
+                    analiseColunarService.registrar(nova);
+                    posicaoRepository.save(new PosicaoIngestao(ID_POSICAO, geracaoLote, registro.proximaPosicao()));
+                    return nova;
+                });
+                resultado = new StatusIngestaoDTO(id, "GRAVADA", venda.getId(), null);
+            } catch (RequisicaoInvalidaException | DataIntegrityViolationException e) {
+                transactionTemplate.executeWithoutResult(status ->
+                        posicaoRepository.save(new PosicaoIngestao(ID_POSICAO, geracaoLote, registro.proximaPosicao())));
+                log.warn("Venda da ingestão {} rejeitada: {}", id, e.getMessage());
+                resultado = new StatusIngestaoDTO(id, "REJEITADA", null, e.getMessage());
+            }
+            avancar(registro.proximaPosicao(), 1);
+            synchronized (resultados) {
+                resultados.put(id, resultado);
+            }
+        }
+    }
+
+    private long contarRegistros(int inicio, int fim) {
+        long total = 0;
+        int posicao = inicio;
+        while (posicao < fim) {
+            posicao += Integer.BYTES + mapa.getInt(posicao);
+            total++;
+        }
+        return total;
+    }
+
+    private Venda paraEntidade(CriarVendaDTO dados) {
+        return dados.paraEntidade(catalogoProdutoService.obterOuCriar(dados.getNomeProduto()));
+    }
+
+    private static String idRastreio(long geracao, int posicao) {
+        return geracao + "-" + posicao;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        ativo = false;
+        if (gravador != null) {
+            try {
+                gravador.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            mapa.force();
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.desafio_vendas.service;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de ID de venda (long) para posição (int) com endereçamento aberto, sem objetos por entrada.
+ * Não é thread-safe; o chamador controla o acesso.
+ */
+final class MapaIdPosicao {
+
+    private static final long VAZIO = Long.MIN_VALUE;
+
+    private long[] chaves;
+    private int[] valores;
+    private int tamanho;
+
+    MapaIdPosicao(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(capacidadeInicial, 8) * 2 - 1);
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        Arrays.fill(chaves, VAZIO);
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    long bytesOcupados() {
+        return (long) chaves.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * @return A posição associada ao ID, ou -1 se ausente.
+     */
+    int buscar(long id) {
+        int mascara = chaves.length - 1;
+        for (int i = espalhar(id) & mascara; ; i = (i + 1) & mascara) {
+            long chave = chaves[i];
+            if (chave == id) {
+                return valores[i];
+            }
+            if (chave == VAZIO) {
+                return -1;
+            }
+        }
+    }
+
+    void gravar(long id, int posicao) {
+        if ((tamanho + 1) * 4L > chaves.length * 3L) { // fator de carga máximo de 0,75
+            redimensionar(chaves.length * 2);
+        }
+        int mascara = chaves.length - 1;
+        for (int i = espalhar(id) & mascara; ; i = (i + 1) & mascara) {
+            long chave = chaves[i];
+            if (chave == id) {
+                valores[i] = posicao;
+                return;
+            }
+            if (chave == VAZIO) {
+                chaves[i] = id;
+                valores[i] = posicao;
+                tamanho++;
+                return;
+            }
+        }
+    }
+
+    void remover(long id) {
+        int mascara = chaves.length - 1;
+        int i = espalhar(id) & mascara;
+        while (chaves[i] != id) {
+            if (chaves[i] == VAZIO) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = VAZIO;
+        tamanho--;
+        // Reinsere o restante do agrupamento para não interromper sondagens posteriores
+        for (int j = (i + 1) & mascara; chaves[j] != VAZIO; j = (j + 1) & mascara) {
+            long chave = chaves[j];
+            int valor = valores[j];
+            chaves[j] = VAZIO;
+            tamanho--;
+            gravar(chave, valor);
+        }
+    }
+
+    void limpar() {
+        Arrays.fill(chaves, VAZIO);
+        tamanho = 0;
+    }
+
+    private void redimensionar(int novaCapacidade) {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        chaves = new long[novaCapacidade];
+        valores = new int[novaCapacidade];
+        Arrays.fill(chaves, VAZIO);
+        tamanho = 0;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != VAZIO) {
+                gravar(chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private static int espalhar(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
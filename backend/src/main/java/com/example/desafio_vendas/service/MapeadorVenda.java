@@ -0,0 +1,37 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.model.Venda;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Converte uma linha de venda (tabela ativa ou partição) lida por JDBC em {@link Venda},
+ * resolvendo o produto pelo catálogo em memória. A entidade resultante não é gerenciada pelo JPA.
+ */
+final class MapeadorVenda implements RowMapper<Venda> {
+
+    static final String COLUNAS = "id, produto_id, quantidade_vendida, data_venda, valor_total, versao, ultima_alteracao";
+
+    private final CatalogoProdutoService catalogoProdutoService;
+
+    MapeadorVenda(CatalogoProdutoService catalogoProdutoService) {
+        this.catalogoProdutoService = catalogoProdutoService;
+    }
+
+    @Override
+    public Venda mapRow(ResultSet rs, int linha) throws SQLException {
+        OffsetDateTime ultimaAlteracao = rs.getObject("ultima_alteracao", OffsetDateTime.class);
+        return new Venda(
+                rs.getLong("id"),
+                catalogoProdutoService.buscarPorId(rs.getObject("produto_id", Long.class)),
+                rs.getInt("quantidade_vendida"),
+                rs.getObject("data_venda", LocalDate.class),
+                rs.getBigDecimal("valor_total"),
+                rs.getObject("versao", Long.class),
+                ultimaAlteracao != null ? ultimaAlteracao.toInstant() : null);
+    }
+}
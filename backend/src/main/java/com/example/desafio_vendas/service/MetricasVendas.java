@@ -0,0 +1,58 @@
+package com.example.desafio_vendas.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra quantas linhas cada listagem devolve, separando por largura do intervalo de datas,
+ * para identificar quais filtros geram respostas grandes.
+ */
+@Component
+public class MetricasVendas {
+
+    private final MeterRegistry registry;
+    // Uma série por consulta e faixa do intervalo, registrada na primeira listagem que a usa
+    private final Map<String, DistributionSummary> linhasPorSerie = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MetricasVendas(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void registrarLinhasRetornadas(String consulta, LocalDate dataInicio, LocalDate dataFim, int linhas) {
+        String faixa = faixaDoIntervalo(dataInicio, dataFim);
+        linhasPorSerie.computeIfAbsent(consulta + '\0' + faixa, chave -> DistributionSummary.builder("vendas.listagem.linhas")
+                        .description("Quantidade de vendas devolvidas por listagem")
+                        .baseUnit("linhas")
+                        .tags("consulta", consulta, "intervalo", faixa)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(linhas);
+    }
+
+    // Faixas fixas mantêm a cardinalidade das tags baixa
+    static String faixaDoIntervalo(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataInicio == null || dataFim == null) {
+            return "aberto";
+        }
+        long dias = ChronoUnit.DAYS.between(dataInicio, dataFim) + 1;
+        if (dias <= 1) {
+            return "1-dia";
+        } else if (dias <= 7) {
+            return "ate-7-dias";
+        } else if (dias <= 31) {
+            return "ate-31-dias";
+        } else if (dias <= 366) {
+            return "ate-1-ano";
+        }
+        return "acima-1-ano";
+    }
+}
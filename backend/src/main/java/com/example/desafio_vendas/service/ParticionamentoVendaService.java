@@ -0,0 +1,449 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.EstadoListagemDTO;
+import com.example.desafio_vendas.dto.TotalProdutoDTO;
+import com.example.desafio_vendas.exception.ResourceNotFoundException;
+import com.example.desafio_vendas.model.ParticaoVenda;
+import com.example.desafio_vendas.model.Produto;
+import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.ParticaoVendaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Armazenamento de vendas particionado por mês.
+ * <p>
+ * A tabela venda guarda apenas os meses recentes (e vendas retroativas ainda não seladas).
+ * Periodicamente, os meses anteriores a vendas.particionamento.meses-ativos são movidos para
+ * tabelas venda_AAAAMM, registradas em {@link ParticaoVenda}. Consultas por período leem a
+ * tabela ativa e somente as partições cujo mês sobrepõe o intervalo. Uma partição antiga é
+ * removida com um DROP TABLE, opcionalmente após ser gravada em CSV.
+ */
+@Service
+@ConditionalOnProperty(name = "vendas.particionamento.habilitado", havingValue = "true")
+public class ParticionamentoVendaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoVendaService.class);
+
+    private static final String TABELA_ATIVA = "venda";
+    // Decremento no próprio banco: um read-modify-write pelo JPA perderia as remoções concorrentes na mesma partição
+    private static final String DESCONTAR_LINHAS = "UPDATE particao_venda SET linhas = linhas - ? WHERE mes = ?";
+    private static final String COLUNAS = MapeadorVenda.COLUNAS;
+    private static final DateTimeFormatter SUFIXO_TABELA = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Comparator<Venda> ORDEM_DATA_ID =
+            Comparator.comparing(Venda::getDataVenda).thenComparing(Venda::getId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ParticaoVendaRepository particaoRepository;
+    private final AgregacaoVendaService agregacaoVendaService;
+    private final CacheVendas cacheVendas;
+    private final AnaliseColunarService analiseColunarService;
+    private final MapeadorVenda mapeadorVenda;
+    private final CatalogoProdutoService catalogoProdutoService;
+
+    @Value("${vendas.particionamento.meses-ativos:2}")
+    private int mesesAtivos;
+
+    @Value("${vendas.particionamento.diretorio-arquivo:data/particoes}")
+    private Path diretorioArquivo;
+
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor();
+
+    @Autowired
+    public ParticionamentoVendaService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                       ParticaoVendaRepository particaoRepository,
+                                       AgregacaoVendaService agregacaoVendaService, CacheVendas cacheVendas,
+                                       AnaliseColunarService analiseColunarService, CatalogoProdutoService catalogoProdutoService,
+                                       @Value("${vendas.particionamento.intervalo-selagem:1h}") Duration intervaloSelagem) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.particaoRepository = particaoRepository;
+        this.agregacaoVendaService = agregacaoVendaService;
+        this.cacheVendas = cacheVendas;
+        this.analiseColunarService = analiseColunarService;
+        this.mapeadorVenda = new MapeadorVenda(catalogoProdutoService);
+        this.catalogoProdutoService = catalogoProdutoService;
+
+        long intervalo = intervaloSelagem.toMillis();
+        agendador.scheduleWithFixedDelay(this::selarAgendado, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    public List<ParticaoVenda> listarParticoes() {
+        return particaoRepository.findAllByOrderByMesAsc();
+    }
+
+    /**
+     * Move para suas partições as vendas dos meses anteriores à janela ativa.
+     *
+     * @return As partições criadas ou atualizadas.
+     */
+    public synchronized List<ParticaoVenda> selarMesesAntigos() {
+        LocalDate limite = YearMonth.now().minusMonths(Math.max(mesesAtivos, 1) - 1L).atDay(1);
+        List<YearMonth> meses = jdbcTemplate.query(
+                "SELECT DISTINCT YEAR(data_venda) AS ano, MONTH(data_venda) AS mes FROM venda WHERE data_venda < ?",
+                (rs, linha) -> YearMonth.of(rs.getInt("ano"), rs.getInt("mes")),
+                limite);
+
+        List<ParticaoVenda> seladas = new ArrayList<>(meses.size());
+        for (YearMonth mes : meses) {
+            seladas.add(transactionTemplate.execute(status -> selarMes(mes)));
+        }
+        if (!seladas.isEmpty()) {
+            cacheVendas.invalidarTudo();
+        }
+        return seladas;
+    }
+
+    private void selarAgendado() {
+        try {
+            selarMesesAntigos();
+        } catch (RuntimeException e) {
+            // Uma falha não pode cancelar as execuções seguintes do agendador
+            log.error("Falha ao selar partições de vendas", e);
+        }
+    }
+
+    private ParticaoVenda selarMes(YearMonth mes) {
+        String tabela = nomeTabela(mes);
+        LocalDate inicio = mes.atDay(1);
+        LocalDate fim = mes.atEndOfMonth();
+
+        if (!particaoRepository.existsById(inicio)) {
+            // Sobra de uma removerParticao cujo DROP falhou: as vendas dela já foram descartadas
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + tabela);
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + tabela + " ("
+                + "id BIGINT PRIMARY KEY, produto_id BIGINT, quantidade_vendida INTEGER NOT NULL, "
+                + "data_venda DATE CHECK (data_venda BETWEEN DATE '" + inicio + "' AND DATE '" + fim + "'), "
+                + "valor_total NUMERIC(38, 2), versao BIGINT, ultima_alteracao TIMESTAMP(6) WITH TIME ZONE)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + tabela + "_data_venda_id ON " + tabela + " (data_venda, id)");
+
+        // Copia exatamente as linhas que o DELETE removeu (tabela delta OLD TABLE): uma venda retroativa
+        // confirmada entre uma cópia e um DELETE separados seria apagada sem ter sido copiada
+        jdbcTemplate.update("INSERT INTO " + tabela + " (" + COLUNAS + ") SELECT " + COLUNAS
+                + " FROM OLD TABLE (DELETE FROM venda WHERE data_venda BETWEEN ? AND ?)", inicio, fim);
+
+        ParticaoVenda particao = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*), MIN(id), MAX(id) FROM " + tabela,
+                (rs, linha) -> new ParticaoVenda(inicio, tabela, rs.getLong(1), rs.getObject(2, Long.class), rs.getObject(3, Long.class)));
+        return particaoRepository.save(particao);
+    }
+
+    /**
+     * Remove a partição de um mês inteiro, junto com seus resumos diários.
+     *
+     * @param mes      Mês da partição.
+     * @param arquivar Se true, grava as vendas em CSV no diretório de arquivo antes de remover.
+     * @return A partição removida.
+     */
+    public synchronized ParticaoVenda removerParticao(YearMonth mes, boolean arquivar) {
+        ParticaoVenda particao = particaoRepository.findById(mes.atDay(1))
+                .orElseThrow(() -> new ResourceNotFoundException("Partição do mês " + mes + " não foi encontrada."));
+        if (arquivar) {
+            try {
+                Files.createDirectories(diretorioArquivo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Path arquivo = diretorioArquivo.resolve(particao.getTabela() + ".csv").toAbsolutePath();
+            jdbcTemplate.queryForObject("CALL CSVWRITE(?, 'SELECT " + COLUNAS + " FROM " + particao.getTabela() + " ORDER BY data_venda, id')",
+                    Integer.class, arquivo.toString());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            particaoRepository.delete(particao);
+            agregacaoVendaService.removerResumos(mes.atDay(1), mes.atEndOfMonth());
+            analiseColunarService.removerPeriodo(mes.atDay(1), mes.atEndOfMonth());
+        });
+        cacheVendas.invalidarTudo();
+        // Só depois do commit: no H2 o DROP TABLE confirma a transação em curso, e uma falha depois dele
+        // deixaria o registro da partição apontando para uma tabela inexistente. Uma tabela que sobrar
+        // aqui não é lida por nenhuma consulta e é descartada por selarMes antes de o mês ser selado de novo
+        try {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + particao.getTabela());
+        } catch (DataAccessException e) {
+            log.error("Partição {} removida, mas a tabela {} não pôde ser apagada", mes, particao.getTabela(), e);
+        }
+        return particao;
+    }
+
+    /**
+     * Vendas das partições seladas que sobrepõem o intervalo. Não inclui a tabela ativa.
+     */
+    public List<Venda> buscarPorPeriodo(LocalDate inicio, LocalDate fim) {
+        List<Venda> vendas = new ArrayList<>();
+        for (ParticaoVenda particao : particoesSobrepostas(inicio, fim)) {
+            vendas.addAll(consultarParticao(particao, inicio, fim, "", mapeadorVenda));
+        }
+        return vendas;
+    }
+
+    /**
+     * Vendas dos produtos informados nas partições seladas que sobrepõem o intervalo. Não inclui a tabela ativa.
+     */
+    public List<Venda> buscarPorProdutos(LocalDate inicio, LocalDate fim, Collection<Long> produtos) {
+        String filtroProdutos = " AND produto_id IN (" + String.join(", ", Collections.nCopies(produtos.size(), "?")) + ")";
+        List<Venda> vendas = new ArrayList<>();
+        for (ParticaoVenda particao : particoesSobrepostas(inicio, fim)) {
+            vendas.addAll(consultarParticao(particao, inicio, fim, filtroProdutos, mapeadorVenda, produtos.toArray()));
+        }
+        return vendas;
+    }
+
+    /**
+     * Entrega ao consumidor as vendas das partições que sobrepõem o intervalo, uma a uma,
+     * em ordem (dataVenda, id) e sem acumulá-las em memória. Não inclui a tabela ativa.
+     */
+    public void percorrerPorPeriodo(LocalDate inicio, LocalDate fim, Consumer<Venda> consumidor) {
+        for (ParticaoVenda particao : particoesSobrepostas(inicio, fim)) {
+            Filtro filtro = filtro(particao, inicio, fim);
+            jdbcTemplate.query("SELECT " + COLUNAS + " FROM " + particao.getTabela() + filtro.where() + " ORDER BY data_venda, id",
+                    rs -> {
+                        consumidor.accept(mapeadorVenda.mapRow(rs, rs.getRow()));
+                    },
+                    filtro.parametros());
+        }
+    }
+
+    /**
+     * Quantidade de vendas, itens e valor total por produto nas partições que sobrepõem o intervalo,
+     * agrupados no banco (uma linha por produto e partição). Não inclui a tabela ativa.
+     */
+    public List<TotalProdutoDTO> agruparPorProduto(LocalDate inicio, LocalDate fim) {
+        List<TotalProdutoDTO> totais = new ArrayList<>();
+        for (ParticaoVenda particao : particoesSobrepostas(inicio, fim)) {
+            totais.addAll(consultarParticao(particao, inicio, fim, " GROUP BY produto_id",
+                    "SELECT produto_id, COUNT(*) AS vendas, COALESCE(SUM(quantidade_vendida), 0) AS itens, "
+                            + "COALESCE(SUM(valor_total), 0) AS valor",
+                    (rs, linha) -> {
+                        Produto produto = catalogoProdutoService.buscarPorId(rs.getObject("produto_id", Long.class));
+                        return new TotalProdutoDTO(produto != null ? produto.getNome() : "",
+                                rs.getLong("vendas"), rs.getLong("itens"), rs.getBigDecimal("valor"));
+                    }));
+        }
+        return totais;
+    }
+
+    /**
+     * Quantidade, soma das versões, última alteração e maior ID das partições no intervalo.
+     */
+    public EstadoListagemDTO estadoPorPeriodo(LocalDate inicio, LocalDate fim) {
+        long quantidade = 0;
+        long somaVersoes = 0;
+        Instant ultimaAlteracao = null;
+        Long maiorId = null;
+        for (ParticaoVenda particao : particoesSobrepostas(inicio, fim)) {
+            EstadoListagemDTO estado = consultarParticao(particao, inicio, fim, "",
+                    "SELECT COUNT(*), SUM(versao), MAX(ultima_alteracao), MAX(id)",
+                    (rs, linha) -> new EstadoListagemDTO(rs.getLong(1), rs.getObject(2, Long.class),
+                            instante(rs.getObject(3, OffsetDateTime.class)), rs.getObject(4, Long.class))).get(0);
+            quantidade += estado.getQuantidade();
+            somaVersoes += estado.getSomaVersoes() != null ? estado.getSomaVersoes() : 0;
+            ultimaAlteracao = maisRecente(ultimaAlteracao, estado.getUltimaAlteracao());
+            maiorId = maior(maiorId, estado.getMaiorId());
+        }
+        return new EstadoListagemDTO(quantidade, somaVersoes, ultimaAlteracao, maiorId);
+    }
+
+    /**
+     * Combina o estado da tabela ativa com o das partições.
+     */
+    public EstadoListagemDTO combinar(EstadoListagemDTO ativa, LocalDate inicio, LocalDate fim) {
+        EstadoListagemDTO particoes = estadoPorPeriodo(inicio, fim);
+        return new EstadoListagemDTO(
+                ativa.getQuantidade() + particoes.getQuantidade(),
+                (ativa.getSomaVersoes() != null ? ativa.getSomaVersoes() : 0) + particoes.getSomaVersoes(),
+                maisRecente(ativa.getUltimaAlteracao(), particoes.getUltimaAlteracao()),
+                maior(ativa.getMaiorId(), particoes.getMaiorId()));
+    }
+
+    /**
+     * Página por chave (dataVenda, id) sobre a tabela ativa e as partições do intervalo.
+     * Cada tabela contribui com no máximo {@code limite} linhas; as partições são lidas em
+     * ordem cronológica e a leitura para assim que o limite é atingido.
+     */
+    public List<Venda> buscarPagina(LocalDate inicio, LocalDate fim, LocalDate ultimaData, Long ultimoId, int limite) {
+        String condicao = ultimaData != null ? " AND (data_venda > ? OR (data_venda = ? AND id > ?))" : "";
+        Object[] extras = ultimaData != null ? new Object[]{ultimaData, ultimaData, ultimoId} : new Object[0];
+        String sufixo = condicao + " ORDER BY data_venda, id FETCH FIRST " + limite + " ROWS ONLY";
+
+        List<Venda> vendas = new ArrayList<>();
+        LocalDate inicioEfetivo = ultimaData != null && ultimaData.isAfter(inicio) ? ultimaData : inicio;
+        for (ParticaoVenda particao : particoesSobrepostas(inicioEfetivo, fim)) {
+            vendas.addAll(consultarParticao(particao, inicio, fim, sufixo, mapeadorVenda, extras));
+            if (vendas.size() >= limite) {
+                break;
+            }
+        }
+        vendas.addAll(jdbcTemplate.query("SELECT " + COLUNAS + " FROM " + TABELA_ATIVA
+                        + " WHERE data_venda BETWEEN ? AND ?" + sufixo,
+                mapeadorVenda, concatenar(new Object[]{inicio, fim}, extras)));
+        vendas.sort(ORDEM_DATA_ID);
+        return vendas.size() > limite ? new ArrayList<>(vendas.subList(0, limite)) : vendas;
+    }
+
+    /**
+     * Busca uma venda selada pelo ID, consultando só as partições cuja faixa de IDs o contém.
+     */
+    public Optional<Venda> buscarPorId(Long id) {
+        for (ParticaoVenda particao : particaoRepository.buscarPorFaixaDeId(id)) {
+            List<Venda> vendas = jdbcTemplate.query("SELECT " + COLUNAS + " FROM " + particao.getTabela() + " WHERE id = ?",
+                    mapeadorVenda, id);
+            if (!vendas.isEmpty()) {
+                return Optional.of(vendas.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Remove uma venda selada com um único DELETE na partição cuja faixa de IDs a contém,
+     * devolvendo os valores da linha removida. Deve ser chamado dentro da transação da remoção.
+     */
+    public Optional<Venda> removerPorId(Long id) {
+        for (ParticaoVenda particao : particaoRepository.buscarPorFaixaDeId(id)) {
+            List<Venda> removidas = jdbcTemplate.query("SELECT " + COLUNAS + " FROM OLD TABLE (DELETE FROM "
+                    + particao.getTabela() + " WHERE id = ?)", mapeadorVenda, id);
+            if (!removidas.isEmpty()) {
+                jdbcTemplate.update(DESCONTAR_LINHAS, 1, particao.getMes());
+                return Optional.of(removidas.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Apaga das partições seladas as vendas do intervalo. As tabelas não são removidas aqui:
+     * no H2, um DROP TABLE confirmaria a transação da remoção em lote. Meses inteiros devem ser
+     * descartados com {@link #removerParticao}. Deve ser chamado dentro da transação da remoção.
+     *
+     * @return Quantidade de vendas removidas.
+     */
+    public long removerPorPeriodo(LocalDate inicio, LocalDate fim) {
+        long removidas = 0;
+        for (ParticaoVenda particao : particoesSobrepostas(inicio, fim)) {
+            Filtro filtro = filtro(particao, inicio, fim);
+            int linhas = jdbcTemplate.update("DELETE FROM " + particao.getTabela() + filtro.where(), filtro.parametros());
+            if (linhas > 0) {
+                jdbcTemplate.update(DESCONTAR_LINHAS, linhas, particao.getMes());
+                removidas += linhas;
+            }
+        }
+        return removidas;
+    }
+
+    /**
+     * Devolve à tabela ativa uma venda selada, para que possa ser alterada ou removida.
+     * Deve ser chamado dentro da transação da alteração.
+     * <p>
+     * Como em {@link #selarMes}, o INSERT copia a linha que o próprio DELETE removeu. Duas
+     * requisições concorrentes sobre a mesma venda não a copiam duas vezes: a segunda espera o
+     * lock da linha e, depois do commit da primeira, não remove nada e recebe false.
+     *
+     * @return true se a venda foi movida de alguma partição.
+     */
+    public boolean trazerParaTabelaAtiva(Long id) {
+        for (ParticaoVenda particao : particaoRepository.buscarPorFaixaDeId(id)) {
+            int movidas = jdbcTemplate.update("INSERT INTO venda (" + COLUNAS + ") SELECT " + COLUNAS
+                    + " FROM OLD TABLE (DELETE FROM " + particao.getTabela() + " WHERE id = ?)", id);
+            if (movidas > 0) {
+                jdbcTemplate.update(DESCONTAR_LINHAS, 1, particao.getMes());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ParticaoVenda> particoesSobrepostas(LocalDate inicio, LocalDate fim) {
+        return particaoRepository.buscarSobrepostas(inicio.withDayOfMonth(1), fim.withDayOfMonth(1));
+    }
+
+    private record Filtro(String where, Object[] parametros) {}
+
+    // Se o intervalo cobre o mês inteiro, a partição é lida sem predicado de data
+    private static Filtro filtro(ParticaoVenda particao, LocalDate inicio, LocalDate fim) {
+        LocalDate primeiroDia = particao.getMes();
+        LocalDate ultimoDia = YearMonth.from(primeiroDia).atEndOfMonth();
+        if (!inicio.isAfter(primeiroDia) && !fim.isBefore(ultimoDia)) {
+            return new Filtro(" WHERE 1 = 1", new Object[0]);
+        }
+        return new Filtro(" WHERE data_venda BETWEEN ? AND ?",
+                new Object[]{inicio.isAfter(primeiroDia) ? inicio : primeiroDia, fim.isBefore(ultimoDia) ? fim : ultimoDia});
+    }
+
+    private <T> List<T> consultarParticao(ParticaoVenda particao, LocalDate inicio, LocalDate fim, String sufixo,
+                                          RowMapper<T> mapeador, Object... extras) {
+        return consultarParticao(particao, inicio, fim, sufixo, "SELECT " + COLUNAS, mapeador, extras);
+    }
+
+    private <T> List<T> consultarParticao(ParticaoVenda particao, LocalDate inicio, LocalDate fim, String sufixo,
+                                          String select, RowMapper<T> mapeador, Object... extras) {
+        Filtro filtro = filtro(particao, inicio, fim);
+        return jdbcTemplate.query(select + " FROM " + particao.getTabela() + filtro.where() + sufixo,
+                mapeador, concatenar(filtro.parametros(), extras));
+    }
+
+    private static Object[] concatenar(Object[] a, Object[] b) {
+        Object[] resultado = new Object[a.length + b.length];
+        System.arraycopy(a, 0, resultado, 0, a.length);
+        System.arraycopy(b, 0, resultado, a.length, b.length);
+        return resultado;
+    }
+
+    private static String nomeTabela(YearMonth mes) {
+        return TABELA_ATIVA + "_" + SUFIXO_TABELA.format(mes);
+    }
+
+    private static Instant instante(OffsetDateTime valor) {
+        return valor != null ? valor.toInstant() : null;
+    }
+
+    private static Instant maisRecente(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+
+    private static Long maior(Long a, Long b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b > a ? b : a;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdownNow();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.desafio_vendas.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public enum PeriodoAgregacao {
+    DIA,
+    SEMANA,
+    MES;
+
+    /**
+     * Retorna a data que identifica o período ao qual a data informada pertence.
+     */
+    public LocalDate inicioDoPeriodo(LocalDate data) {
+        return switch (this) {
+            case DIA -> data;
+            case SEMANA -> data.with(DayOfWeek.MONDAY);
+            case MES -> data.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.desafio_vendas.service;
+
+import java.time.YearMonth;
+
+/**
+ * Períodos dos relatórios materializados. Todo período é formado por meses inteiros,
+ * a unidade de cálculo do {@link RelatorioVendaService}.
+ */
+public enum PeriodoRelatorio {
+    MES(1),
+    TRIMESTRE(3);
+
+    private final int meses;
+
+    PeriodoRelatorio(int meses) {
+        this.meses = meses;
+    }
+
+    public int getMeses() {
+        return meses;
+    }
+
+    /**
+     * Retorna o primeiro mês do período ao qual o mês informado pertence.
+     */
+    public YearMonth primeiroMes(YearMonth mes) {
+        int indice = (mes.getMonthValue() - 1) / meses * meses;
+        return YearMonth.of(mes.getYear(), indice + 1);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.config.CapturaSql;
+import com.example.desafio_vendas.dto.PlanoConsultaDTO;
+import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.ResumoVendaDiariaRepository;
+import com.example.desafio_vendas.repository.VendaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Captura o plano de execução (EXPLAIN) do H2 para cada consulta dos repositórios e dos serviços,
+ * permitindo detectar quando uma delas volta a varrer a tabela inteira. O SQL dos repositórios é o que o
+ * Hibernate gera de fato, capturado pelo {@link CapturaSql} ao chamar cada método; o dos serviços vem das
+ * constantes que eles executam.
+ */
+@Service
+public class PlanoConsultaService {
+
+    private record Consulta(String nome, String sql, boolean varreduraEsperada) {}
+
+    private record ConsultaRepositorio(String nome, boolean varreduraEsperada, Runnable chamada) {}
+
+    // Marcador que o H2 escreve no plano quando nenhum índice é usado
+    private static final String MARCADOR_VARREDURA = "tableScan";
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 1, 31);
+    private static final List<Long> PRODUTOS = List.of(1L, 2L, 3L);
+
+    private static final List<Consulta> CONSULTAS_SERVICOS = List.of(
+            new Consulta("VendaService.DELETAR_POR_ID", VendaService.DELETAR_POR_ID, false),
+            new Consulta("VendaService.ATUALIZAR_COM_VERSAO", VendaService.ATUALIZAR_COM_VERSAO, false),
+            new Consulta("VendaService.DELETAR_POR_PERIODO", VendaService.DELETAR_POR_PERIODO, false),
+            new Consulta("AgregacaoVendaService.ACUMULAR", AgregacaoVendaService.ACUMULAR, false),
+            new Consulta("CatalogoProdutoService.CRIAR_SE_AUSENTE", CatalogoProdutoService.CRIAR_SE_AUSENTE, false),
+            new Consulta("CatalogoProdutoService.BUSCAR_ID_POR_NOME", CatalogoProdutoService.BUSCAR_ID_POR_NOME, false)
+    );
+
+    private final List<ConsultaRepositorio> consultasRepositorios;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CapturaSql capturaSql;
+    private final TransactionTemplate leitura;
+
+    @Autowired
+    public PlanoConsultaService(JdbcTemplate jdbcTemplate, CapturaSql capturaSql,
+                                PlatformTransactionManager transactionManager,
+                                VendaRepository vendaRepository, ResumoVendaDiariaRepository resumoRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capturaSql = capturaSql;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.consultasRepositorios = List.of(
+                new ConsultaRepositorio("VendaRepository.listarTodas", true,
+                        vendaRepository::listarTodas),
+                new ConsultaRepositorio("VendaRepository.listarPorPeriodo", false,
+                        () -> vendaRepository.listarPorPeriodo(INICIO, FIM)),
+                new ConsultaRepositorio("VendaRepository.listarPorProdutos", false,
+                        () -> vendaRepository.listarPorProdutos(PRODUTOS)),
+                new ConsultaRepositorio("VendaRepository.listarPorProdutosEPeriodo", false,
+                        () -> vendaRepository.listarPorProdutosEPeriodo(PRODUTOS, INICIO, FIM)),
+                new ConsultaRepositorio("VendaRepository.buscarDTOPorId", false,
+                        () -> vendaRepository.buscarDTOPorId(1L)),
+                new ConsultaRepositorio("VendaRepository.buscarVersao", false,
+                        () -> vendaRepository.buscarVersao(1L)),
+                new ConsultaRepositorio("VendaRepository.buscarPrimeiraPagina", false,
+                        () -> vendaRepository.buscarPrimeiraPagina(INICIO, FIM, PageRequest.ofSize(101))),
+                new ConsultaRepositorio("VendaRepository.buscarPaginaApos", false,
+                        () -> vendaRepository.buscarPaginaApos(INICIO, FIM, INICIO, 100L, PageRequest.ofSize(101))),
+                new ConsultaRepositorio("VendaRepository.streamPorPeriodo", false, () -> {
+                    try (Stream<Venda> vendas = vendaRepository.streamPorPeriodo(INICIO, FIM)) {
+                        vendas.findFirst();
+                    }
+                }),
+                new ConsultaRepositorio("VendaRepository.agruparPorDiaEProduto", false,
+                        () -> vendaRepository.agruparPorDiaEProduto(INICIO, FIM)),
+                new ConsultaRepositorio("VendaRepository.estadoPorPeriodo", false,
+                        () -> vendaRepository.estadoPorPeriodo(INICIO, FIM)),
+                new ConsultaRepositorio("VendaRepository.estadoCompleto", true,
+                        vendaRepository::estadoCompleto),
+                new ConsultaRepositorio("ResumoVendaDiariaRepository.buscarPorPeriodo", false,
+                        () -> resumoRepository.buscarPorPeriodo(INICIO, FIM))
+        );
+    }
+
+    /**
+     * Executa EXPLAIN para cada consulta conhecida.
+     *
+     * @return O plano de cada consulta e se ele varre a tabela inteira.
+     */
+    public List<PlanoConsultaDTO> explicarConsultas() {
+        Stream<Consulta> repositorios = consultasRepositorios.stream()
+                .map(consulta -> new Consulta(consulta.nome(), capturar(consulta.chamada()), consulta.varreduraEsperada()));
+        return Stream.concat(repositorios, CONSULTAS_SERVICOS.stream())
+                .map(this::explicar)
+                .toList();
+    }
+
+    private String capturar(Runnable chamada) {
+        return leitura.execute(status -> {
+            // O SQL não chega ao banco, mas a transação é desfeita sem acusar a exceção da captura
+            status.setRollbackOnly();
+            return capturaSql.capturar(chamada);
+        });
+    }
+
+    private PlanoConsultaDTO explicar(Consulta consulta) {
+        // EXPLAIN só planeja: as remoções e alterações não são executadas. O H2 escolhe o índice ao
+        // preparar o comando, sem olhar os valores, então todos os parâmetros vão nulos
+        String plano = jdbcTemplate.query(conexao -> {
+            PreparedStatement comando = conexao.prepareStatement("EXPLAIN " + consulta.sql());
+            int parametros = comando.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametros; i++) {
+                comando.setNull(i, Types.NULL);
+            }
+            return comando;
+        }, resultado -> resultado.next() ? resultado.getString(1) : null);
+        boolean varredura = plano != null && plano.contains(MARCADOR_VARREDURA);
+        return new PlanoConsultaDTO(consulta.nome(), consulta.sql(), plano, varredura, consulta.varreduraEsperada());
+    }
+
+    /**
+     * @return Apenas as consultas filtradas que passaram a varrer a tabela inteira.
+     */
+    public List<PlanoConsultaDTO> consultasComVarreduraInesperada() {
+        return explicarConsultas().stream()
+                .filter(plano -> plano.isVarreduraCompleta() && !plano.isVarreduraEsperada())
+                .toList();
+    }
+}
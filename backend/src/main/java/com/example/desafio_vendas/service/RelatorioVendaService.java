@@ -0,0 +1,445 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.ExecucaoRelatorioDTO;
+import com.example.desafio_vendas.dto.RelatorioVendasDTO;
+import com.example.desafio_vendas.dto.ResumoDiarioDTO;
+import com.example.desafio_vendas.dto.TotalProdutoDTO;
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import com.example.desafio_vendas.model.ProdutoRelatorio;
+import com.example.desafio_vendas.model.RelatorioVendas;
+import com.example.desafio_vendas.model.RelatorioVendasId;
+import com.example.desafio_vendas.repository.RelatorioVendasRepository;
+import com.example.desafio_vendas.repository.VendaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Relatórios de vendas por mês e trimestre (faturamento, itens, ticket médio e produtos de maior
+ * faturamento), calculados em segundo plano e gravados em relatorio_vendas. GET /relatorios só lê
+ * o resultado pronto.
+ * <p>
+ * Cada mês é um bloco, lido da tabela de vendas e das partições seladas com GROUP BY, em paralelo
+ * num pool de tamanho fixo. Toda alteração que passa pelo resumo diário marca o seu mês, e as
+ * execuções seguintes recalculam só os meses marcados e os trimestres que os contêm. As marcas
+ * ficam em memória; por isso a primeira execução depois da subida é completa.
+ */
+@Service
+public class RelatorioVendaService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatorioVendaService.class);
+
+    // Remoções de intervalos maiores que isto marcam tudo em vez de mês a mês
+    private static final long MAXIMO_MESES_MARCADOS = 1200;
+
+    private static final class Totais {
+        long vendas;
+        long itens;
+        BigDecimal valor = BigDecimal.ZERO;
+
+        void somar(long vendas, long itens, BigDecimal valor) {
+            this.vendas += vendas;
+            this.itens += itens;
+            this.valor = this.valor.add(valor != null ? valor : BigDecimal.ZERO);
+        }
+    }
+
+    private final VendaRepository vendaRepository;
+    private final RelatorioVendasRepository relatorioRepository;
+    // Resolvido a cada execução: o particionamento depende da agregação, que depende deste serviço
+    private final ObjectProvider<ParticionamentoVendaService> particionamento;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate leitura;
+    private final MeterRegistry registry;
+    private final Timer tempoBloco;
+    private final int topProdutos;
+    private final boolean agendamentoHabilitado;
+
+    private final ExecutorService blocos;
+    private final ExecutorService coordenador = Executors.newSingleThreadExecutor(); // uma execução por vez
+    private final ScheduledExecutorService agendador; // null sem agendamento
+
+    private final Set<YearMonth> mesesAlterados = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean recalcularTudo = new AtomicBoolean(true);
+    private final AtomicInteger blocosTotal = new AtomicInteger();
+    private final AtomicInteger blocosConcluidos = new AtomicInteger();
+    private volatile ExecucaoRelatorioDTO ultimaExecucao =
+            new ExecucaoRelatorioDTO("OCIOSA", false, 0, 0, 0, null, null, null);
+    private boolean execucaoNaFila; // protegido por this: no máximo uma execução espera a atual
+
+    @Autowired
+    public RelatorioVendaService(VendaRepository vendaRepository, RelatorioVendasRepository relatorioRepository,
+                                 ObjectProvider<ParticionamentoVendaService> particionamento,
+                                 PlatformTransactionManager transactionManager, MeterRegistry registry,
+                                 @Value("${vendas.relatorios.threads:4}") int threads,
+                                 @Value("${vendas.relatorios.top-produtos:5}") int topProdutos,
+                                 @Value("${vendas.relatorios.agendamento.habilitado:true}") boolean agendamentoHabilitado,
+                                 @Value("${vendas.relatorios.agendamento.intervalo:15m}") Duration intervalo) {
+        this.vendaRepository = vendaRepository;
+        this.relatorioRepository = relatorioRepository;
+        this.particionamento = particionamento;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        this.registry = registry;
+        this.topProdutos = topProdutos;
+        this.agendamentoHabilitado = agendamentoHabilitado;
+        this.blocos = Executors.newFixedThreadPool(threads);
+        this.tempoBloco = Timer.builder("vendas.relatorios.bloco")
+                .description("Tempo de leitura de um mês de vendas pelo cálculo de relatórios")
+                .register(registry);
+
+        Gauge.builder("vendas.relatorios.progresso", this,
+                        s -> s.blocosTotal.get() == 0 ? 1.0 : (double) s.blocosConcluidos.get() / s.blocosTotal.get())
+                .description("Fração dos meses já lidos na execução atual (ou na última) do cálculo de relatórios")
+                .register(registry);
+        Gauge.builder("vendas.relatorios.meses.pendentes", mesesAlterados, Set::size)
+                .description("Meses alterados desde a última execução, ainda não recalculados")
+                .register(registry);
+
+        if (agendamentoHabilitado) {
+            long intervaloMillis = intervalo.toMillis();
+            agendador = Executors.newSingleThreadScheduledExecutor();
+            agendador.scheduleWithFixedDelay(() -> solicitarExecucao(false), intervaloMillis, intervaloMillis, TimeUnit.MILLISECONDS);
+        } else {
+            agendador = null;
+        }
+    }
+
+    // A primeira execução (completa) não espera o intervalo do agendamento
+    @EventListener(ApplicationReadyEvent.class)
+    public void calcularNaSubida() {
+        if (agendamentoHabilitado) {
+            solicitarExecucao(false);
+        }
+    }
+
+    /**
+     * Marca os meses das datas alteradas para a próxima execução. A marca é repetida quando a
+     * transação termina: uma execução que leu os dados antes do commit não a consome de vez.
+     */
+    public void marcarAlteracao(Collection<LocalDate> datas) {
+        Set<YearMonth> meses = datas.stream()
+                .filter(data -> data != null)
+                .map(YearMonth::from)
+                .collect(Collectors.toSet());
+        if (meses.isEmpty()) {
+            return;
+        }
+        mesesAlterados.addAll(meses);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    mesesAlterados.addAll(meses);
+                }
+            });
+        }
+    }
+
+    public void marcarAlteracao(LocalDate data) {
+        if (data != null) {
+            marcarAlteracao(List.of(data));
+        }
+    }
+
+    public void marcarPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        YearMonth primeiro = YearMonth.from(dataInicio);
+        YearMonth ultimo = YearMonth.from(dataFim);
+        if (ChronoUnit.MONTHS.between(primeiro, ultimo) > MAXIMO_MESES_MARCADOS) {
+            marcarTudo();
+            return;
+        }
+        List<LocalDate> meses = new ArrayList<>();
+        for (YearMonth mes = primeiro; !mes.isAfter(ultimo); mes = mes.plusMonths(1)) {
+            meses.add(mes.atDay(1));
+        }
+        marcarAlteracao(meses);
+    }
+
+    public void marcarTudo() {
+        recalcularTudo.set(true);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recalcularTudo.set(true);
+                }
+            });
+        }
+    }
+
+    /**
+     * Enfileira uma execução, a menos que já haja uma esperando a atual terminar.
+     *
+     * @param completa Se true, recalcula todos os meses, não só os alterados.
+     * @return A situação da execução atual ou da última.
+     */
+    public synchronized ExecucaoRelatorioDTO solicitarExecucao(boolean completa) {
+        if (completa) {
+            recalcularTudo.set(true);
+        }
+        if (!execucaoNaFila) {
+            execucaoNaFila = true;
+            coordenador.execute(this::executar);
+        }
+        return situacao();
+    }
+
+    public ExecucaoRelatorioDTO situacao() {
+        ExecucaoRelatorioDTO execucao = ultimaExecucao;
+        if (!"EXECUTANDO".equals(execucao.getEstado())) {
+            return execucao;
+        }
+        return new ExecucaoRelatorioDTO(execucao.getEstado(), execucao.isCompleta(), execucao.getBlocosTotal(),
+                blocosConcluidos.get(), 0, execucao.getIniciadaEm(), null, null);
+    }
+
+    /**
+     * Relatórios já calculados cujo início está no intervalo, em ordem cronológica.
+     */
+    @Transactional(readOnly = true)
+    public List<RelatorioVendasDTO> listarRelatorios(PeriodoRelatorio periodo, LocalDate dataInicio, LocalDate dataFim) {
+        LocalDate inicio = dataInicio != null ? dataInicio : VendaService.DATA_MINIMA;
+        LocalDate fim = dataFim != null ? dataFim : VendaService.DATA_MAXIMA;
+        if (inicio.isAfter(fim)) {
+            throw new RequisicaoInvalidaException("A data de início deve ser anterior ou igual à data de fim.");
+        }
+        return relatorioRepository.buscarPorPeriodo(periodo.name(), inicio, fim).stream()
+                .map(RelatorioVendasDTO::de)
+                .toList();
+    }
+
+    private void executar() {
+        synchronized (this) {
+            execucaoNaFila = false;
+        }
+        // As marcas são retiradas antes de ler o banco: uma venda gravada durante a execução marca o mês de
+        // novo. Daqui em diante, qualquer falha (inclusive ao listar os meses) as devolve no catch
+        boolean completa = recalcularTudo.getAndSet(false);
+        Set<YearMonth> marcados = retirarMarcados();
+        TreeSet<YearMonth> lidos = new TreeSet<>();
+        Instant iniciadaEm = Instant.now();
+        long inicio = System.nanoTime();
+        try {
+            Set<YearMonth> meses = completa ? todosOsMeses() : marcados;
+            if (meses.isEmpty()) {
+                return;
+            }
+
+            // Um trimestre é sempre recalculado a partir dos seus três meses
+            for (YearMonth mes : meses) {
+                YearMonth primeiro = PeriodoRelatorio.TRIMESTRE.primeiroMes(mes);
+                for (int i = 0; i < PeriodoRelatorio.TRIMESTRE.getMeses(); i++) {
+                    lidos.add(primeiro.plusMonths(i));
+                }
+            }
+
+            blocosConcluidos.set(0);
+            blocosTotal.set(lidos.size());
+            ultimaExecucao = new ExecucaoRelatorioDTO("EXECUTANDO", completa, lidos.size(), 0, 0, iniciadaEm, null, null);
+            Map<YearMonth, Map<String, Totais>> porMes = lerMeses(lidos);
+            Instant geradoEm = Instant.now();
+            List<RelatorioVendas> relatorios = new ArrayList<>();
+            List<RelatorioVendasId> vazios = new ArrayList<>();
+            for (YearMonth mes : lidos) {
+                montar(PeriodoRelatorio.MES, mes, porMes, geradoEm, relatorios, vazios);
+                if (mes.equals(PeriodoRelatorio.TRIMESTRE.primeiroMes(mes))) {
+                    montar(PeriodoRelatorio.TRIMESTRE, mes, porMes, geradoEm, relatorios, vazios);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                relatorioRepository.deleteAllById(vazios);
+                relatorioRepository.saveAll(relatorios);
+            });
+
+            long duracao = System.nanoTime() - inicio;
+            registrarDuracao(completa, "sucesso", duracao);
+            ultimaExecucao = new ExecucaoRelatorioDTO("CONCLUIDA", completa, lidos.size(), blocosConcluidos.get(),
+                    relatorios.size(), iniciadaEm, duracao / 1_000_000, null);
+            log.info("Relatórios recalculados ({}): {} meses lidos, {} relatórios gravados, {} removidos, {} ms",
+                    completa ? "completo" : "incremental", lidos.size(), relatorios.size(), vazios.size(), duracao / 1_000_000);
+        } catch (RuntimeException e) {
+            // As marcas voltam para a próxima execução
+            if (completa) {
+                recalcularTudo.set(true);
+            }
+            mesesAlterados.addAll(marcados);
+            long duracao = System.nanoTime() - inicio;
+            registrarDuracao(completa, "falha", duracao);
+            // Sem meses lidos, a falha foi antes da leitura e o contador de blocos ainda é o da execução anterior
+            ultimaExecucao = new ExecucaoRelatorioDTO("FALHOU", completa, lidos.size(), lidos.isEmpty() ? 0 : blocosConcluidos.get(), 0,
+                    iniciadaEm, duracao / 1_000_000, e.getMessage());
+            log.error("Falha ao recalcular os relatórios de vendas", e);
+        }
+    }
+
+    private Set<YearMonth> retirarMarcados() {
+        Set<YearMonth> marcados = new TreeSet<>();
+        for (YearMonth mes : mesesAlterados) {
+            if (mesesAlterados.remove(mes)) {
+                marcados.add(mes);
+            }
+        }
+        return marcados;
+    }
+
+    /**
+     * Meses entre a venda mais antiga e a mais recente, os das partições e os que já têm
+     * relatório (que podem ter ficado sem vendas e precisam ser apagados).
+     */
+    private Set<YearMonth> todosOsMeses() {
+        Set<YearMonth> meses = new TreeSet<>();
+        LocalDate menor = vendaRepository.menorDataVenda();
+        LocalDate maior = vendaRepository.maiorDataVenda();
+        if (menor != null && maior != null) {
+            for (YearMonth mes = YearMonth.from(menor); !mes.isAfter(YearMonth.from(maior)); mes = mes.plusMonths(1)) {
+                meses.add(mes);
+            }
+        }
+        ParticionamentoVendaService particoes = particionamento.getIfAvailable();
+        if (particoes != null) {
+            particoes.listarParticoes().forEach(particao -> meses.add(YearMonth.from(particao.getMes())));
+        }
+        relatorioRepository.listarInicios(PeriodoRelatorio.MES.name()).forEach(inicio -> meses.add(YearMonth.from(inicio)));
+        return meses;
+    }
+
+    private Map<YearMonth, Map<String, Totais>> lerMeses(Collection<YearMonth> meses) {
+        Map<YearMonth, Future<Map<String, Totais>>> tarefas = new LinkedHashMap<>();
+        for (YearMonth mes : meses) {
+            tarefas.put(mes, blocos.submit(() -> lerMes(mes)));
+        }
+        Map<YearMonth, Map<String, Totais>> porMes = new HashMap<>();
+        try {
+            for (Map.Entry<YearMonth, Future<Map<String, Totais>>> tarefa : tarefas.entrySet()) {
+                porMes.put(tarefa.getKey(), tarefa.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo de relatórios interrompido.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao ler as vendas de um mês.", e.getCause());
+        } finally {
+            tarefas.values().forEach(tarefa -> tarefa.cancel(true));
+        }
+        return porMes;
+    }
+
+    private Map<String, Totais> lerMes(YearMonth mes) {
+        long inicio = System.nanoTime();
+        LocalDate primeiroDia = mes.atDay(1);
+        LocalDate ultimoDia = mes.atEndOfMonth();
+        Map<String, Totais> porProduto = new HashMap<>();
+        leitura.executeWithoutResult(status -> {
+            for (ResumoDiarioDTO resumo : vendaRepository.agruparPorDiaEProduto(primeiroDia, ultimoDia)) {
+                porProduto.computeIfAbsent(resumo.getNomeProduto(), nome -> new Totais())
+                        .somar(valorOuZero(resumo.getQuantidadeVendas()), valorOuZero(resumo.getQuantidadeItens()), resumo.getValorTotal());
+            }
+            ParticionamentoVendaService particoes = particionamento.getIfAvailable();
+            if (particoes != null) {
+                for (TotalProdutoDTO total : particoes.agruparPorProduto(primeiroDia, ultimoDia)) {
+                    porProduto.computeIfAbsent(total.getNomeProduto(), nome -> new Totais())
+                            .somar(total.getQuantidadeVendas(), total.getQuantidadeItens(), total.getValorTotal());
+                }
+            }
+        });
+        blocosConcluidos.incrementAndGet();
+        tempoBloco.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return porProduto;
+    }
+
+    private void montar(PeriodoRelatorio periodo, YearMonth primeiroMes, Map<YearMonth, Map<String, Totais>> porMes,
+                        Instant geradoEm, List<RelatorioVendas> relatorios, List<RelatorioVendasId> vazios) {
+        Map<String, Totais> porProduto = new HashMap<>();
+        Totais geral = new Totais();
+        for (int i = 0; i < periodo.getMeses(); i++) {
+            porMes.getOrDefault(primeiroMes.plusMonths(i), Map.of()).forEach((nome, totais) -> {
+                porProduto.computeIfAbsent(nome, n -> new Totais()).somar(totais.vendas, totais.itens, totais.valor);
+                geral.somar(totais.vendas, totais.itens, totais.valor);
+            });
+        }
+
+        RelatorioVendasId id = new RelatorioVendasId(periodo.name(), primeiroMes.atDay(1));
+        if (geral.vendas == 0) {
+            vazios.add(id);
+            return;
+        }
+        List<ProdutoRelatorio> top = porProduto.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, Totais> e) -> e.getValue().valor).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(topProdutos)
+                .map(e -> new ProdutoRelatorio(e.getKey(), e.getValue().itens, e.getValue().valor))
+                .collect(Collectors.toCollection(ArrayList::new));
+        relatorios.add(new RelatorioVendas(id,
+                primeiroMes.plusMonths(periodo.getMeses() - 1L).atEndOfMonth(),
+                geral.vendas,
+                geral.itens,
+                geral.valor,
+                geral.valor.divide(BigDecimal.valueOf(geral.vendas), 2, RoundingMode.HALF_UP),
+                top,
+                geradoEm));
+    }
+
+    private void registrarDuracao(boolean completa, String resultado, long nanos) {
+        Timer.builder("vendas.relatorios.execucao")
+                .description("Duração das execuções do cálculo de relatórios")
+                .tags("tipo", completa ? "completa" : "incremental", "resultado", resultado)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static long valorOuZero(Long valor) {
+        return valor != null ? valor : 0L;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        coordenador.shutdownNow();
+        blocos.shutdownNow();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.model.Produto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Popula o banco com um volume de vendas próximo ao de produção, para reproduzir localmente
+ * problemas de desempenho. As vendas vêm do {@link GeradorVendas} e são inseridas por JDBC
+ * em lotes, com vários blocos em paralelo, cada um na sua transação.
+ */
+@Service
+public class SemeaduraVendaService {
+
+    public record ResultadoSemeadura(long linhas, Duration duracao, double linhasPorSegundo) {}
+
+    private static final Logger log = LoggerFactory.getLogger(SemeaduraVendaService.class);
+
+    private static final String INSERIR_VENDA = "INSERT INTO venda "
+            + "(id, produto_id, quantidade_vendida, data_venda, valor_total, versao, ultima_alteracao) "
+            + "VALUES (?, ?, ?, ?, ?, 0, CURRENT_TIMESTAMP)";
+    private static final int TAMANHO_LOTE_JDBC = 1000;
+    private static final int ALOCACAO_SEQUENCIA = 50; // allocationSize de Venda
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogoProdutoService catalogoProdutoService;
+
+    @Value("${vendas.semeadura.semente:42}")
+    private long semente;
+
+    @Value("${vendas.semeadura.produtos:500}")
+    private int produtos;
+
+    @Value("${vendas.semeadura.dias:730}")
+    private int dias;
+
+    @Value("${vendas.semeadura.threads:4}")
+    private int threads;
+
+    @Value("${vendas.semeadura.tamanho-bloco:50000}")
+    private int tamanhoBloco;
+
+    @Autowired
+    public SemeaduraVendaService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 CatalogoProdutoService catalogoProdutoService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogoProdutoService = catalogoProdutoService;
+    }
+
+    public GeradorVendas criarGerador() {
+        return new GeradorVendas(semente, produtos, dias, LocalDate.now());
+    }
+
+    /**
+     * Insere {@code linhas} vendas geradas. Os IDs são reservados de uma vez acima do maior ID
+     * existente e a sequência é avançada no fim, para que as próximas vendas não colidam.
+     * O resumo diário e as demais estruturas derivadas não são atualizados aqui.
+     */
+    public ResultadoSemeadura semear(long linhas) {
+        GeradorVendas gerador = criarGerador();
+        long[] idsProdutos = new long[gerador.quantidadeProdutos()];
+        for (int i = 0; i < idsProdutos.length; i++) {
+            Produto produto = catalogoProdutoService.obterOuCriar(gerador.nomeProduto(i));
+            idsProdutos[i] = produto.getId();
+        }
+
+        long primeiroId = reservarIds(linhas);
+        long blocos = (linhas + tamanhoBloco - 1) / tamanhoBloco;
+        long inicio = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (long bloco = 0; bloco < blocos; bloco++) {
+                long deslocamento = bloco * tamanhoBloco;
+                int tamanho = (int) Math.min(tamanhoBloco, linhas - deslocamento);
+                long indiceBloco = bloco;
+                tarefas.add(executor.submit(() -> inserirBloco(gerador, idsProdutos, indiceBloco, primeiroId + deslocamento, tamanho)));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Semeadura interrompida.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao inserir vendas geradas.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        double linhasPorSegundo = linhas / Math.max(duracao.toNanos() / 1e9, 1e-9);
+        log.info("Semeadura: {} vendas de {} produtos em {} ms ({} linhas/s, {} threads)",
+                linhas, idsProdutos.length, duracao.toMillis(), Math.round(linhasPorSegundo), threads);
+        return new ResultadoSemeadura(linhas, duracao, linhasPorSegundo);
+    }
+
+    private void inserirBloco(GeradorVendas gerador, long[] idsProdutos, long bloco, long primeiroId, int tamanho) {
+        SplittableRandom aleatorio = gerador.aleatorio(bloco);
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE_JDBC);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < tamanho; i++) {
+                GeradorVendas.VendaGerada venda = gerador.proxima(aleatorio);
+                lote.add(new Object[]{primeiroId + i, idsProdutos[venda.produto()], venda.quantidade(),
+                        Date.valueOf(venda.data()), venda.valorTotal()});
+                if (lote.size() == TAMANHO_LOTE_JDBC) {
+                    jdbcTemplate.batchUpdate(INSERIR_VENDA, lote);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERIR_VENDA, lote);
+            }
+        });
+    }
+
+    /**
+     * @return O primeiro de {@code quantidade} IDs livres e consecutivos.
+     */
+    private long reservarIds(long quantidade) {
+        // Qualquer bloco já entregue ao Hibernate termina antes do próximo valor da sequência
+        Long proximoSequencia = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR venda_seq", Long.class);
+        Long maiorId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM venda", Long.class);
+        long primeiroId = Math.max(proximoSequencia, maiorId) + 1;
+        // Com o otimizador "pooled", o valor lido da sequência é o fim do próximo bloco de IDs
+        long reinicio = primeiroId + quantidade + ALOCACAO_SEQUENCIA;
+        jdbcTemplate.execute("ALTER SEQUENCE venda_seq RESTART WITH " + reinicio);
+        return primeiroId;
+    }
+}
@@ -1,22 +1,88 @@
 package com.example.desafio_vendas.service;
 
+import com.example.desafio_vendas.dto.AtualizarVendaDTO;
+import com.example.desafio_vendas.dto.EstadoListagemDTO;
+import com.example.desafio_vendas.dto.PaginaVendasDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.exception.ConflitoVersaoException;
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
 import com.example.desafio_vendas.exception.ResourceNotFoundException;
+import com.example.desafio_vendas.model.Produto;
 import com.example.desafio_vendas.model.Venda;
 import com.example.desafio_vendas.repository.VendaRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Types;
+import java.time.Instant;
 import java.time.LocalDate; 
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class VendaService {
 
+    // Limites usados quando o cliente não informa uma das pontas do intervalo
+    static final LocalDate DATA_MINIMA = LocalDate.of(1, 1, 1);
+    static final LocalDate DATA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+    static final int TAMANHO_PAGINA_PADRAO = 100;
+    static final int TAMANHO_PAGINA_MAXIMO = 1000;
+
+    // Cada mutação é um único comando que devolve a linha anterior (tabela delta OLD TABLE do H2),
+    // sem consulta prévia: a existência e a versão são decididas pelo próprio DELETE/UPDATE
+    static final String DELETAR_POR_ID = "SELECT " + MapeadorVenda.COLUNAS
+            + " FROM OLD TABLE (DELETE FROM venda WHERE id = ?)";
+    static final String ATUALIZAR_COM_VERSAO = "SELECT " + MapeadorVenda.COLUNAS
+            + " FROM OLD TABLE (UPDATE venda SET produto_id = COALESCE(?, produto_id), "
+            + "quantidade_vendida = COALESCE(?, quantidade_vendida), data_venda = COALESCE(?, data_venda), "
+            + "valor_total = COALESCE(?, valor_total), versao = COALESCE(versao, 0) + 1, ultima_alteracao = ? "
+            + "WHERE id = ? AND COALESCE(versao, 0) = ?)";
+    static final String DELETAR_POR_PERIODO = "DELETE FROM venda WHERE data_venda BETWEEN ? AND ?";
+
     private final VendaRepository vendaRepository;
+    private final AgregacaoVendaService agregacaoVendaService;
+    private final MetricasVendas metricasVendas;
+    private final CacheVendas cacheVendas;
+    private final FeedVendasService feedVendasService;
+    private final AnaliseColunarService analiseColunarService;
+    private final ParticionamentoVendaService particionamento; // null quando o particionamento está desabilitado
+    private final CatalogoProdutoService catalogoProdutoService;
+    private final JdbcTemplate jdbcTemplate;
+    private final MapeadorVenda mapeadorVenda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public VendaService(VendaRepository vendaRepository) {
+    public VendaService(VendaRepository vendaRepository, AgregacaoVendaService agregacaoVendaService,
+                        MetricasVendas metricasVendas, CacheVendas cacheVendas,
+                        FeedVendasService feedVendasService, AnaliseColunarService analiseColunarService,
+                        ObjectProvider<ParticionamentoVendaService> particionamento,
+                        CatalogoProdutoService catalogoProdutoService, JdbcTemplate jdbcTemplate) {
         this.vendaRepository = vendaRepository;
+        this.agregacaoVendaService = agregacaoVendaService;
+        this.metricasVendas = metricasVendas;
+        this.cacheVendas = cacheVendas;
+        this.feedVendasService = feedVendasService;
+        this.analiseColunarService = analiseColunarService;
+        this.particionamento = particionamento.getIfAvailable();
+        this.catalogoProdutoService = catalogoProdutoService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mapeadorVenda = new MapeadorVenda(catalogoProdutoService);
     }
 
     /**
@@ -26,44 +92,317 @@ public class VendaService {
      * @param dataFim    Data de fim para o filtro (pode ser null).
      * @return Lista de vendas filtrada ou todas as vendas se nenhum filtro for aplicado.
      */
-    public List<Venda> listarVendasComFiltro(LocalDate dataInicio, LocalDate dataFim) {
-        if (dataInicio != null && dataFim != null) {
-            // Se ambas as datas são fornecidas, busca no intervalo
-            return vendaRepository.findByDataVendaBetween(dataInicio, dataFim);
-        } else if (dataInicio != null) {
-            // Se apenas a data de início é fornecida, busca a partir dessa data
-            return vendaRepository.findByDataVendaGreaterThanEqual(dataInicio);
-        } else if (dataFim != null) {
-            // Se apenas a data de fim é fornecida, busca até essa data
-            return vendaRepository.findByDataVendaLessThanEqual(dataFim);
+    @Transactional(readOnly = true)
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "listar"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public List<VendaDTO> listarVendasComFiltro(LocalDate dataInicio, LocalDate dataFim) {
+        // Filtros equivalentes (ex.: sem data de início e a partir de DATA_MINIMA) compartilham a mesma entrada no cache
+        List<VendaDTO> vendas = cacheVendas.buscarPorIntervalo(
+                dataInicio != null ? dataInicio : DATA_MINIMA,
+                dataFim != null ? dataFim : DATA_MAXIMA,
+                () -> consultarVendas(dataInicio, dataFim));
+        metricasVendas.registrarLinhasRetornadas("listar", dataInicio, dataFim, vendas.size());
+        return vendas;
+    }
+
+    /**
+     * Como {@link #listarVendasComFiltro(LocalDate, LocalDate)}, só com as vendas dos produtos cujo
+     * nome contém o termo (sem diferenciar maiúsculas nem acentos). Os produtos vêm do índice de
+     * trigramas do catálogo e as vendas do índice de produto_id, sem LIKE sobre a tabela. Termos
+     * variam demais para o cache de listagens, então o resultado não passa por ele.
+     *
+     * @param produto Trecho do nome do produto (null para não filtrar).
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "listar-produto"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public List<VendaDTO> listarVendasComFiltro(LocalDate dataInicio, LocalDate dataFim, String produto) {
+        if (produto == null) {
+            return listarVendasComFiltro(dataInicio, dataFim);
+        }
+        List<Long> produtos = catalogoProdutoService.buscarIdsPorTrecho(produto);
+        List<VendaDTO> vendas = produtos.isEmpty() ? List.of() : consultarVendasPorProdutos(dataInicio, dataFim, produtos);
+        metricasVendas.registrarLinhasRetornadas("listar-produto", dataInicio, dataFim, vendas.size());
+        return vendas;
+    }
+
+    private List<VendaDTO> consultarVendasPorProdutos(LocalDate dataInicio, LocalDate dataFim, List<Long> produtos) {
+        LocalDate inicio = dataInicio != null ? dataInicio : DATA_MINIMA;
+        LocalDate fim = dataFim != null ? dataFim : DATA_MAXIMA;
+        List<VendaDTO> vendas = dataInicio == null && dataFim == null
+                ? vendaRepository.listarPorProdutos(produtos)
+                : vendaRepository.listarPorProdutosEPeriodo(produtos, inicio, fim);
+        if (particionamento != null) {
+            List<VendaDTO> todas = new ArrayList<>();
+            for (Venda venda : particionamento.buscarPorProdutos(inicio, fim, produtos)) {
+                todas.add(VendaDTO.de(venda));
+            }
+            todas.addAll(vendas);
+            return todas;
+        }
+        return vendas;
+    }
+
+    private List<VendaDTO> consultarVendas(LocalDate dataInicio, LocalDate dataFim) {
+        LocalDate inicio = dataInicio != null ? dataInicio : DATA_MINIMA;
+        LocalDate fim = dataFim != null ? dataFim : DATA_MAXIMA;
+        // Sem nenhuma data, a consulta não tem WHERE; com uma só, a ponta aberta usa o limite correspondente
+        List<VendaDTO> vendas = dataInicio == null && dataFim == null
+                ? vendaRepository.listarTodas()
+                : vendaRepository.listarPorPeriodo(inicio, fim);
+        if (particionamento != null) {
+            // A tabela ativa tem só os meses recentes; os demais vêm das partições que sobrepõem o intervalo
+            List<VendaDTO> todas = new ArrayList<>();
+            for (Venda venda : particionamento.buscarPorPeriodo(inicio, fim)) {
+                todas.add(VendaDTO.de(venda));
+            }
+            todas.addAll(vendas);
+            return todas;
+        }
+        return vendas;
+    }
+
+    /**
+     * Calcula o estado do conjunto que listarVendasComFiltro retornaria, sem carregar as vendas.
+     *
+     * @param dataInicio Data de início para o filtro (pode ser null).
+     * @param dataFim    Data de fim para o filtro (pode ser null).
+     * @return Quantidade, soma das versões, última alteração e maior ID do conjunto.
+     */
+    public EstadoListagemDTO estadoDaListagem(LocalDate dataInicio, LocalDate dataFim) {
+        LocalDate inicio = dataInicio != null ? dataInicio : DATA_MINIMA;
+        LocalDate fim = dataFim != null ? dataFim : DATA_MAXIMA;
+        EstadoListagemDTO estado = dataInicio == null && dataFim == null
+                ? vendaRepository.estadoCompleto()
+                : vendaRepository.estadoPorPeriodo(inicio, fim);
+        return particionamento != null ? particionamento.combinar(estado, inicio, fim) : estado;
+    }
+
+    /**
+     * Busca uma página de vendas usando paginação por chave (dataVenda, id).
+     *
+     * @param dataInicio Data de início para o filtro (pode ser null).
+     * @param dataFim    Data de fim para o filtro (pode ser null).
+     * @param cursor     Cursor devolvido pela página anterior (null para a primeira página).
+     * @param limite     Quantidade máxima de itens da página (null usa o padrão).
+     * @return Página com os itens e o cursor da próxima página, se houver.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "listar-pagina"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public PaginaVendasDTO listarPagina(LocalDate dataInicio, LocalDate dataFim, String cursor, Integer limite) {
+        int tamanho = limite == null ? TAMANHO_PAGINA_PADRAO : limite;
+        if (tamanho < 1 || tamanho > TAMANHO_PAGINA_MAXIMO) {
+            throw new RequisicaoInvalidaException("O limite deve estar entre 1 e " + TAMANHO_PAGINA_MAXIMO + ".");
+        }
+        LocalDate inicio = dataInicio != null ? dataInicio : DATA_MINIMA;
+        LocalDate fim = dataFim != null ? dataFim : DATA_MAXIMA;
+
+        // Busca um item a mais para saber se existe uma próxima página sem precisar de COUNT
+        PageRequest pagina = PageRequest.of(0, tamanho + 1);
+        CursorVenda anterior = cursor == null || cursor.isBlank() ? null : CursorVenda.decodificar(cursor);
+        List<VendaDTO> vendas;
+        if (particionamento != null) {
+            vendas = particionamento.buscarPagina(inicio, fim,
+                    anterior != null ? anterior.dataVenda() : null, anterior != null ? anterior.id() : null, tamanho + 1)
+                    .stream().map(VendaDTO::de).toList();
+        } else if (anterior == null) {
+            vendas = vendaRepository.buscarPrimeiraPagina(inicio, fim, pagina);
         } else {
-            // Se nenhuma data é fornecida, retorna todas as vendas
-            return vendaRepository.findAll();
+            vendas = vendaRepository.buscarPaginaApos(inicio, fim, anterior.dataVenda(), anterior.id(), pagina);
+        }
+
+        metricasVendas.registrarLinhasRetornadas("listar-pagina", dataInicio, dataFim, Math.min(vendas.size(), tamanho));
+        if (vendas.size() <= tamanho) {
+            return new PaginaVendasDTO(vendas, null);
+        }
+        List<VendaDTO> itens = vendas.subList(0, tamanho);
+        VendaDTO ultima = itens.get(tamanho - 1);
+        return new PaginaVendasDTO(itens, new CursorVenda(ultima.getDataVenda(), ultima.getId()).codificar());
+    }
+
+    /**
+     * Entrega as vendas do intervalo uma a uma ao consumidor, com memória constante.
+     * Cada entidade é desanexada do contexto de persistência logo após ser consumida.
+     * Com o particionamento habilitado, as partições seladas são entregues primeiro, em ordem;
+     * vendas retroativas ainda na tabela ativa vêm depois delas.
+     *
+     * @param dataInicio Data de início para o filtro (pode ser null).
+     * @param dataFim    Data de fim para o filtro (pode ser null).
+     * @param consumidor Recebe cada venda na ordem (dataVenda, id).
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "transmitir"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public void percorrerVendas(LocalDate dataInicio, LocalDate dataFim, Consumer<Venda> consumidor) {
+        LocalDate inicio = dataInicio != null ? dataInicio : DATA_MINIMA;
+        LocalDate fim = dataFim != null ? dataFim : DATA_MAXIMA;
+        if (particionamento != null) {
+            particionamento.percorrerPorPeriodo(inicio, fim, consumidor);
+        }
+        try (Stream<Venda> vendas = vendaRepository.streamPorPeriodo(inicio, fim)) {
+            vendas.forEach(venda -> {
+                consumidor.accept(venda);
+                entityManager.detach(venda);
+            });
         }
     }
 
     // O método listarTodasAsVendas() original pode ser mantido se você quiser uma forma
     // explícita de buscar todas sem passar null para o método de filtro,
     // ou pode ser removido se listarVendasComFiltro(null, null) for o suficiente.
-    public List<Venda> listarTodasAsVendas() {
-        return vendaRepository.findAll();
+    public List<VendaDTO> listarTodasAsVendas() {
+        return vendaRepository.listarTodas();
     }
 
+    @Transactional
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "salvar"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
     public Venda salvarVenda(Venda venda) {
         // Adicionar validações de negócio aqui se necessário antes de salvar
-        return vendaRepository.save(venda);
+        boolean alteracao = false;
+        LocalDate dataAnterior = null;
+        if (venda.getId() != null) {
+            // Alteração: retira os valores antigos do resumo diário e do cache antes de gravar os novos
+            Venda anterior = buscarNaTabelaAtiva(venda.getId()).orElse(null);
+            if (anterior != null) {
+                alteracao = true;
+                dataAnterior = anterior.getDataVenda();
+                agregacaoVendaService.removerVenda(anterior);
+                cacheVendas.invalidar(anterior.getId(), anterior.getDataVenda());
+            }
+        }
+        Venda vendaSalva = vendaRepository.save(venda);
+        agregacaoVendaService.registrarVenda(vendaSalva);
+        cacheVendas.invalidar(vendaSalva.getId(), vendaSalva.getDataVenda());
+        analiseColunarService.registrar(vendaSalva);
+        if (alteracao) {
+            feedVendasService.publicarAlteracao(vendaSalva, dataAnterior);
+        } else {
+            feedVendasService.publicarCriacao(vendaSalva);
+        }
+        return vendaSalva;
     }
 
-    public Venda buscarVendaPorId(Long id) {
-        return vendaRepository.findById(id)
+    @Transactional(readOnly = true)
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "buscar"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public VendaDTO buscarVendaPorId(Long id) {
+        return cacheVendas.buscarPorId(id, () -> vendaRepository.buscarDTOPorId(id)
+                        .or(() -> particionamento != null ? particionamento.buscarPorId(id).map(VendaDTO::de) : Optional.empty()))
                 .orElseThrow(() -> new ResourceNotFoundException("Venda com ID " + id + " não foi encontrada."));
     }
 
+    /**
+     * Altera uma venda com controle otimista de concorrência. Um único UPDATE, condicionado ao ID
+     * e à versão informada, grava os novos valores e devolve os anteriores, usados para corrigir o
+     * resumo diário; só quando nenhuma linha é afetada a versão atual é consultada, para separar
+     * venda inexistente (404) de versão desatualizada (409).
+     *
+     * @param id      ID da venda.
+     * @param dados   Novos valores e a versão lida pelo cliente.
+     * @param parcial Se true (PATCH), campos null mantêm o valor atual; se false (PUT), todos são obrigatórios.
+     * @return A venda alterada, com a nova versão.
+     */
+    @Transactional
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "atualizar"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public Venda atualizarVenda(Long id, AtualizarVendaDTO dados, boolean parcial) {
+        validarAtualizacao(dados, parcial);
+        Produto produto = dados.getNomeProduto() != null ? catalogoProdutoService.obterOuCriar(dados.getNomeProduto()) : null;
+        Instant agora = Instant.now();
+
+        Optional<Venda> anterior = atualizarNaTabelaAtiva(id, dados, produto, agora);
+        if (anterior.isEmpty() && particionamento != null && particionamento.trazerParaTabelaAtiva(id)) {
+            anterior = atualizarNaTabelaAtiva(id, dados, produto, agora);
+        }
+        if (anterior.isEmpty()) {
+            long versaoAtual = vendaRepository.buscarVersao(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Venda com ID " + id + " não encontrada, não é possível alterar."));
+            throw new ConflitoVersaoException("A venda " + id + " foi alterada por outra requisição: versão informada "
+                    + dados.getVersao() + ", versão atual " + versaoAtual + ".", versaoAtual);
+        }
+
+        Venda antiga = anterior.get();
+        Venda atualizada = new Venda(id,
+                produto != null ? produto : antiga.getProduto(),
+                dados.getQuantidadeVendida() != null ? dados.getQuantidadeVendida() : antiga.getQuantidadeVendida(),
+                dados.getDataVenda() != null ? dados.getDataVenda() : antiga.getDataVenda(),
+                dados.getValorTotal() != null ? dados.getValorTotal() : antiga.getValorTotal(),
+                dados.getVersao() + 1,
+                agora);
+        agregacaoVendaService.removerVenda(antiga);
+        agregacaoVendaService.registrarVenda(atualizada);
+        cacheVendas.invalidar(id, Stream.of(antiga.getDataVenda(), atualizada.getDataVenda())
+                .filter(Objects::nonNull).distinct().toList());
+        analiseColunarService.registrar(atualizada);
+        feedVendasService.publicarAlteracao(atualizada, antiga.getDataVenda());
+        return atualizada;
+    }
+
+    /**
+     * Remove uma venda com um único DELETE, sem consultá-la antes. A linha devolvida pelo próprio
+     * comando corrige o resumo diário; nenhuma linha afetada resulta em 404.
+     */
+    @Transactional
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "deletar"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
     public void deletarVenda(Long id) {
-        // Adicionar verificação se a venda existe antes de deletar, para lançar ResourceNotFoundException
-        if (!vendaRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Venda com ID " + id + " não encontrada, não é possível deletar.");
+        Venda venda = jdbcTemplate.query(DELETAR_POR_ID, mapeadorVenda, id).stream().findFirst()
+                .or(() -> particionamento != null ? particionamento.removerPorId(id) : Optional.empty())
+                .orElseThrow(() -> new ResourceNotFoundException("Venda com ID " + id + " não encontrada, não é possível deletar."));
+        agregacaoVendaService.removerVenda(venda);
+        cacheVendas.invalidar(id, venda.getDataVenda());
+        analiseColunarService.remover(id);
+        feedVendasService.publicarRemocao(id, venda.getDataVenda());
+    }
+
+    /**
+     * Remove todas as vendas do intervalo, para rotinas de retenção: um DELETE na tabela ativa e um
+     * em cada partição sobreposta. Os resumos diários do intervalo ficam vazios e são apagados.
+     * O feed recebe um único evento PERIODO_REMOVIDO com o intervalo, e não um evento por venda.
+     *
+     * @return Quantidade de vendas removidas.
+     */
+    @Transactional
+    @Timed(value = "vendas.servico", extraTags = {"operacao", "deletar-periodo"}, percentiles = {0.5, 0.95, 0.99}, histogram = true)
+    public long deletarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataFim.isBefore(dataInicio)) {
+            throw new RequisicaoInvalidaException("A data de fim não pode ser anterior à data de início.");
+        }
+        long removidas = jdbcTemplate.update(DELETAR_POR_PERIODO, dataInicio, dataFim);
+        if (particionamento != null) {
+            removidas += particionamento.removerPorPeriodo(dataInicio, dataFim);
+        }
+        agregacaoVendaService.removerResumos(dataInicio, dataFim);
+        analiseColunarService.removerPeriodo(dataInicio, dataFim);
+        cacheVendas.invalidarTudo();
+        feedVendasService.publicarRemocaoPeriodo(dataInicio, dataFim);
+        return removidas;
+    }
+
+    private Optional<Venda> atualizarNaTabelaAtiva(Long id, AtualizarVendaDTO dados, Produto produto, Instant agora) {
+        return jdbcTemplate.query(ATUALIZAR_COM_VERSAO, mapeadorVenda,
+                new SqlParameterValue(Types.BIGINT, produto != null ? produto.getId() : null),
+                new SqlParameterValue(Types.INTEGER, dados.getQuantidadeVendida()),
+                new SqlParameterValue(Types.DATE, dados.getDataVenda()),
+                new SqlParameterValue(Types.NUMERIC, dados.getValorTotal()),
+                agora.atOffset(ZoneOffset.UTC),
+                id,
+                dados.getVersao()).stream().findFirst();
+    }
+
+    private static void validarAtualizacao(AtualizarVendaDTO dados, boolean parcial) {
+        if (dados.getVersao() == null) {
+            throw new RequisicaoInvalidaException("Informe a versão da venda lida antes da alteração (campo versao).");
+        }
+        if (!parcial && (dados.getNomeProduto() == null || dados.getQuantidadeVendida() == null
+                || dados.getDataVenda() == null || dados.getValorTotal() == null)) {
+            throw new RequisicaoInvalidaException("O PUT exige nomeProduto, quantidadeVendida, dataVenda e valorTotal; use PATCH para alterar só alguns campos.");
+        }
+    }
+
+    /**
+     * Busca a venda para alteração. Se ela estiver em uma partição selada, é devolvida
+     * antes à tabela ativa, onde o JPA pode alterá-la ou removê-la.
+     */
+    private Optional<Venda> buscarNaTabelaAtiva(Long id) {
+        Optional<Venda> venda = vendaRepository.findById(id);
+        if (venda.isEmpty() && particionamento != null && particionamento.trazerParaTabelaAtiva(id)) {
+            venda = vendaRepository.findById(id);
         }
-        vendaRepository.deleteById(id);
+        return venda;
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converte bancos criados antes da dimensão de produtos e adotados pelo baseline do Flyway
+ * (que pula a V1): o nome gravado em cada venda vira uma linha em {@code produto} e a venda
+ * passa a guardar só o {@code produto_id}. Em Java porque depende de quais tabelas e colunas
+ * existem; num banco criado pela V1 não altera nada.
+ */
+public class V3__ConverterDimensaoProdutos extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V3__ConverterDimensaoProdutos.class);
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS produto_seq START WITH 1 INCREMENT BY 1");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS produto (id BIGINT NOT NULL PRIMARY KEY, nome VARCHAR(255) NOT NULL, "
+                + "CONSTRAINT uk_produto_nome UNIQUE (nome))");
+
+        List<String> tabelas = new ArrayList<>();
+        tabelas.add("venda");
+        if (existeTabela(jdbcTemplate, "particao_venda")) {
+            tabelas.addAll(jdbcTemplate.queryForList("SELECT tabela FROM particao_venda", String.class));
+        }
+        for (String tabela : tabelas) {
+            if (existeColuna(jdbcTemplate, tabela, "nome_produto")) {
+                migrarTabela(jdbcTemplate, tabela);
+            }
+        }
+        if (existeColuna(jdbcTemplate, "resumo_venda_diaria", "nome_produto")) {
+            // A chave do resumo mudou; o DataLoader recalcula as linhas a partir das vendas na subida
+            jdbcTemplate.execute("DROP TABLE resumo_venda_diaria");
+            jdbcTemplate.execute("CREATE TABLE resumo_venda_diaria (data_venda DATE NOT NULL, produto_id BIGINT NOT NULL, "
+                    + "quantidade_itens BIGINT, quantidade_vendas BIGINT, valor_total NUMERIC(38, 2), "
+                    + "PRIMARY KEY (data_venda, produto_id))");
+        }
+    }
+
+    private static void migrarTabela(JdbcTemplate jdbcTemplate, String tabela) {
+        if (!existeColuna(jdbcTemplate, tabela, "produto_id")) {
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " ADD COLUMN produto_id BIGINT");
+        }
+        int produtos = jdbcTemplate.update("INSERT INTO produto (id, nome) "
+                + "SELECT NEXT VALUE FOR produto_seq, nome FROM (SELECT DISTINCT TRIM(nome_produto) AS nome FROM " + tabela
+                + " WHERE nome_produto IS NOT NULL AND TRIM(nome_produto) <> '') n "
+                + "WHERE NOT EXISTS (SELECT 1 FROM produto p WHERE p.nome = n.nome)");
+        int vendas = jdbcTemplate.update("UPDATE " + tabela + " v SET produto_id = "
+                + "(SELECT p.id FROM produto p WHERE p.nome = TRIM(v.nome_produto)) WHERE v.nome_produto IS NOT NULL");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_" + tabela + "_nome_produto");
+        jdbcTemplate.execute("ALTER TABLE " + tabela + " DROP COLUMN nome_produto");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + tabela + "_produto ON " + tabela + " (produto_id)");
+        log.info("Tabela {} convertida para a dimensão de produtos: {} produtos novos, {} vendas associadas", tabela, produtos, vendas);
+    }
+
+    private static boolean existeTabela(JdbcTemplate jdbcTemplate, String tabela) {
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = UPPER(?)", Integer.class, tabela);
+        return total != null && total > 0;
+    }
+
+    private static boolean existeColuna(JdbcTemplate jdbcTemplate, String tabela, String coluna) {
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = UPPER(?) AND COLUMN_NAME = UPPER(?)", Integer.class, tabela, coluna);
+        return total != null && total > 0;
+    }
+}
@@ -0,0 +1,48 @@
+-- Esquema equivalente ao gerado pelo Hibernate para as entidades de model/.
+-- Alterações futuras entram em novos arquivos V2__..., nunca editando este.
+
+CREATE SEQUENCE venda_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE produto_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE produto (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_produto_nome UNIQUE (nome)
+);
+
+CREATE TABLE venda (
+    id BIGINT NOT NULL PRIMARY KEY,
+    produto_id BIGINT,
+    quantidade_vendida INTEGER NOT NULL,
+    data_venda DATE,
+    valor_total NUMERIC(38, 2),
+    versao BIGINT,
+    ultima_alteracao TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT fk_venda_produto FOREIGN KEY (produto_id) REFERENCES produto (id)
+);
+CREATE INDEX idx_venda_data_venda ON venda (data_venda);
+CREATE INDEX idx_venda_data_venda_id ON venda (data_venda, id);
+CREATE INDEX idx_venda_produto ON venda (produto_id);
+
+CREATE TABLE resumo_venda_diaria (
+    data_venda DATE NOT NULL,
+    produto_id BIGINT NOT NULL,
+    quantidade_itens BIGINT,
+    quantidade_vendas BIGINT,
+    valor_total NUMERIC(38, 2),
+    PRIMARY KEY (data_venda, produto_id)
+);
+
+CREATE TABLE particao_venda (
+    mes DATE NOT NULL PRIMARY KEY,
+    tabela VARCHAR(255),
+    linhas BIGINT NOT NULL,
+    menor_id BIGINT,
+    maior_id BIGINT
+);
+
+CREATE TABLE posicao_ingestao (
+    id BIGINT NOT NULL PRIMARY KEY,
+    geracao BIGINT NOT NULL,
+    deslocamento INTEGER NOT NULL
+);
@@ -0,0 +1,24 @@
+-- Relatórios pré-calculados pelo RelatorioVendaService (model/RelatorioVendas).
+
+CREATE TABLE relatorio_vendas (
+    periodo VARCHAR(255) NOT NULL,
+    inicio DATE NOT NULL,
+    fim DATE,
+    quantidade_vendas BIGINT NOT NULL,
+    quantidade_itens BIGINT NOT NULL,
+    valor_total NUMERIC(38, 2),
+    ticket_medio NUMERIC(38, 2),
+    gerado_em TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (periodo, inicio)
+);
+
+CREATE TABLE relatorio_vendas_produto (
+    periodo VARCHAR(255) NOT NULL,
+    inicio DATE NOT NULL,
+    posicao INTEGER NOT NULL,
+    nome_produto VARCHAR(255),
+    quantidade_itens BIGINT NOT NULL,
+    valor_total NUMERIC(38, 2),
+    PRIMARY KEY (periodo, inicio, posicao),
+    CONSTRAINT fk_relatorio_vendas_produto FOREIGN KEY (periodo, inicio) REFERENCES relatorio_vendas (periodo, inicio)
+);
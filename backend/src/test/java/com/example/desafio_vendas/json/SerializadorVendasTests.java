@@ -0,0 +1,131 @@
+package com.example.desafio_vendas.json;
+
+import com.example.desafio_vendas.dto.DetalheErro;
+import com.example.desafio_vendas.dto.EventoVendaDTO;
+import com.example.desafio_vendas.dto.PaginaVendasDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.model.Produto;
+import com.example.desafio_vendas.model.Venda;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O escritor dedicado deve produzir exatamente os bytes do ObjectMapper da aplicação, que
+ * continua sendo usado quando o escritor é desabilitado.
+ */
+@SpringBootTest
+class SerializadorVendasTests {
+
+	private static final LocalDate DATA = LocalDate.of(2024, 1, 31);
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void decimaisSaemComoNoJackson() throws Exception {
+		String[] valores = {"1250.50", "0.00", "-3.1", "0", "-0.001", "0.000001", "0.0000001", "0E-8", "1E+3",
+				"999999999999999999", "123456789012345678901.99", "0.000000000000000001"};
+		for (String valor : valores) {
+			assertMesmosBytes(venda(1L, "Mouse", new BigDecimal(valor), null));
+		}
+		assertMesmosBytes(venda(1L, "Mouse", null, null));
+	}
+
+	@Test
+	void instantesComFracaoSaemComoNoJackson() throws Exception {
+		String[] instantes = {"2024-01-31T10:15:30Z", "2024-01-31T10:15:30.120Z", "2024-01-31T10:15:30.000120Z",
+				"2024-01-31T10:15:30.000000120Z", "1969-12-31T23:59:59.999Z", "2000-02-29T00:00:00Z"};
+		for (String instante : instantes) {
+			assertMesmosBytes(venda(1L, "Mouse", BigDecimal.TEN, Instant.parse(instante)));
+		}
+	}
+
+	@Test
+	void textosComEscapesESurrogatesSaemComoNoJackson() throws Exception {
+		String[] nomes = {"Monitor LED 27\"", "C:\\drivers\\mouse", "linha\nnova\tcom\rcontrole\b\f", "\u0001\u001f\u007f",
+				"Teclado Mecânico € ção", "Headset 🎧 Pro", "metade \uD800 sem par", "\uDC00", "a/b <tag> & 'aspas'"};
+		for (String nome : nomes) {
+			assertMesmosBytes(venda(1L, nome, BigDecimal.ONE, null));
+			assertMesmosBytes(new Venda(2L, new Produto(1L, nome), 3, DATA, BigDecimal.ONE));
+		}
+	}
+
+	@Test
+	void textoMaiorQueOBufferSaiComoNoJackson() throws Exception {
+		String nome = "ção🎧\"".repeat(EscritorJson.TAMANHO_BUFFER / 3);
+		assertMesmosBytes(venda(1L, nome, BigDecimal.ONE, null));
+	}
+
+	@Test
+	void entidadeSaiComoNoJackson() throws Exception {
+		Venda venda = new Venda(10L, new Produto(3L, "SSD 1TB NVMe"), 3, DATA, new BigDecimal("600.00"));
+		venda.setVersao(4L);
+		venda.setUltimaAlteracao(Instant.parse("2024-02-01T08:00:00.500Z"));
+		assertMesmosBytes(venda);
+		assertMesmosBytes(new Venda(null, null, 0, null, null));
+	}
+
+	@Test
+	void listasEPaginasSaemComoNoJackson() throws Exception {
+		List<VendaDTO> itens = new ArrayList<>();
+		for (long id = 1; id <= 3; id++) {
+			itens.add(venda(id, "Produto " + id, new BigDecimal("10.5" + id), Instant.parse("2024-01-31T10:15:30.123456Z")));
+		}
+		assertMesmosBytes(itens);
+		assertMesmosBytes(new PaginaVendasDTO(itens, "MjAyNC0wMS0zMToz"));
+		assertMesmosBytes(new PaginaVendasDTO(new ArrayList<>(), null));
+	}
+
+	@Test
+	void eventosDoFeedSaemComoNoJackson() throws Exception {
+		List<EventoVendaDTO> lote = List.of(
+				new EventoVendaDTO(1L, "CRIADA", 1L, DATA, null, null, venda(1L, "Mouse", BigDecimal.TEN, null)),
+				new EventoVendaDTO(2L, "ALTERADA", 1L, DATA.plusDays(40), null, DATA,
+						venda(1L, "Mouse", new BigDecimal("12.90"), Instant.parse("2024-03-11T09:00:00.250Z"))),
+				new EventoVendaDTO(3L, "REMOVIDA", 1L, DATA, null, null, null),
+				new EventoVendaDTO(4L, "PERIODO_REMOVIDO", null, DATA, DATA.plusMonths(1), null, null));
+		assertMesmosBytes(lote);
+		assertMesmosBytes(lote.get(1));
+	}
+
+	@Test
+	void errosSaemComoNoJackson() throws Exception {
+		LocalDateTime[] momentos = {LocalDateTime.of(2024, 1, 31, 10, 15), LocalDateTime.of(2024, 1, 31, 10, 15, 30, 120_000_000),
+				LocalDateTime.of(2024, 1, 31, 10, 15, 30, 123_456_789), LocalDateTime.of(2024, 1, 31, 0, 0, 0, 1_000)};
+		for (LocalDateTime momento : momentos) {
+			assertMesmosBytes(new DetalheErro("Requisição Inválida", 400, "Campo \"valorTotal\" inválido.", momento,
+					"Caminho: /vendas?campos=id,nomeProduto"));
+		}
+		assertMesmosBytes(new DetalheErro(null, 503, null, null, null));
+	}
+
+	private void assertMesmosBytes(Object valor) throws Exception {
+		byte[] esperado = objectMapper.writeValueAsBytes(valor);
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		try (EscritorJson escritor = EscritorJson.abrir(saida)) {
+			SerializadorVendas.escrever(escritor, valor, CamposVenda.TODOS);
+		}
+		byte[] obtido = saida.toByteArray();
+
+		assertThat(new String(obtido, StandardCharsets.UTF_8)).isEqualTo(new String(esperado, StandardCharsets.UTF_8));
+		assertThat(obtido).isEqualTo(esperado);
+	}
+
+	private static VendaDTO venda(Long id, String nome, BigDecimal valor, Instant ultimaAlteracao) {
+		return new VendaDTO(id, nome, 2, DATA, valor, 1L, ultimaAlteracao);
+	}
+
+}
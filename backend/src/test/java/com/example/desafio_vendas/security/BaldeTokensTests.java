@@ -0,0 +1,100 @@
+package com.example.desafio_vendas.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaldeTokensTests {
+
+	// 10 tokens de capacidade, repostos a 10 por segundo: um token a cada 100 ms
+	private static final long INICIO = 1_000_000_000_000L;
+	private static final long NANOS_POR_TOKEN = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void baldeNovoComecaCheio() {
+		BaldeTokens balde = new BaldeTokens(10, 10, INICIO);
+
+		assertThat(balde.cheio(INICIO)).isTrue();
+		assertThat(balde.tokensDisponiveis(INICIO)).isEqualTo(10.0);
+		assertThat(balde.consumir(10, INICIO)).isZero();
+		assertThat(balde.tokensDisponiveis(INICIO)).isZero();
+		assertThat(balde.cheio(INICIO)).isFalse();
+	}
+
+	@Test
+	void recusaInformaAEsperaSemConsumir() {
+		BaldeTokens balde = new BaldeTokens(10, 10, INICIO);
+		balde.consumir(8, INICIO);
+
+		assertThat(balde.consumir(3, INICIO)).isEqualTo(NANOS_POR_TOKEN);
+		assertThat(balde.tokensDisponiveis(INICIO)).isEqualTo(2.0);
+		assertThat(balde.consumir(3, INICIO + NANOS_POR_TOKEN)).isZero();
+	}
+
+	@Test
+	void reposicaoNaoPassaDaCapacidade() {
+		BaldeTokens balde = new BaldeTokens(10, 10, INICIO);
+		balde.consumir(10, INICIO);
+		long muitoDepois = INICIO + TimeUnit.MINUTES.toNanos(5);
+
+		assertThat(balde.cheio(muitoDepois)).isTrue();
+		assertThat(balde.tokensDisponiveis(muitoDepois)).isEqualTo(10.0);
+		assertThat(balde.consumir(10, muitoDepois)).isZero();
+		assertThat(balde.consumir(1, muitoDepois)).isEqualTo(NANOS_POR_TOKEN);
+	}
+
+	@Test
+	void custoAcimaDaCapacidadeEsvaziaUmBaldeCheio() {
+		BaldeTokens balde = new BaldeTokens(10, 10, INICIO);
+
+		assertThat(balde.consumir(25, INICIO)).isZero();
+		assertThat(balde.tokensDisponiveis(INICIO)).isZero();
+		assertThat(balde.consumir(1, INICIO)).isEqualTo(NANOS_POR_TOKEN);
+	}
+
+	@Test
+	void custoAcimaDaCapacidadeEsperaOBaldeEncherEPassa() {
+		BaldeTokens balde = new BaldeTokens(10, 10, INICIO);
+		balde.consumir(5, INICIO);
+
+		long espera = balde.consumir(25, INICIO);
+		assertThat(espera).isEqualTo(5 * NANOS_POR_TOKEN);
+		assertThat(balde.consumir(25, INICIO + espera - 1)).isPositive();
+		assertThat(balde.consumir(25, INICIO + espera)).isZero();
+	}
+
+	@Test
+	void consumoConcorrenteNaoPassaDoSaldo() throws Exception {
+		BaldeTokens balde = new BaldeTokens(1_000, 1, INICIO);
+		AtomicInteger aceitas = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				tarefas.add(executor.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						if (balde.consumir(1, INICIO) == 0) {
+							aceitas.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(aceitas.get()).isEqualTo(1_000);
+	}
+
+}
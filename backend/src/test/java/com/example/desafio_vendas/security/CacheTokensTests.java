@@ -0,0 +1,141 @@
+package com.example.desafio_vendas.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheTokensTests {
+
+	@TempDir
+	Path diretorio;
+
+	private Path arquivoChaves;
+	private Path arquivoRevogados;
+	private MeterRegistry registry;
+	private ChavesJwt chaves;
+	private RevogacaoTokens revogacao;
+	private CacheTokens cache;
+
+	@BeforeEach
+	void criarCache() throws Exception {
+		arquivoChaves = diretorio.resolve("chaves.properties");
+		arquivoRevogados = diretorio.resolve("revogados.txt");
+		escrever(arquivoChaves, "ativa=a\nchave.a=segredo-a\nchave.b=segredo-b\n", 1);
+		escrever(arquivoRevogados, "", 1);
+		registry = new SimpleMeterRegistry();
+		chaves = new ChavesJwt("segredo-padrao", arquivoChaves.toString(), Duration.ofHours(1), registry);
+		revogacao = new RevogacaoTokens(arquivoRevogados.toString(), Duration.ofHours(1), 0.01, registry);
+		cache = new CacheTokens(100, revogacao, chaves, registry);
+	}
+
+	@AfterEach
+	void encerrar() {
+		chaves.encerrar();
+		revogacao.encerrar();
+	}
+
+	@Test
+	void guardaOTokenAteOExp() {
+		String valido = token("a", "jti-1", Instant.now().plus(1, ChronoUnit.HOURS));
+		String expirado = token("a", "jti-2", Instant.now().minusSeconds(1));
+		Authentication autenticacao = autenticacao();
+		cache.guardar(valido, autenticacao, verificado(valido));
+		cache.guardar(expirado, autenticacao(), verificado(expirado));
+
+		assertThat(cache.buscar(valido)).isSameAs(autenticacao);
+		assertThat(cache.buscar(expirado)).isNull();
+		assertThat(cache.buscar("desconhecido")).isNull();
+		assertThat(registry.get("cache.gets").tags("cache", "auth.tokens", "result", "hit").functionCounter().count())
+				.isEqualTo(1.0);
+	}
+
+	@Test
+	void tokenSemExpNaoEGuardado() {
+		String semExp = JWT.create().withKeyId("a").withJWTId("jti-1").withIssuer(JwtTokenService.ISSUER)
+				.withSubject("usuario").sign(chaves.assinaturaAtiva().algoritmo());
+		cache.guardar(semExp, autenticacao(), verificado(semExp));
+
+		assertThat(cache.buscar(semExp)).isNull();
+	}
+
+	@Test
+	void tokenRevogadoSaiDoCache() throws Exception {
+		String token = token("a", "jti-1", Instant.now().plus(1, ChronoUnit.HOURS));
+		cache.guardar(token, autenticacao(), verificado(token));
+
+		escrever(arquivoRevogados, "jti-1\n", 2);
+		revogacao.recarregar();
+
+		assertThat(cache.buscar(token)).isNull();
+		assertThat(registry.get("auth.token.cache.invalidados").counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void tokenDeSegredoTrocadoSaiDoCache() throws Exception {
+		Instant exp = Instant.now().plus(1, ChronoUnit.HOURS);
+		String tokenA = token("a", "jti-a", exp);
+		String tokenB = token("b", "jti-b", exp);
+		cache.guardar(tokenA, autenticacao(), verificado(tokenA));
+		cache.guardar(tokenB, autenticacao(), verificado(tokenB));
+
+		// O segredo de "b" vazou e é trocado mantendo o kid; "a" não muda
+		escrever(arquivoChaves, "ativa=a\nchave.a=segredo-a\nchave.b=segredo-novo\n", 2);
+		chaves.recarregar();
+
+		assertThat(cache.buscar(tokenA)).isNotNull();
+		assertThat(cache.buscar(tokenB)).isNull();
+	}
+
+	@Test
+	void tokenDeChaveRetiradaSaiDoCache() throws Exception {
+		String token = token("b", "jti-b", Instant.now().plus(1, ChronoUnit.HOURS));
+		cache.guardar(token, autenticacao(), verificado(token));
+
+		escrever(arquivoChaves, "ativa=a\nchave.a=segredo-a\n", 2);
+		chaves.recarregar();
+
+		assertThat(cache.buscar(token)).isNull();
+	}
+
+	private String token(String kid, String jti, Instant exp) {
+		String segredo = "a".equals(kid) ? "segredo-a" : "segredo-b";
+		return JWT.create().withKeyId(kid).withJWTId(jti).withIssuer(JwtTokenService.ISSUER).withSubject("usuario")
+				.withExpiresAt(exp).sign(Algorithm.HMAC256(segredo));
+	}
+
+	// Como o SecurityFilter: o verificador é o que aceitou o token; tokens expirados só são decodificados
+	private JwtTokenService.TokenVerificado verificado(String token) {
+		JWTVerifier verificador = chaves.verificador(JWT.decode(token).getKeyId());
+		Instant exp = JWT.decode(token).getExpiresAtAsInstant();
+		boolean expirado = exp != null && exp.isBefore(Instant.now());
+		return new JwtTokenService.TokenVerificado(expirado ? JWT.decode(token) : verificador.verify(token), verificador);
+	}
+
+	private static Authentication autenticacao() {
+		return new UsernamePasswordAuthenticationToken("usuario", null, List.of());
+	}
+
+	private static void escrever(Path arquivo, String conteudo, int versao) throws Exception {
+		Files.writeString(arquivo, conteudo);
+		Files.setLastModifiedTime(arquivo, FileTime.from(Instant.parse("2024-06-01T00:00:00Z").plusSeconds(versao)));
+	}
+
+}
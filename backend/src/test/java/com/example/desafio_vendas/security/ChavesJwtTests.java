@@ -0,0 +1,88 @@
+package com.example.desafio_vendas.security;
+
+import com.auth0.jwt.JWTVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChavesJwtTests {
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	void recargaQueFalhaETentadaDeNovoAteDarCerto() throws Exception {
+		Path arquivo = diretorio.resolve("chaves.properties");
+		escrever(arquivo, "ativa=a\nchave.a=segredo-a\n", 1);
+		ChavesJwt chaves = new ChavesJwt("segredo-padrao", arquivo.toString(), Duration.ofHours(1), new SimpleMeterRegistry());
+		try {
+			assertThat(chaves.assinaturaAtiva().kid()).isEqualTo("a");
+
+			// "ativa" aponta para uma chave que ainda não está no arquivo
+			escrever(arquivo, "ativa=b\nchave.a=segredo-a\n", 2);
+			assertThatThrownBy(chaves::recarregar).isInstanceOf(IllegalStateException.class);
+			assertThatThrownBy(chaves::recarregar).isInstanceOf(IllegalStateException.class);
+			assertThat(chaves.assinaturaAtiva().kid()).isEqualTo("a");
+
+			escrever(arquivo, "ativa=b\nchave.a=segredo-a\nchave.b=segredo-b\n", 3);
+			chaves.recarregar();
+			assertThat(chaves.assinaturaAtiva().kid()).isEqualTo("b");
+			assertThat(chaves.verificador("a")).isNotNull();
+		} finally {
+			chaves.encerrar();
+		}
+	}
+
+	@Test
+	void arquivoSemMudancaNaoERelido() throws Exception {
+		Path arquivo = diretorio.resolve("chaves.properties");
+		escrever(arquivo, "ativa=a\nchave.a=segredo-a\n", 1);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ChavesJwt chaves = new ChavesJwt("segredo-padrao", arquivo.toString(), Duration.ofHours(1), registry);
+		try {
+			chaves.recarregar();
+			chaves.recarregar();
+
+			assertThat(registry.get("auth.chaves.recargas").tag("resultado", "sucesso").counter().count()).isZero();
+		} finally {
+			chaves.encerrar();
+		}
+	}
+
+	@Test
+	void verificadorSoMudaQuandoOSegredoDoKidMuda() throws Exception {
+		Path arquivo = diretorio.resolve("chaves.properties");
+		escrever(arquivo, "ativa=a\nchave.a=segredo-a\nchave.b=segredo-b\n", 1);
+		ChavesJwt chaves = new ChavesJwt("segredo-padrao", arquivo.toString(), Duration.ofHours(1), new SimpleMeterRegistry());
+		try {
+			JWTVerifier verificadorA = chaves.verificador("a");
+			JWTVerifier verificadorB = chaves.verificador("b");
+
+			// "b" vazou: o segredo é trocado mantendo o kid
+			escrever(arquivo, "ativa=a\nchave.a=segredo-a\nchave.b=segredo-novo\n", 2);
+			chaves.recarregar();
+
+			assertThat(chaves.verificador("a")).isSameAs(verificadorA);
+			assertThat(chaves.verificador("b")).isNotNull().isNotSameAs(verificadorB);
+			assertThat(chaves.verificador("c")).isNull();
+		} finally {
+			chaves.encerrar();
+		}
+	}
+
+	// Data de modificação explícita: duas escritas no mesmo instante teriam a mesma
+	private static void escrever(Path arquivo, String conteudo, int versao) throws Exception {
+		Files.writeString(arquivo, conteudo);
+		Files.setLastModifiedTime(arquivo, FileTime.from(Instant.parse("2024-06-01T00:00:00Z").plusSeconds(versao)));
+	}
+
+}
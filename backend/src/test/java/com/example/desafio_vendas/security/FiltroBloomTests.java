@@ -0,0 +1,86 @@
+package com.example.desafio_vendas.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTests {
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	void naoTemFalsosNegativos() {
+		FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filtro.adicionar("jti-" + i);
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filtro.talvezContenha("jti-" + i)).as("jti-" + i).isTrue();
+		}
+	}
+
+	@Test
+	void taxaDeFalsosPositivosFicaPertoDaPedida() {
+		FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filtro.adicionar("jti-" + i);
+		}
+
+		int falsosPositivos = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filtro.talvezContenha("outro-" + i)) {
+				falsosPositivos++;
+			}
+		}
+		assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+	}
+
+	@Test
+	void filtroVazioRespondeAusente() {
+		FiltroBloom filtro = new FiltroBloom(0, 0.01);
+
+		assertThat(filtro.talvezContenha("jti-1")).isFalse();
+		assertThat(filtro.talvezContenha("")).isFalse();
+	}
+
+	@Test
+	void falsoPositivoEConfirmadoNaListaExata() throws Exception {
+		List<String> revogados = List.of("revogado-1", "revogado-2", "revogado-3");
+		Files.write(diretorio.resolve("revogados.txt"), revogados);
+
+		// Mesmos parâmetros e elementos do filtro montado pela RevogacaoTokens, que é determinístico
+		FiltroBloom filtro = new FiltroBloom(revogados.size(), 0.5);
+		revogados.forEach(filtro::adicionar);
+		String falsoPositivo = null;
+		for (int i = 0; falsoPositivo == null && i < 1_000_000; i++) {
+			if (filtro.talvezContenha("valido-" + i)) {
+				falsoPositivo = "valido-" + i;
+			}
+		}
+		assertThat(falsoPositivo).as("jti ausente que o filtro indica como talvez presente").isNotNull();
+
+		MeterRegistry registry = new SimpleMeterRegistry();
+		RevogacaoTokens revogacao = new RevogacaoTokens(diretorio.resolve("revogados.txt").toString(),
+				Duration.ofHours(1), 0.5, registry);
+		try {
+			assertThat(revogacao.revogado(falsoPositivo)).isFalse();
+			assertThat(registry.get("auth.revogacao.falsos-positivos").counter().count()).isEqualTo(1.0);
+
+			assertThat(revogacao.revogado("revogado-2")).isTrue();
+			assertThat(registry.get("auth.token.revogados").counter().count()).isEqualTo(1.0);
+		} finally {
+			revogacao.encerrar();
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.exception.RequisicaoInvalidaException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorVendaTests {
+
+	@Test
+	void decodificaOQueCodificou() {
+		CursorVenda[] cursores = {new CursorVenda(LocalDate.of(2024, 1, 31), 123L),
+				new CursorVenda(LocalDate.of(1960, 5, 1), 7L),
+				new CursorVenda(VendaService.DATA_MINIMA, 1L),
+				new CursorVenda(VendaService.DATA_MAXIMA, Long.MAX_VALUE)};
+		for (CursorVenda cursor : cursores) {
+			assertThat(CursorVenda.decodificar(cursor.codificar())).isEqualTo(cursor);
+		}
+	}
+
+	@Test
+	void recusaCursoresMalformados() {
+		String[] malformados = {null, "", "!!!", "a+b/", base64("sem-separador"), base64("abc:1"), base64("19753:"),
+				base64(":5"), base64("1:2:3"), base64("1.5:2"), base64(" 1:2"), base64("19753:5\n"),
+				base64("99999999999999:1"), base64("1:99999999999999999999")};
+		for (String cursor : malformados) {
+			assertRecusado(cursor);
+		}
+	}
+
+	@Test
+	void recusaCursoresForjados() {
+		String valido = new CursorVenda(LocalDate.of(2024, 1, 31), 5L).codificar();
+		String[] forjados = {base64("19753:0"), base64("19753:-5"), base64("+19753:5"), base64("019753:5"),
+				base64("19753:+5"), base64("19753:05"), valido + "==", valido.toUpperCase(),
+				base64(LocalDate.of(10000, 1, 1).toEpochDay() + ":1"), base64(LocalDate.of(0, 12, 31).toEpochDay() + ":1")};
+		for (String cursor : forjados) {
+			assertRecusado(cursor);
+		}
+	}
+
+	private static void assertRecusado(String cursor) {
+		assertThatThrownBy(() -> CursorVenda.decodificar(cursor))
+				.as("cursor %s", cursor)
+				.isInstanceOf(RequisicaoInvalidaException.class)
+				.hasMessage("Cursor de paginação inválido.");
+	}
+
+	private static String base64(String bruto) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
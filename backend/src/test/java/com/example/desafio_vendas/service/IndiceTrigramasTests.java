@@ -0,0 +1,94 @@
+package com.example.desafio_vendas.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceTrigramasTests {
+
+	private IndiceTrigramas indice;
+
+	@BeforeEach
+	void criarIndice() {
+		indice = new IndiceTrigramas();
+		indice.adicionar(10L, "mouse sem fio");
+		indice.adicionar(20L, "monitor led 27\"");
+		indice.adicionar(30L, "ssd 1tb nvme");
+		indice.adicionar(40L, "aaaa");
+	}
+
+	@Test
+	void encontraOTermoEmQualquerPosicao() {
+		assertThat(indice.buscar("mouse")).containsExactly(10L);
+		assertThat(indice.buscar("sem f")).containsExactly(10L);
+		assertThat(indice.buscar("nvme")).containsExactly(30L);
+		assertThat(indice.buscar("mo")).containsExactly(10L, 20L);
+	}
+
+	@Test
+	void termosComMenosDeTresCaracteresComparamTodosOsNomes() {
+		assertThat(indice.buscar("o")).containsExactly(10L, 20L);
+		assertThat(indice.buscar("1t")).containsExactly(30L);
+		assertThat(indice.buscar("27")).containsExactly(20L);
+		assertThat(indice.buscar("xy")).isEmpty();
+		assertThat(indice.buscar("")).containsExactly(10L, 20L, 30L, 40L);
+	}
+
+	@Test
+	void trigramaRepetidoNoNomeEntraUmaVez() {
+		IndiceTrigramas repetido = new IndiceTrigramas();
+		repetido.adicionar(1L, "aaaaaa");
+
+		assertThat(repetido.trigramas()).isEqualTo(1);
+		assertThat(repetido.buscar("aaa")).containsExactly(1L);
+		assertThat(repetido.buscar("aaaaaa")).containsExactly(1L);
+	}
+
+	@Test
+	void trigramaRepetidoNoTermoNaoDispensaAConfirmacao() {
+		// "aaaaa" só tem o trigrama "aaa", que "aaaa" também tem, mas não é substring dele
+		assertThat(indice.buscar("aaaaa")).isEmpty();
+		assertThat(indice.buscar("aaaa")).containsExactly(40L);
+	}
+
+	@Test
+	void candidatoComTodosOsTrigramasSemASubstringEDescartado() {
+		IndiceTrigramas falsoPositivo = new IndiceTrigramas();
+		falsoPositivo.adicionar(1L, "abc-bcd");
+		falsoPositivo.adicionar(2L, "abcd");
+
+		assertThat(falsoPositivo.buscar("abcd")).containsExactly(2L);
+	}
+
+	@Test
+	void trigramaAusenteNaoEncontraNada() {
+		assertThat(indice.buscar("mouse xyz")).isEmpty();
+	}
+
+	@Test
+	void cresceAlemDaCapacidadeInicial() {
+		IndiceTrigramas grande = new IndiceTrigramas();
+		for (long id = 0; id < 100; id++) {
+			grande.adicionar(id, "produto " + id);
+		}
+
+		assertThat(grande.tamanho()).isEqualTo(100);
+		assertThat(grande.buscar("produto")).hasSize(100);
+		assertThat(grande.buscar("uto 99")).containsExactly(99L);
+		assertThat(grande.buscar("o 7")).containsExactly(7L, 70L, 71L, 72L, 73L, 74L, 75L, 76L, 77L, 78L, 79L);
+	}
+
+	@Test
+	void limparDescartaNomesETrigramas() {
+		long bytesComNomes = indice.bytesOcupados();
+		indice.limpar();
+
+		assertThat(indice.tamanho()).isZero();
+		assertThat(indice.trigramas()).isZero();
+		assertThat(indice.buscar("mouse")).isEmpty();
+		assertThat(indice.buscar("o")).isEmpty();
+		assertThat(indice.bytesOcupados()).isLessThan(bytesComNomes);
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.CriarVendaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:vendas-ingestao-tests",
+		"vendas.dados-simulados.habilitado=false",
+		"vendas.ingestao.assincrona.habilitada=true",
+		"vendas.ingestao.tamanho-arquivo=64KB",
+		"vendas.ingestao.sincronizar-disco=false"
+})
+class IngestaoAssincronaServiceTests {
+
+	private static final Duration ESPERA = Duration.ofSeconds(10);
+
+	@TempDir
+	static Path diretorio;
+
+	@DynamicPropertySource
+	static void propriedades(DynamicPropertyRegistry registro) {
+		registro.add("vendas.ingestao.arquivo", () -> arquivo().toString());
+	}
+
+	@Autowired
+	private IngestaoAssincronaService ingestao;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void registrosAnexadosAntesDaQuedaSaoGravadosNoReinicio() throws Exception {
+		String id = ingestao.enfileirar(venda("Cadeira Gamer Confort"));
+		await().atMost(ESPERA).until(() -> "GRAVADA".equals(ingestao.consultarStatus(id).getStatus()));
+
+		// Simula uma queda depois de o registro chegar ao log e antes de o gravador lê-lo
+		ingestao.encerrar();
+		try {
+			anexarNoLog(objectMapper.writeValueAsBytes(venda("Placa de Vídeo RTX")));
+		} finally {
+			ingestao.iniciar();
+		}
+
+		await().atMost(ESPERA).until(() -> contarVendas("Placa de Vídeo RTX") == 1);
+		// O que já estava gravado antes da queda não é regravado
+		assertThat(contarVendas("Cadeira Gamer Confort")).isEqualTo(1);
+	}
+
+	@Test
+	void registroIlegivelEhRejeitadoSemTravarOsSeguintes() throws Exception {
+		List<String> ids;
+		ingestao.encerrar();
+		try {
+			ids = anexarNoLog("{não é json".getBytes(StandardCharsets.UTF_8),
+					objectMapper.writeValueAsBytes(venda("Smartphone Top")));
+		} finally {
+			ingestao.iniciar();
+		}
+
+		await().atMost(ESPERA).until(() -> "GRAVADA".equals(ingestao.consultarStatus(ids.get(1)).getStatus()));
+		assertThat(ingestao.consultarStatus(ids.get(0)).getStatus()).isEqualTo("REJEITADA");
+		assertThat(contarVendas("Smartphone Top")).isEqualTo(1);
+	}
+
+	private static Path arquivo() {
+		return diretorio.resolve("vendas-ingestao.log");
+	}
+
+	// Escreve no formato do serviço: [tamanho int][conteúdo], seguido do marcador de fim
+	private static List<String> anexarNoLog(byte[]... conteudos) throws Exception {
+		List<String> ids = new ArrayList<>();
+		try (FileChannel canal = FileChannel.open(arquivo(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, canal.size());
+			long geracao = mapa.getLong(0);
+			int posicao = Long.BYTES;
+			int tamanho;
+			while ((tamanho = mapa.getInt(posicao)) > 0) {
+				posicao += Integer.BYTES + tamanho;
+			}
+			for (byte[] conteudo : conteudos) {
+				mapa.put(posicao + Integer.BYTES, conteudo);
+				mapa.putInt(posicao + Integer.BYTES + conteudo.length, 0);
+				mapa.putInt(posicao, conteudo.length);
+				ids.add(geracao + "-" + posicao);
+				posicao += Integer.BYTES + conteudo.length;
+			}
+			mapa.force();
+		}
+		return ids;
+	}
+
+	private long contarVendas(String produto) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM venda v JOIN produto p ON p.id = v.produto_id WHERE p.nome = ?",
+				Long.class, produto);
+	}
+
+	private static CriarVendaDTO venda(String produto) {
+		CriarVendaDTO dados = new CriarVendaDTO();
+		dados.setNomeProduto(produto);
+		dados.setQuantidadeVendida(2);
+		dados.setDataVenda(LocalDate.now());
+		dados.setValorTotal(new BigDecimal("199.90"));
+		return dados;
+	}
+
+}
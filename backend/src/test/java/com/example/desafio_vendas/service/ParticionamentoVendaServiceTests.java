@@ -0,0 +1,129 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.exception.ResourceNotFoundException;
+import com.example.desafio_vendas.model.ParticaoVenda;
+import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.ParticaoVendaRepository;
+import com.example.desafio_vendas.repository.VendaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:vendas-particionamento-tests",
+		"vendas.dados-simulados.habilitado=false",
+		"vendas.particionamento.habilitado=true"
+})
+class ParticionamentoVendaServiceTests {
+
+	@TempDir
+	static Path diretorioArquivo;
+
+	@DynamicPropertySource
+	static void propriedades(DynamicPropertyRegistry registro) {
+		registro.add("vendas.particionamento.diretorio-arquivo", () -> diretorioArquivo.toString());
+	}
+
+	@Autowired
+	private ParticionamentoVendaService particionamento;
+
+	@Autowired
+	private VendaService vendaService;
+
+	@Autowired
+	private CatalogoProdutoService catalogoProdutoService;
+
+	@Autowired
+	private VendaRepository vendaRepository;
+
+	@Autowired
+	private ParticaoVendaRepository particaoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void selarMesesAntigosMoveAsVendasParaATabelaDoMes() {
+		Venda primeira = salvar(LocalDate.of(2019, 5, 3));
+		Venda segunda = salvar(LocalDate.of(2019, 5, 28));
+		Venda recente = salvar(LocalDate.now());
+
+		particionamento.selarMesesAntigos();
+
+		ParticaoVenda particao = particaoRepository.findById(LocalDate.of(2019, 5, 1)).orElseThrow();
+		assertThat(particao.getTabela()).isEqualTo("venda_201905");
+		assertThat(particao.getLinhas()).isEqualTo(2);
+		assertThat(particao.getMenorId()).isEqualTo(primeira.getId());
+		assertThat(particao.getMaiorId()).isEqualTo(segunda.getId());
+		assertThat(contar("venda_201905")).isEqualTo(2);
+		assertThat(vendaRepository.findById(primeira.getId())).isEmpty();
+		assertThat(vendaRepository.findById(recente.getId())).isPresent();
+		assertThat(particionamento.buscarPorPeriodo(LocalDate.of(2019, 5, 1), LocalDate.of(2019, 5, 31)))
+				.extracting(Venda::getId)
+				.containsExactlyInAnyOrder(primeira.getId(), segunda.getId());
+	}
+
+	@Test
+	void trazerParaTabelaAtivaMoveAVendaUmaUnicaVez() {
+		Venda venda = salvar(LocalDate.of(2019, 6, 14));
+		particionamento.selarMesesAntigos();
+
+		Boolean movida = transactionTemplate.execute(status -> particionamento.trazerParaTabelaAtiva(venda.getId()));
+		Boolean movidaDeNovo = transactionTemplate.execute(status -> particionamento.trazerParaTabelaAtiva(venda.getId()));
+
+		assertThat(movida).isTrue();
+		assertThat(movidaDeNovo).isFalse();
+		assertThat(vendaRepository.findById(venda.getId())).hasValueSatisfying(
+				ativa -> assertThat(ativa.getDataVenda()).isEqualTo(LocalDate.of(2019, 6, 14)));
+		assertThat(contar("venda_201906")).isZero();
+		assertThat(particaoRepository.findById(LocalDate.of(2019, 6, 1)).orElseThrow().getLinhas()).isZero();
+	}
+
+	@Test
+	void removerParticaoArquivaEApagaATabela() throws Exception {
+		Venda venda = salvar(LocalDate.of(2019, 7, 9));
+		particionamento.selarMesesAntigos();
+
+		particionamento.removerParticao(YearMonth.of(2019, 7), true);
+
+		assertThat(particaoRepository.findById(LocalDate.of(2019, 7, 1))).isEmpty();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'VENDA_201907'", Long.class)).isZero();
+		assertThat(diretorioArquivo.resolve("venda_201907.csv")).exists();
+		assertThat(Files.readString(diretorioArquivo.resolve("venda_201907.csv"))).contains(venda.getId().toString());
+		assertThatThrownBy(() -> vendaService.buscarVendaPorId(venda.getId()))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void removerParticaoInexistenteNaoEncontraOMes() {
+		assertThatThrownBy(() -> particionamento.removerParticao(YearMonth.of(1999, 1), false))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private Venda salvar(LocalDate data) {
+		return vendaService.salvarVenda(new Venda(null, catalogoProdutoService.obterOuCriar("Webcam Full HD"), 1, data, new BigDecimal("250.00")));
+	}
+
+	private long contar(String tabela) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela, Long.class);
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.PlanoConsultaDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PlanoConsultaServiceTests {
+
+	@Autowired
+	private PlanoConsultaService planoConsultaService;
+
+	@Test
+	void consultasFiltradasUsamIndice() {
+		List<PlanoConsultaDTO> inesperadas = planoConsultaService.consultasComVarreduraInesperada();
+
+		assertThat(inesperadas)
+				.as("Consultas que voltaram a varrer a tabela inteira")
+				.extracting(PlanoConsultaDTO::getConsulta)
+				.isEmpty();
+	}
+
+	@Test
+	void consultasDosRepositoriosUsamOSqlGeradoPeloHibernate() {
+		List<PlanoConsultaDTO> planos = planoConsultaService.explicarConsultas();
+
+		assertThat(planos)
+				.filteredOn(plano -> plano.getConsulta().equals("VendaRepository.buscarPaginaApos"))
+				.singleElement()
+				.satisfies(plano -> {
+					assertThat(plano.getSql()).containsIgnoringCase("from venda").contains("?");
+					assertThat(plano.getPlano()).isNotBlank();
+				});
+		assertThat(planos)
+				.extracting(PlanoConsultaDTO::getConsulta)
+				.contains("VendaRepository.listarPorPeriodo", "VendaRepository.streamPorPeriodo",
+						"ResumoVendaDiariaRepository.buscarPorPeriodo", "VendaService.DELETAR_POR_PERIODO");
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.example.desafio_vendas.service;
+
+import com.example.desafio_vendas.dto.AtualizarVendaDTO;
+import com.example.desafio_vendas.dto.VendaDTO;
+import com.example.desafio_vendas.exception.ConflitoVersaoException;
+import com.example.desafio_vendas.exception.ResourceNotFoundException;
+import com.example.desafio_vendas.model.Venda;
+import com.example.desafio_vendas.repository.ParticaoVendaRepository;
+import com.example.desafio_vendas.repository.VendaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:vendas-servico-tests",
+		"vendas.dados-simulados.habilitado=false",
+		"vendas.particionamento.habilitado=true"
+})
+class VendaServiceTests {
+
+	@Autowired
+	private VendaService vendaService;
+
+	@Autowired
+	private ParticionamentoVendaService particionamento;
+
+	@Autowired
+	private CatalogoProdutoService catalogoProdutoService;
+
+	@Autowired
+	private VendaRepository vendaRepository;
+
+	@Autowired
+	private ParticaoVendaRepository particaoRepository;
+
+	@Test
+	void atualizarVendaGravaOsValoresEIncrementaAVersao() {
+		Venda venda = salvar("Teclado Mecânico RGB", LocalDate.now().minusDays(1));
+
+		Venda atualizada = vendaService.atualizarVenda(venda.getId(), dados(venda.getVersao(), 7), true);
+
+		assertThat(atualizada.getVersao()).isEqualTo(venda.getVersao() + 1);
+		VendaDTO lida = vendaService.buscarVendaPorId(venda.getId());
+		assertThat(lida.getQuantidadeVendida()).isEqualTo(7);
+		assertThat(lida.getVersao()).isEqualTo(venda.getVersao() + 1);
+	}
+
+	@Test
+	void atualizarVendaComVersaoDesatualizadaEhRecusada() {
+		Venda venda = salvar("Monitor LED 27\"", LocalDate.now().minusDays(2));
+		vendaService.atualizarVenda(venda.getId(), dados(venda.getVersao(), 3), true);
+
+		assertThatThrownBy(() -> vendaService.atualizarVenda(venda.getId(), dados(venda.getVersao(), 4), true))
+				.isInstanceOfSatisfying(ConflitoVersaoException.class,
+						e -> assertThat(e.getVersaoAtual()).isEqualTo(venda.getVersao() + 1));
+		assertThat(vendaService.buscarVendaPorId(venda.getId()).getQuantidadeVendida()).isEqualTo(3);
+	}
+
+	@Test
+	void atualizarVendaInexistenteNaoEncontraAVenda() {
+		assertThatThrownBy(() -> vendaService.atualizarVenda(Long.MAX_VALUE, dados(0L, 1), true))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void atualizarVendaSeladaADevolveATabelaAtiva() {
+		Venda venda = salvar("SSD 1TB NVMe", LocalDate.of(2020, 3, 10));
+		particionamento.selarMesesAntigos();
+		assertThat(vendaRepository.findById(venda.getId())).isEmpty();
+		assertThat(particaoRepository.findById(LocalDate.of(2020, 3, 1)).orElseThrow().getLinhas()).isEqualTo(1);
+
+		Venda atualizada = vendaService.atualizarVenda(venda.getId(), dados(venda.getVersao(), 9), true);
+
+		assertThat(atualizada.getVersao()).isEqualTo(venda.getVersao() + 1);
+		assertThat(vendaRepository.findById(venda.getId())).hasValueSatisfying(
+				ativa -> assertThat(ativa.getQuantidadeVendida()).isEqualTo(9));
+		assertThat(particionamento.buscarPorId(venda.getId())).isEmpty();
+		assertThat(particaoRepository.findById(LocalDate.of(2020, 3, 1)).orElseThrow().getLinhas()).isZero();
+	}
+
+	@Test
+	void deletarPorPeriodoRemoveDaTabelaAtivaEDasParticoes() {
+		Venda marco = salvar("Headset Pro", LocalDate.of(2021, 3, 10));
+		Venda inicioAbril = salvar("Headset Pro", LocalDate.of(2021, 4, 5));
+		Venda fimAbril = salvar("Headset Pro", LocalDate.of(2021, 4, 25));
+		particionamento.selarMesesAntigos();
+		// Retroativa, gravada depois da selagem: fica na tabela ativa até a próxima
+		Venda retroativa = salvar("Headset Pro", LocalDate.of(2021, 3, 20));
+
+		long removidas = vendaService.deletarPorPeriodo(LocalDate.of(2021, 3, 1), LocalDate.of(2021, 4, 15));
+
+		assertThat(removidas).isEqualTo(3);
+		assertThat(vendaService.listarVendasComFiltro(LocalDate.of(2021, 3, 1), LocalDate.of(2021, 4, 30)))
+				.extracting(VendaDTO::getId)
+				.containsExactly(fimAbril.getId());
+		for (Venda removida : new Venda[]{marco, inicioAbril, retroativa}) {
+			assertThatThrownBy(() -> vendaService.buscarVendaPorId(removida.getId()))
+					.isInstanceOf(ResourceNotFoundException.class);
+		}
+		assertThat(particaoRepository.findById(LocalDate.of(2021, 3, 1)).orElseThrow().getLinhas()).isZero();
+		assertThat(particaoRepository.findById(LocalDate.of(2021, 4, 1)).orElseThrow().getLinhas()).isEqualTo(1);
+	}
+
+	private Venda salvar(String produto, LocalDate data) {
+		return vendaService.salvarVenda(new Venda(null, catalogoProdutoService.obterOuCriar(produto), 2, data, new BigDecimal("100.00")));
+	}
+
+	private static AtualizarVendaDTO dados(Long versao, int quantidade) {
+		AtualizarVendaDTO dados = new AtualizarVendaDTO();
+		dados.setVersao(versao);
+		dados.setQuantidadeVendida(quantidade);
+		return dados;
+	}
+
+}